@@ -3,10 +3,12 @@ package dev.skillter.synaxic.cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.lang.NonNull;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -17,20 +19,40 @@ public class TieredCacheManager implements CacheManager {
     private final CacheManager l2CacheManager;
     private final CacheEventPublisher eventPublisher;
     private final String invalidationTopic;
+    private final Map<String, Caffeine<Object, Object>> localOnlyCaches;
     private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>(16);
     private final Set<String> cacheNames;
 
     public TieredCacheManager(CacheManager l2CacheManager, CacheEventPublisher eventPublisher, String invalidationTopic) {
+        this(l2CacheManager, eventPublisher, invalidationTopic, Map.of());
+    }
+
+    /**
+     * @param localOnlyCaches caches that are kept in-process only, for values that are cheaper
+     *                        to recompute locally than to fetch from Redis
+     */
+    public TieredCacheManager(CacheManager l2CacheManager, CacheEventPublisher eventPublisher, String invalidationTopic,
+                              Map<String, Caffeine<Object, Object>> localOnlyCaches) {
         this.l2CacheManager = l2CacheManager;
         this.eventPublisher = eventPublisher;
         this.invalidationTopic = invalidationTopic;
+        this.localOnlyCaches = Map.copyOf(localOnlyCaches);
         this.cacheNames = ConcurrentHashMap.newKeySet();
         this.cacheNames.addAll(l2CacheManager.getCacheNames());
+        this.cacheNames.addAll(this.localOnlyCaches.keySet());
     }
 
     @Override
     public Cache getCache(@NonNull String name) {
-        return this.cacheMap.computeIfAbsent(name, this::createTieredCache);
+        return this.cacheMap.computeIfAbsent(name, this::createCache);
+    }
+
+    private Cache createCache(String name) {
+        Caffeine<Object, Object> localOnlySpec = localOnlyCaches.get(name);
+        if (localOnlySpec != null) {
+            return new CaffeineCache(name, localOnlySpec.build(), false);
+        }
+        return createTieredCache(name);
     }
 
     private TieredCache createTieredCache(String name) {
@@ -63,6 +85,12 @@ public class TieredCacheManager implements CacheManager {
             } else {
                 l1Cache.invalidate(key);
             }
+        } else if (cache instanceof CaffeineCache caffeineCache) {
+            if (key == null) {
+                caffeineCache.clear();
+            } else {
+                caffeineCache.evict(key);
+            }
         }
     }
 }
\ No newline at end of file
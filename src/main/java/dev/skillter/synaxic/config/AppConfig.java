@@ -4,10 +4,12 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableCaching
 @EnableAsync
+@EnableScheduling
 @EnableJpaRepositories("dev.skillter.synaxic.repository")
 public class AppConfig {
 }
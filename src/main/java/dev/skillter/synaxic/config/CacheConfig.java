@@ -1,5 +1,6 @@
 package dev.skillter.synaxic.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.skillter.synaxic.cache.CacheEventPublisher;
 import dev.skillter.synaxic.cache.TieredCacheManager;
 import org.redisson.api.RedissonClient;
@@ -22,6 +23,7 @@ public class CacheConfig {
     public static final String CACHE_GEO_IP = "geoIp";
     public static final String CACHE_API_KEY_BY_PREFIX = "apiKeyByPrefix";
     public static final String CACHE_MX_RECORDS = "mxRecords";
+    public static final String CACHE_USER_SNAPSHOT = "userSnapshot";
     public static final String CACHE_INVALIDATION_TOPIC = "synaxic:cache:invalidation";
 
     @Bean("redissonCacheManager")
@@ -29,9 +31,9 @@ public class CacheConfig {
         Map<String, org.redisson.spring.cache.CacheConfig> config = new HashMap<>();
 
         config.put(CACHE_EMAIL_VALIDATION, new org.redisson.spring.cache.CacheConfig(Duration.ofHours(24).toMillis(), 0));
-        config.put(CACHE_GEO_IP, new org.redisson.spring.cache.CacheConfig(Duration.ofHours(1).toMillis(), 0));
         config.put(CACHE_API_KEY_BY_PREFIX, new org.redisson.spring.cache.CacheConfig(Duration.ofMinutes(30).toMillis(), 0));
         config.put(CACHE_MX_RECORDS, new org.redisson.spring.cache.CacheConfig(Duration.ofHours(24).toMillis(), 0));
+        config.put(CACHE_USER_SNAPSHOT, new org.redisson.spring.cache.CacheConfig(Duration.ofMinutes(30).toMillis(), 0));
 
         return new RedissonSpringCacheManager(redissonClient, config);
     }
@@ -39,6 +41,9 @@ public class CacheConfig {
     @Bean
     @Primary
     public CacheManager tieredCacheManager(CacheManager redissonCacheManager, CacheEventPublisher eventPublisher) {
-        return new TieredCacheManager(redissonCacheManager, eventPublisher, CACHE_INVALIDATION_TOPIC);
+        // GeoIP lookups hit a memory-mapped database, which is faster than a Redis round trip
+        Map<String, Caffeine<Object, Object>> localOnlyCaches = Map.of(
+                CACHE_GEO_IP, Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofHours(1)));
+        return new TieredCacheManager(redissonCacheManager, eventPublisher, CACHE_INVALIDATION_TOPIC, localOnlyCaches);
     }
 }
\ No newline at end of file
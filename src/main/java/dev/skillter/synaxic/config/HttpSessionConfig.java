@@ -1,14 +1,31 @@
 package dev.skillter.synaxic.config;
 
+import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.SaveMode;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
 import org.springframework.session.web.http.CookieSerializer;
 import org.springframework.session.web.http.DefaultCookieSerializer;
 
 @Configuration
-@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 86400) // 24 hours
-public class HttpSessionConfig {
+// Only attributes set during the request are written back, not the whole session
+@EnableRedisHttpSession(maxInactiveIntervalInSeconds = 86400, saveMode = SaveMode.ON_SET_ATTRIBUTE) // 24 hours
+public class HttpSessionConfig implements BeanClassLoaderAware {
+
+    private ClassLoader classLoader;
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    // Picked up by Spring Session by name in place of JDK serialization
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer() {
+        return new SessionRedisSerializer(classLoader);
+    }
 
     @Bean
     public CookieSerializer cookieSerializer() {
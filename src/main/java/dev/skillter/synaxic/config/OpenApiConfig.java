@@ -57,6 +57,9 @@ public class OpenApiConfig {
                                         **Example:** `ApiKey syn_live_...`
                                         
                                         Alternatively, you can use the `X-API-Key` header.
+                                        
+                                        High-volume clients can exchange their key at `POST /v1/token` for a
+                                        short-lived access token and send `Bearer <token>` instead.
                                         """)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package dev.skillter.synaxic.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * JSON converter that writes compact output unless the request asks for {@code ?pretty=true}.
+ */
+public class PrettyPrintJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    static final String PRETTY_PARAMETER = "pretty";
+
+    public PrettyPrintJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType mediaType) {
+        return isPrettyRequested() ? writer.with(SerializationFeature.INDENT_OUTPUT) : writer;
+    }
+
+    private static boolean isPrettyRequested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        String pretty = servletAttributes.getRequest().getParameter(PRETTY_PARAMETER);
+        return pretty != null && (pretty.isEmpty() || Boolean.parseBoolean(pretty));
+    }
+}
@@ -1,14 +1,21 @@
 package dev.skillter.synaxic.config;
 
 import dev.skillter.synaxic.security.ApiKeyAuthFilter;
+import dev.skillter.synaxic.security.ApiRequestMatcher;
+import dev.skillter.synaxic.security.FrontendTokenAuthFilter;
+import dev.skillter.synaxic.security.FrontendTokenService;
 import dev.skillter.synaxic.security.OAuth2LoginSuccessHandler;
 import dev.skillter.synaxic.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
@@ -21,6 +28,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 public class SecurityConfig {
 
     private final ApiKeyAuthFilter apiKeyAuthFilter;
+    private final FrontendTokenAuthFilter frontendTokenAuthFilter;
+    private final FrontendTokenService frontendTokenService;
     private final OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
     private final RateLimitFilter rateLimitFilter;
     private final CorsConfigurationSource corsConfigurationSource;
@@ -29,6 +38,8 @@ public class SecurityConfig {
             "/",
             "/error",
             "/v1/ip",
+            "/v1/ip/geo",
+            "/v1/ip/geo/batch",
             "/v1/whoami",
             "/v1/echo",
             "/v1/convert/**",
@@ -64,7 +75,35 @@ public class SecurityConfig {
             "/dashboard.html"
     };
 
+    /**
+     * Programmatic API traffic (API key, frontend token or no session cookie). Nothing here
+     * reads or creates an HTTP session, so these calls never touch the Redis session store.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(new ApiRequestMatcher())
+                .cors(cors -> cors.configurationSource(corsConfigurationSource))
+                .csrf(csrf -> csrf.disable())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.disable())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
+                .addFilterBefore(apiKeyAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(frontendTokenAuthFilter, ApiKeyAuthFilter.class)
+                .addFilterAfter(rateLimitFilter, ApiKeyAuthFilter.class)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
+                        .anyRequest().authenticated()
+                );
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         CsrfTokenRequestAttributeHandler requestHandler = new CsrfTokenRequestAttributeHandler();
         requestHandler.setCsrfRequestAttributeName("_csrf");
@@ -98,6 +137,7 @@ public class SecurityConfig {
                     )
                 )
                 .addFilterBefore(apiKeyAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(frontendTokenAuthFilter, ApiKeyAuthFilter.class)
                 .addFilterAfter(rateLimitFilter, ApiKeyAuthFilter.class)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(PUBLIC_ENDPOINTS).permitAll()
@@ -111,6 +151,7 @@ public class SecurityConfig {
                 .logout(logout -> logout
                         .logoutUrl("/v1/auth/logout")
                         .logoutSuccessUrl("/")
+                        .addLogoutHandler(frontendTokenService)
                         .invalidateHttpSession(true)
                         .deleteCookies("SYNAXIC_SESSION")
                         .permitAll()
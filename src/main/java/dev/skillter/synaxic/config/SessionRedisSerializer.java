@@ -0,0 +1,58 @@
+package dev.skillter.synaxic.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.security.jackson2.SecurityJackson2Modules;
+
+/**
+ * Writes session attributes as JSON using Spring Security's Jackson modules, which only
+ * deserialize allow-listed types.
+ * <p>
+ * Values written by the previous JDK serializer are still read, so sessions created before
+ * the switch survive until they expire. A value that cannot be read is dropped instead of
+ * failing the request; for the security context that simply means logging in again.
+ * <p>
+ * Numbers that fit in an {@code int} come back as {@link Integer}, so readers of numeric
+ * attributes should go through {@link Number}.
+ */
+@Slf4j
+public class SessionRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte JDK_STREAM_MAGIC_0 = (byte) 0xAC;
+    private static final byte JDK_STREAM_MAGIC_1 = (byte) 0xED;
+
+    private final GenericJackson2JsonRedisSerializer json;
+    private final JdkSerializationRedisSerializer legacy;
+
+    public SessionRedisSerializer(ClassLoader classLoader) {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModules(SecurityJackson2Modules.getModules(classLoader));
+        this.json = new GenericJackson2JsonRedisSerializer(mapper);
+        this.legacy = new JdkSerializationRedisSerializer(classLoader);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        return json.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            if (bytes.length > 1 && bytes[0] == JDK_STREAM_MAGIC_0 && bytes[1] == JDK_STREAM_MAGIC_1) {
+                return legacy.deserialize(bytes);
+            }
+            return json.deserialize(bytes);
+        } catch (SerializationException e) {
+            log.warn("Dropping unreadable session attribute: {}", e.getMessage());
+            return null;
+        }
+    }
+}
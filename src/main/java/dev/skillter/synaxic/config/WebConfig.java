@@ -1,7 +1,12 @@
 package dev.skillter.synaxic.config;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import dev.skillter.synaxic.model.dto.ColorConversionResponse;
+import dev.skillter.synaxic.model.dto.EmailValidationResponse;
+import dev.skillter.synaxic.model.dto.IpResponse;
+import dev.skillter.synaxic.model.dto.UnitConversionResponse;
 import dev.skillter.synaxic.util.RequestLoggingInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -25,6 +30,14 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    // Most frequently returned DTOs; their serializers are built at startup instead of on first request
+    private static final List<Class<?>> HOT_RESPONSE_TYPES = List.of(
+            IpResponse.class,
+            UnitConversionResponse.class,
+            ColorConversionResponse.class,
+            EmailValidationResponse.class
+    );
+
     private final RequestLoggingInterceptor requestLoggingInterceptor;
 
     @Override
@@ -74,9 +87,25 @@ public class WebConfig implements WebMvcConfigurer {
     }
 
     @Bean
-    public ObjectMapper objectMapper() {
-        return Jackson2ObjectMapperBuilder.json()
-                .modules(new JavaTimeModule())
-                .build();
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Built from Boot's builder so the {@code spring.jackson.*} properties and module beans
+     * (JavaTimeModule, Blackbird) apply. Null fields are still written unless a DTO opts out
+     * with {@code @JsonInclude}, as they were before the builder was used.
+     */
+    @Bean
+    public ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.serializationInclusion(JsonInclude.Include.ALWAYS).build();
+        // writerFor resolves the root serializer and stores it in the mapper's shared cache
+        HOT_RESPONSE_TYPES.forEach(mapper::writerFor);
+        return mapper;
+    }
+
+    @Bean
+    public PrettyPrintJsonHttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new PrettyPrintJsonHttpMessageConverter(objectMapper);
     }
 }
\ No newline at end of file
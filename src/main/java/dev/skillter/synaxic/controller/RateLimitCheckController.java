@@ -4,7 +4,7 @@ import dev.skillter.synaxic.model.dto.RateLimitStatus;
 import dev.skillter.synaxic.model.entity.User;
 import dev.skillter.synaxic.security.ApiKeyAuthentication;
 import dev.skillter.synaxic.service.RateLimitService;
-import dev.skillter.synaxic.util.IpExtractor;
+import dev.skillter.synaxic.util.ClientContextResolver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -26,7 +26,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class RateLimitCheckController {
 
     private final RateLimitService rateLimitService;
-    private final IpExtractor ipExtractor;
+    private final ClientContextResolver clientContextResolver;
 
     @GetMapping("/rate-limit")
     @Operation(summary = "Check Current Rate Limit Status",
@@ -34,7 +34,7 @@ public class RateLimitCheckController {
     @ApiResponse(responseCode = "200", description = "Current rate limit status",
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = RateLimitStatus.class)))
     public RateLimitStatus checkRateLimit(HttpServletRequest request) {
-        String clientIp = ipExtractor.extractClientIp(request);
+        String clientIp = clientContextResolver.resolve(request).ip();
         String key;
         RateLimitService.RateLimitTier tier;
 
@@ -43,8 +43,7 @@ public class RateLimitCheckController {
         if (authentication != null && authentication.isAuthenticated()) {
             if (authentication instanceof ApiKeyAuthentication apiKeyAuth) {
                 // API key authentication - use account-level rate limiting
-                User user = apiKeyAuth.getApiKey().getUser();
-                key = "account:" + user.getId();
+                key = "account:" + apiKeyAuth.getApiKey().userId();
                 tier = RateLimitService.RateLimitTier.ACCOUNT;
             } else if (authentication.getPrincipal() instanceof User user) {
                 // OAuth2 authentication - use account-level rate limiting
@@ -6,7 +6,9 @@ import dev.skillter.synaxic.model.dto.UserDto;
 import dev.skillter.synaxic.model.entity.ApiKey;
 import dev.skillter.synaxic.model.entity.User;
 import dev.skillter.synaxic.repository.ApiKeyUsageRepository;
-import dev.skillter.synaxic.security.ApiKeyAuthentication;
+import dev.skillter.synaxic.security.CurrentUserResolver;
+import dev.skillter.synaxic.security.FrontendTokenService;
+import dev.skillter.synaxic.security.UserSnapshot;
 import dev.skillter.synaxic.service.AccountUsageService;
 import dev.skillter.synaxic.service.ApiKeyService;
 import dev.skillter.synaxic.service.UserService;
@@ -48,41 +50,35 @@ public class AuthController {
     private final UserService userService;
     private final AccountUsageService accountUsageService;
     private final ApiKeyUsageRepository apiKeyUsageRepository;
+    private final FrontendTokenService frontendTokenService;
+    private final CurrentUserResolver currentUserResolver;
 
-    private User resolveUser(Object principal) {
-        if (principal instanceof User) {
-            return (User) principal;
-        } else if (principal instanceof ApiKeyAuthentication apiKeyAuth) {
-            return apiKeyAuth.getApiKey().getUser();
-        } else if (principal instanceof OAuth2User oauth2User) {
-            String email = oauth2User.getAttribute("email");
-            return userService.findByEmail(email).orElse(null);
-        }
-        return null;
+    private UserSnapshot resolveUser(Object principal) {
+        return currentUserResolver.resolve(principal).orElse(null);
     }
 
     @GetMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get Current User Info", description = "Returns information about the user associated with the provided API key or Session.")
     public ResponseEntity<UserDto> getCurrentUser(@AuthenticationPrincipal Object principal) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
 
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Optional<ApiKey> apiKeyOpt = apiKeyService.findByUserId(user.getId());
+        Optional<ApiKey> apiKeyOpt = apiKeyService.findByUserId(user.id());
 
         UserDto userDto = apiKeyOpt.map(apiKey -> UserDto.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .memberSince(user.getCreatedAt())
+                .id(user.id())
+                .email(user.email())
+                .memberSince(user.createdAt())
                 .apiKeyPrefix(apiKey.getPrefix())
                 .apiKeyLastUsed(apiKey.getLastUsedAt())
                 .build()
         ).orElseGet(() -> UserDto.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .memberSince(user.getCreatedAt())
+                .id(user.id())
+                .email(user.email())
+                .memberSince(user.createdAt())
                 .build());
 
         return ResponseEntity.ok(userDto);
@@ -91,11 +87,15 @@ public class AuthController {
     @PostMapping(value = "/api-key", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Generate or Regenerate an API Key", description = "Generates a new API key for the authenticated user.")
     public ResponseEntity<Map<String, String>> regenerateApiKey(@AuthenticationPrincipal Object principal) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        GeneratedApiKey generatedKey = apiKeyService.regenerateKeyForUser(user);
+        User entity = userService.findById(user.id()).orElse(null);
+        if (entity == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        GeneratedApiKey generatedKey = apiKeyService.regenerateKeyForUser(entity);
         return ResponseEntity.ok(Map.of("apiKey", generatedKey.fullKey()));
     }
 
@@ -113,14 +113,11 @@ public class AuthController {
             userInfo.put("email", oauth2User.getAttribute("email"));
             userInfo.put("picture", oauth2User.getAttribute("picture"));
 
-            // Try to fetch DB user details if possible
-            if (oauth2User.getAttribute("email") != null) {
-                User dbUser = userService.findByEmail(oauth2User.getAttribute("email")).orElse(null);
-                if (dbUser != null) {
-                    userInfo.put("id", dbUser.getId());
-                    userInfo.put("memberSince", dbUser.getCreatedAt());
-                }
-            }
+            // Add account details from the cached user snapshot if possible
+            currentUserResolver.resolve(oauth2User).ifPresent(user -> {
+                userInfo.put("id", user.id());
+                userInfo.put("memberSince", user.createdAt());
+            });
             return ResponseEntity.ok(userInfo);
         }
 
@@ -128,9 +125,8 @@ public class AuthController {
             @SuppressWarnings("unchecked")
             Map<String, Object> sessionUserInfo = (Map<String, Object>) session.getAttribute("oauth2_user");
             if (sessionUserInfo != null) {
-                Long userId = (Long) session.getAttribute("user_id");
-                if (userId != null) {
-                    sessionUserInfo.put("id", userId);
+                if (session.getAttribute("user_id") instanceof Number userId) {
+                    sessionUserInfo.put("id", userId.longValue());
                 }
                 return ResponseEntity.ok(sessionUserInfo);
             }
@@ -143,12 +139,12 @@ public class AuthController {
     // ... (rest of the controller methods remain unchanged) ...
     @GetMapping("/api-keys")
     public ResponseEntity<List<Map<String, Object>>> getApiKeys(@AuthenticationPrincipal Object principal) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        List<ApiKey> keys = apiKeyService.findAllByUserId(user.getId());
+        List<ApiKey> keys = apiKeyService.findAllByUserId(user.id());
 
         // Fix N+1 query problem: Fetch all usage stats in batch queries
         List<Long> keyIds = keys.stream().map(ApiKey::getId).toList();
@@ -193,18 +189,22 @@ public class AuthController {
     @PostMapping("/api-key/create")
     public ResponseEntity<Map<String, String>> createApiKey(@AuthenticationPrincipal Object principal,
                                                              @RequestBody(required = false) Map<String, String> body) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        List<ApiKey> existingKeys = apiKeyService.findAllByUserId(user.getId());
+        List<ApiKey> existingKeys = apiKeyService.findAllByUserId(user.id());
         if (existingKeys.size() >= 2) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Maximum API key limit reached. You can have up to 2 API keys per account."));
         }
 
-        GeneratedApiKey generatedKey = apiKeyService.generateAndSaveKey(user);
+        User entity = userService.findById(user.id()).orElse(null);
+        if (entity == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        GeneratedApiKey generatedKey = apiKeyService.generateAndSaveKey(entity);
         
         if (body != null && body.containsKey("name")) {
             String name = body.get("name");
@@ -221,14 +221,14 @@ public class AuthController {
     @DeleteMapping("/api-key/{keyId}")
     public ResponseEntity<Void> deleteApiKey(@AuthenticationPrincipal Object principal,
                                               @PathVariable String keyId) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         try {
             Long id = Long.parseLong(keyId);
-            List<ApiKey> userKeys = apiKeyService.findAllByUserId(user.getId());
+            List<ApiKey> userKeys = apiKeyService.findAllByUserId(user.id());
             boolean ownsKey = userKeys.stream().anyMatch(k -> k.getId().equals(id));
             
             if (ownsKey) {
@@ -247,36 +247,36 @@ public class AuthController {
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getUserStats(@AuthenticationPrincipal Object principal) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Long totalRequests = accountUsageService.getTotalRequestsForUser(user.getId());
-        Long todayRequests = accountUsageService.getTodayRequestsForUser(user.getId());
+        Long totalRequests = accountUsageService.getTotalRequestsForUser(user.id());
+        Long todayRequests = accountUsageService.getTodayRequestsForUser(user.id());
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalRequests", totalRequests);
         stats.put("requestsToday", todayRequests);
-        stats.put("totalApiKeys", apiKeyService.findAllByUserId(user.getId()).size());
+        stats.put("totalApiKeys", apiKeyService.findAllByUserId(user.id()).size());
 
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/export-data")
     public ResponseEntity<Map<String, Object>> exportData(@AuthenticationPrincipal Object principal) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         Map<String, Object> data = new HashMap<>();
         data.put("user", Map.of(
-                "email", user.getEmail(),
-                "memberSince", user.getCreatedAt().toString()
+                "email", user.email(),
+                "memberSince", user.createdAt().toString()
         ));
 
-        List<ApiKey> keys = apiKeyService.findAllByUserId(user.getId());
+        List<ApiKey> keys = apiKeyService.findAllByUserId(user.id());
         List<Map<String, Object>> keyData = keys.stream().map(key -> Map.of(
             "prefix", (Object) key.getPrefix(),
             "name", key.getKeyName() != null ? key.getKeyName() : "API Key",
@@ -292,14 +292,16 @@ public class AuthController {
 
     @DeleteMapping("/delete-account")
     public ResponseEntity<Void> deleteAccount(@AuthenticationPrincipal Object principal,
-                                               jakarta.servlet.http.HttpServletRequest request) {
-        User user = resolveUser(principal);
+                                               jakarta.servlet.http.HttpServletRequest request,
+                                               HttpServletResponse response) {
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        apiKeyService.deleteAllByUserId(user.getId());
-        userService.deleteUser(user.getId());
+        apiKeyService.deleteAllByUserId(user.id());
+        userService.deleteUser(user.id());
+        frontendTokenService.logout(request, response, null);
         jakarta.servlet.http.HttpSession session = request.getSession(false);
         if (session != null) {
             session.invalidate();
@@ -310,17 +312,18 @@ public class AuthController {
 
     @GetMapping("/account-usage")
     public ResponseEntity<AccountUsageDto> getAccountUsage(@AuthenticationPrincipal Object principal) {
-        User user = resolveUser(principal);
+        UserSnapshot user = resolveUser(principal);
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        AccountUsageDto accountUsage = accountUsageService.getAccountUsage(user.getId());
+        AccountUsageDto accountUsage = accountUsageService.getAccountUsage(user.id());
         return ResponseEntity.ok(accountUsage);
     }
 
     @PostMapping("/logout")
     public ResponseEntity<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        frontendTokenService.logout(request, response, null);
         HttpSession session = request.getSession(false);
         if (session != null) {
             session.invalidate();
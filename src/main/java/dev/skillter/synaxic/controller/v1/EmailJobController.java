@@ -0,0 +1,144 @@
+package dev.skillter.synaxic.controller.v1;
+
+import dev.skillter.synaxic.exception.BatchTooLargeException;
+import dev.skillter.synaxic.model.dto.EmailJobStatus;
+import dev.skillter.synaxic.security.CurrentUserResolver;
+import dev.skillter.synaxic.security.UserSnapshot;
+import dev.skillter.synaxic.service.EmailJobService;
+import dev.skillter.synaxic.service.RateLimitService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/v1/email/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Email Validator", description = "Endpoints for email syntax and disposable domain validation.")
+@SecurityRequirement(name = "ApiKeyAuth")
+public class EmailJobController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final EmailJobService emailJobService;
+    private final CurrentUserResolver currentUserResolver;
+    private final RateLimitService rateLimitService;
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Submit a Bulk Validation Job",
+            description = "Uploads a list of email addresses as the raw request body and validates it asynchronously. CSV uploads use the first column of each line; NDJSON uploads accept either JSON strings or objects with an `email` field. Each line costs one request from the rate limit quota, and a list can never have more lines than the rate limit capacity of your tier.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "The job was accepted and queued.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = EmailJobStatus.class))),
+                    @ApiResponse(responseCode = "400", description = "The uploaded list is empty or has more lines than the rate limit capacity of your tier.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(responseCode = "413", description = "The uploaded list is too large.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(responseCode = "429", description = "You already have the maximum number of active jobs, or the list exceeds the remaining rate limit quota.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+            })
+    public ResponseEntity<EmailJobStatus> submit(
+            @Parameter(description = "The input format, derived from the Content-Type if omitted.", example = "csv")
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal Object principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        UserSnapshot user = resolveUser(principal);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // Each line is validated like a single request, so the job is charged per line once spooled
+        EmailJobStatus status = emailJobService.submit(user.id(), resolveFormat(format, request.getContentType()), request.getInputStream(),
+                records -> chargeRecords(records, request, response));
+        return ResponseEntity.accepted()
+                .location(URI.create("/v1/email/jobs/" + status.getJobId()))
+                .body(status);
+    }
+
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get Job Progress", description = "Returns the progress of a bulk validation job.")
+    public ResponseEntity<EmailJobStatus> getStatus(@PathVariable String jobId, @AuthenticationPrincipal Object principal) {
+        UserSnapshot user = resolveUser(principal);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(emailJobService.getStatus(jobId, user.id()));
+    }
+
+    @GetMapping(value = "/{jobId}/results", produces = "application/x-ndjson")
+    @Operation(summary = "Download Job Results",
+            description = "Streams the results of a completed job as NDJSON, one validation result per line. Pass `fromChunk` to resume an interrupted download.")
+    public ResponseEntity<StreamingResponseBody> getResults(
+            @PathVariable String jobId,
+            @Parameter(description = "The first result chunk to return.", example = "0")
+            @RequestParam(defaultValue = "0") int fromChunk,
+            @AuthenticationPrincipal Object principal) {
+        UserSnapshot user = resolveUser(principal);
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        List<Path> chunks = emailJobService.getResultChunks(jobId, user.id(), fromChunk);
+        StreamingResponseBody body = out -> {
+            for (Path chunk : chunks) {
+                Files.copy(chunk, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header("X-Result-Chunks", String.valueOf(chunks.size()))
+                .body(body);
+    }
+
+    private void chargeRecords(long records, HttpServletRequest request, HttpServletResponse response) {
+        long capacity = rateLimitService.getCapacity(request);
+        if (capacity >= 0 && records > capacity) {
+            throw new BatchTooLargeException(records, capacity);
+        }
+        // The rate limit filter already charged one token for the request itself
+        long remaining = rateLimitService.consumeAdditional(request, records - 1);
+        if (remaining >= 0) {
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
+        }
+    }
+
+    private UserSnapshot resolveUser(Object principal) {
+        return currentUserResolver.resolve(principal).orElse(null);
+    }
+
+    private static EmailJobService.Format resolveFormat(String format, String contentType) {
+        if (format != null) {
+            return EmailJobService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        }
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("ndjson")) {
+            return EmailJobService.Format.NDJSON;
+        }
+        return EmailJobService.Format.CSV;
+    }
+}
@@ -0,0 +1,84 @@
+package dev.skillter.synaxic.controller.v1;
+
+import dev.skillter.synaxic.exception.BatchTooLargeException;
+import dev.skillter.synaxic.model.dto.GeoLocationResponse;
+import dev.skillter.synaxic.service.GeoIpService;
+import dev.skillter.synaxic.service.RateLimitService;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/ip/geo")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "IP Geolocation", description = "Endpoints for looking up the location of IP addresses.")
+public class GeoIpController {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    private final GeoIpService geoIpService;
+    private final RateLimitService rateLimitService;
+    private final ClientContextResolver clientContextResolver;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Geolocate an IP Address",
+            description = "Returns the city, region, country, coordinates and time zone of an IP address. Defaults to the caller's address.")
+    @ApiResponse(responseCode = "200", description = "Lookup completed. `found` is false for unknown or private addresses.",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = GeoLocationResponse.class)))
+    public GeoLocationResponse getLocation(
+            @Parameter(description = "The IPv4 or IPv6 address to look up.", example = "8.8.8.8")
+            @RequestParam(required = false) String ip,
+            HttpServletRequest request) {
+        return geoIpService.getLocation(StringUtils.hasText(ip) ? ip : clientContextResolver.resolve(request).ip());
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Geolocate Many IP Addresses",
+            description = "Looks up to " + MAX_BATCH_SIZE + " addresses in one call, and never more than the rate limit capacity of your tier. Each address costs one request from the rate limit quota. Results are returned in input order.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lookups completed.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = GeoLocationResponse.class)))),
+                    @ApiResponse(responseCode = "400", description = "The batch is empty, larger than " + MAX_BATCH_SIZE + " addresses, or larger than the rate limit capacity of your tier.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class))),
+                    @ApiResponse(responseCode = "429", description = "The batch exceeds the remaining rate limit quota.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+            })
+    public List<GeoLocationResponse> getLocations(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<String> ips,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        long capacity = rateLimitService.getCapacity(request);
+        if (capacity >= 0 && ips.size() > capacity) {
+            throw new BatchTooLargeException(ips.size(), capacity);
+        }
+        // The rate limit filter already charged one token for the request itself
+        long remaining = rateLimitService.consumeAdditional(request, ips.size() - 1L);
+        if (remaining >= 0) {
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
+        }
+        return geoIpService.getLocations(ips);
+    }
+}
@@ -4,23 +4,33 @@ import dev.skillter.synaxic.model.dto.EchoResponse;
 import dev.skillter.synaxic.model.dto.IpResponse;
 import dev.skillter.synaxic.model.dto.WhoAmIResponse;
 import dev.skillter.synaxic.service.IpInspectorService;
+import dev.skillter.synaxic.util.HashAlgorithm;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/v1")
 @RequiredArgsConstructor
@@ -29,13 +39,20 @@ public class IpController {
 
     private final IpInspectorService ipInspectorService;
 
-    @GetMapping(value = "/ip", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/ip", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
     @Operation(summary = "Get Your Public IP Address",
-            description = "Returns the public IP address of the client making the request, along with its version (IPv4 or IPv6).")
+            description = "Returns the public IP address of the client making the request, along with its version (IPv4 or IPv6). Send `Accept: text/plain` to get only the address.")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved the IP address.",
-            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = IpResponse.class)))
-    public IpResponse getIp(HttpServletRequest request) {
-        return ipInspectorService.getIpInfo(request);
+            content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = IpResponse.class)),
+                    @Content(mediaType = MediaType.TEXT_PLAIN_VALUE, schema = @Schema(type = "string", example = "203.0.113.195"))
+            })
+    public ResponseEntity<?> getIp(HttpServletRequest request) {
+        IpResponse ipInfo = ipInspectorService.getIpInfo(request);
+        if (IpInspectorService.prefersPlainText(request.getHeader(HttpHeaders.ACCEPT))) {
+            return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(ipInfo.getIp() + "\n");
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(ipInfo);
     }
 
     @GetMapping(value = "/whoami", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -51,16 +68,42 @@ public class IpController {
             consumes = MediaType.ALL_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Echo Request Body Metadata",
-            description = "Receives any data in the request body and returns metadata about it, such as size and SHA-256 hash. The content of the body is never stored or returned.")
+            description = "Receives any data in the request body and returns metadata about it, such as size and SHA-256 hash. Pass `algorithms` to compute several digests in the same pass: `sha256`, `sha1`, `sha512`, `md5`, `crc32c` and `xxh64`. The body is hashed as it streams in and is never stored or returned.",
+            requestBody = @RequestBody(description = "Any content, up to 10 MB.", required = false,
+                    content = @Content(mediaType = MediaType.ALL_VALUE)))
     @ApiResponse(responseCode = "200", description = "Successfully processed the request body and returned metadata.",
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = EchoResponse.class)))
     @ApiResponse(responseCode = "413", description = "Payload too large. The request body exceeds the server's limit.",
             content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProblemDetail.class)))
+    @Parameter(name = "algorithms", in = ParameterIn.QUERY, description = "Comma-separated digests to compute.", example = "sha256,md5,xxh64")
     public ResponseEntity<EchoResponse> echo(
-            @RequestBody(required = false) byte[] body,
-            @RequestHeader(value = "Content-Type", required = false) String contentType) {
+            HttpServletRequest request,
+            @RequestHeader(value = "Content-Type", required = false) String contentType) throws IOException {
+
+        // Read from the raw query string: resolving a request parameter would make the container
+        // consume form-encoded bodies before they can be streamed
+        Set<HashAlgorithm> selected = parseAlgorithms(request.getQueryString());
 
-        EchoResponse response = ipInspectorService.processEcho(body, contentType);
+        EchoResponse response = ipInspectorService.processEcho(request.getInputStream(), request.getContentLengthLong(), contentType, selected);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    private static Set<HashAlgorithm> parseAlgorithms(String queryString) {
+        if (queryString == null || queryString.isEmpty()) {
+            return null;
+        }
+        Set<HashAlgorithm> selected = EnumSet.noneOf(HashAlgorithm.class);
+        for (String pair : queryString.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0 || !"algorithms".equals(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8))) {
+                continue;
+            }
+            for (String algorithm : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8).split(",")) {
+                if (!algorithm.isBlank()) {
+                    selected.add(HashAlgorithm.fromId(algorithm));
+                }
+            }
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+}
@@ -0,0 +1,52 @@
+package dev.skillter.synaxic.controller.v1;
+
+import dev.skillter.synaxic.model.dto.AccessTokenResponse;
+import dev.skillter.synaxic.security.ApiKeyAuthentication;
+import dev.skillter.synaxic.service.AccessTokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/token")
+@RequiredArgsConstructor
+@Tag(name = "Authentication", description = "User authentication and API key management.")
+@SecurityRequirement(name = "ApiKeyAuth")
+public class TokenController {
+
+    private final AccessTokenService accessTokenService;
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Exchange an API Key for an Access Token",
+            description = "Returns a short-lived signed token to send as `Authorization: Bearer <token>` instead of the API key. Requests with a token are verified without a key lookup. The request must authenticate with the API key itself, not with another token.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "The access token.",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = AccessTokenResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "The request was not authenticated with an API key."),
+                    @ApiResponse(responseCode = "404", description = "Access tokens are not enabled on this server.")
+            })
+    public ResponseEntity<AccessTokenResponse> exchange(Authentication authentication) {
+        if (!accessTokenService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!(authentication instanceof ApiKeyAuthentication apiKeyAuth) || apiKeyAuth.isAccessToken()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(AccessTokenResponse.builder()
+                .accessToken(accessTokenService.issue(apiKeyAuth.getApiKey()))
+                .tokenType("Bearer")
+                .expiresIn(accessTokenService.getTtl().toSeconds())
+                .build());
+    }
+}
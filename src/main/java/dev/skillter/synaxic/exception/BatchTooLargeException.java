@@ -0,0 +1,15 @@
+package dev.skillter.synaxic.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    private final long maxBatchSize;
+
+    public BatchTooLargeException(long batchSize, long maxBatchSize) {
+        super("A batch of " + batchSize + " items exceeds the maximum of " + maxBatchSize + " for your rate limit tier.");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.skillter.synaxic.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class EmailJobException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public EmailJobException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -80,6 +80,50 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(problemDetail);
     }
 
+    @ExceptionHandler(EmailJobException.class)
+    public ResponseEntity<ProblemDetail> handleEmailJobException(EmailJobException ex, WebRequest request) {
+        log.warn("Email job request failed: {}", ex.getMessage());
+        metricsService.incrementErrorCount(ex.getStatus().value());
+        ProblemDetail problemDetail = createProblemDetail(
+                ex.getStatus(),
+                ex.getStatus().getReasonPhrase(),
+                ex.getMessage(),
+                request
+        );
+        return ResponseEntity.status(ex.getStatus()).body(problemDetail);
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ProblemDetail> handleBatchTooLarge(BatchTooLargeException ex, WebRequest request) {
+        log.warn("Batch too large for request: {} - {}", request.getDescription(false), ex.getMessage());
+        metricsService.incrementErrorCount(HttpStatus.BAD_REQUEST.value());
+        ProblemDetail problemDetail = createProblemDetail(
+                HttpStatus.BAD_REQUEST,
+                "Batch Too Large",
+                ex.getMessage(),
+                request
+        );
+        problemDetail.setProperty("maxBatchSize", ex.getMaxBatchSize());
+        return ResponseEntity.badRequest().body(problemDetail);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimitExceeded(RateLimitExceededException ex, WebRequest request) {
+        log.warn("Rate limit exceeded for request: {}", request.getDescription(false));
+        metricsService.incrementErrorCount(HttpStatus.TOO_MANY_REQUESTS.value());
+        ProblemDetail problemDetail = createProblemDetail(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests",
+                ex.getMessage(),
+                request
+        );
+        problemDetail.setProperty("retryAfterSeconds", ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("X-RateLimit-Remaining", "0")
+                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
+                .body(problemDetail);
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<ProblemDetail> handleMaxSizeException(MaxUploadSizeExceededException ex, WebRequest request) {
         log.warn("Max upload size exceeded: {}", ex.getMessage());
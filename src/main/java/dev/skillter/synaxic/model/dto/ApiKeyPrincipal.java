@@ -0,0 +1,24 @@
+package dev.skillter.synaxic.model.dto;
+
+import dev.skillter.synaxic.model.entity.ApiKey;
+
+import java.io.Serializable;
+
+/**
+ * Immutable copy of the API key fields needed to authenticate and rate limit a request.
+ * This is what the key caches hold, so the hot path never touches a JPA entity or a lazy
+ * {@code User} proxy.
+ */
+public record ApiKeyPrincipal(Long id, String prefix, byte[] keyHash, Long userId, int quotaLimit) implements Serializable {
+
+    public static ApiKeyPrincipal of(ApiKey apiKey) {
+        // getId() on the lazy User proxy does not initialize it
+        return new ApiKeyPrincipal(apiKey.getId(), apiKey.getPrefix(), apiKey.getKeyHash(),
+                apiKey.getUser().getId(), apiKey.getQuotaLimit());
+    }
+
+    @Override
+    public String toString() {
+        return "ApiKeyPrincipal[id=" + id + ", prefix=" + prefix + ", userId=" + userId + ", quotaLimit=" + quotaLimit + "]";
+    }
+}
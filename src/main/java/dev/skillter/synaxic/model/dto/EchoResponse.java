@@ -8,6 +8,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -17,11 +19,15 @@ import lombok.NoArgsConstructor;
 public class EchoResponse {
 
     @Schema(description = "Size of the request body in bytes.", example = "1024")
-    private int size;
+    private long size;
 
-    @Schema(description = "The SHA-256 hash of the request body.", example = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+    @Schema(description = "The SHA-256 hash of the request body. Omitted if `algorithms` was given without `sha256`.", example = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
     private String sha256;
 
+    @Schema(description = "Hex digests keyed by algorithm, present when `algorithms` was requested.",
+            example = "{\"sha256\": \"e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855\", \"crc32c\": \"00000000\"}")
+    private Map<String, String> hashes;
+
     @Schema(description = "The `Content-Type` header of the request.", example = "application/json")
     private String contentType;
 
@@ -0,0 +1,53 @@
+package dev.skillter.synaxic.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Progress of an asynchronous bulk email validation job.")
+public class EmailJobStatus {
+
+    @Schema(description = "The unique identifier of the job.", example = "3f1c2a5e-8d0b-4c7e-9a51-2b6f0e9d4c11")
+    private String jobId;
+
+    @Schema(description = "The job state: QUEUED, RUNNING, COMPLETED or FAILED.", example = "RUNNING")
+    private String status;
+
+    @Schema(description = "The input format of the uploaded list.", example = "CSV")
+    private String format;
+
+    @Schema(description = "Size of the uploaded list in bytes.", example = "52428800")
+    private long uploadedBytes;
+
+    @Schema(description = "Byte offset in the upload up to which results are committed.", example = "10485760")
+    private long committedOffset;
+
+    @Schema(description = "Number of addresses validated so far.", example = "250000")
+    private long processedRecords;
+
+    @Schema(description = "Number of result chunks written so far.", example = "500")
+    private int chunks;
+
+    @Schema(description = "Progress in percent of the uploaded bytes.", example = "20.0")
+    private double progressPercent;
+
+    @Schema(description = "When the job was submitted.")
+    private Instant createdAt;
+
+    @Schema(description = "When the job last committed progress.")
+    private Instant updatedAt;
+
+    @Schema(description = "When the job finished, if it has.")
+    private Instant completedAt;
+
+    @Schema(description = "The failure reason if the job failed.")
+    private String error;
+}
@@ -26,6 +26,6 @@ public class EmailValidationResponse {
     @Schema(description = "Indicates if the domain has valid MX (Mail Exchange) DNS records, suggesting it can receive email.", example = "true")
     private boolean hasMxRecords;
 
-    @Schema(description = "A suggestion for correction if a common typo is detected in the domain (feature not yet implemented).", example = "Did you mean example.com?")
+    @Schema(description = "The corrected email address if the domain looks like a typo of a popular email provider, otherwise null.", example = "user@gmail.com")
     private String suggestion;
 }
\ No newline at end of file
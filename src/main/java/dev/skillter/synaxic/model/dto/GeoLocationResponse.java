@@ -0,0 +1,56 @@
+package dev.skillter.synaxic.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Geolocation of an IP address from the GeoLite2 City database.")
+public class GeoLocationResponse {
+
+    @Schema(description = "The IP address that was looked up.", example = "8.8.8.8")
+    private String ip;
+
+    @Schema(description = "Indicates if the address was found in the database.", example = "true")
+    private boolean found;
+
+    @Schema(description = "The ISO 3166-1 alpha-2 country code.", example = "US")
+    private String countryCode;
+
+    @Schema(description = "The English country name.", example = "United States")
+    private String country;
+
+    @Schema(description = "The ISO 3166-2 code of the most specific subdivision.", example = "CA")
+    private String regionCode;
+
+    @Schema(description = "The English name of the most specific subdivision.", example = "California")
+    private String region;
+
+    @Schema(description = "The English city name.", example = "Mountain View")
+    private String city;
+
+    @Schema(description = "The postal code.", example = "94043")
+    private String postalCode;
+
+    @Schema(description = "Approximate latitude.", example = "37.4223")
+    private Double latitude;
+
+    @Schema(description = "Approximate longitude.", example = "-122.085")
+    private Double longitude;
+
+    @Schema(description = "Accuracy radius of the coordinates in kilometers.", example = "1000")
+    private Integer accuracyRadiusKm;
+
+    @Schema(description = "The IANA time zone.", example = "America/Los_Angeles")
+    private String timeZone;
+
+    @Schema(description = "Why the lookup failed, if it did.", example = "Not a valid IP address")
+    private String error;
+}
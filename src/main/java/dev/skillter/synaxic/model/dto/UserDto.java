@@ -21,7 +21,7 @@ public class UserDto {
     @Schema(description = "The timestamp when the user first signed in.")
     private Instant memberSince;
 
-    @Schema(description = "The prefix of the user's current API key (e.g., 'syn_live_abc...'). Useful for identification without exposing the full key.", example = "syn_live_abc")
+    @Schema(description = "The prefix of the user's current API key (e.g., 'syn_live_v2.Gq3Xb0mK7cTz1aPe...'). Useful for identification without exposing the full key.", example = "syn_live_v2.Gq3Xb0mK7cTz1aPe")
     private String apiKeyPrefix;
 
     @Schema(description = "The timestamp when the API key was last used.")
@@ -23,11 +23,11 @@ public class ApiKey {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Column(unique = true, nullable = false)
+    @Column(unique = true, nullable = false, length = 32)
     private String prefix;
 
-    @Column(name = "key_hash", nullable = false)
-    private String keyHash;
+    @Column(name = "key_hash", nullable = false, length = 32)
+    private byte[] keyHash;
 
     @Builder.Default
     @Column(name = "quota_limit", nullable = false)
@@ -2,6 +2,7 @@ package dev.skillter.synaxic.repository;
 
 import dev.skillter.synaxic.model.entity.ApiKey;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,7 @@ public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
     Optional<ApiKey> findByUser_Id(Long userId);
     List<ApiKey> findAllByUser_Id(Long userId);
     void deleteAllByUser_Id(Long userId);
+
+    @Query("SELECT k.prefix FROM ApiKey k")
+    List<String> findAllPrefixes();
 }
\ No newline at end of file
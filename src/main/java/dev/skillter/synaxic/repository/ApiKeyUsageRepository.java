@@ -32,8 +32,8 @@ public interface ApiKeyUsageRepository extends JpaRepository<ApiKeyUsage, Long>
            "AND a.periodType = 'hourly' AND a.periodStart >= :hourStart AND a.requestCount > 0")
     Integer getActiveKeysCountForUser(@Param("userId") Long userId, @Param("hourStart") Instant hourStart);
 
-    @Query("SELECT COALESCE(SUM(a.requestCount), 0) FROM ApiKeyUsage a WHERE a.apiKey.user.id = :userId " +
-           "AND a.periodType = 'hourly'")
+    // Totals sum every granularity: rows never overlap, and old history lives in the compacted daily and monthly rows
+    @Query("SELECT COALESCE(SUM(a.requestCount), 0) FROM ApiKeyUsage a WHERE a.apiKey.user.id = :userId")
     Long getTotalRequestsForUser(@Param("userId") Long userId);
 
     @Query("SELECT COALESCE(SUM(a.requestCount), 0) FROM ApiKeyUsage a WHERE a.apiKey.user.id = :userId " +
@@ -44,8 +44,7 @@ public interface ApiKeyUsageRepository extends JpaRepository<ApiKeyUsage, Long>
            "AND a.periodType = 'hourly' AND a.periodStart >= :todayStart")
     Long getTodayRequestsForApiKey(@Param("keyId") Long keyId, @Param("todayStart") Instant todayStart);
 
-    @Query("SELECT COALESCE(SUM(a.requestCount), 0) FROM ApiKeyUsage a WHERE a.apiKey.id = :keyId " +
-           "AND a.periodType = 'hourly'")
+    @Query("SELECT COALESCE(SUM(a.requestCount), 0) FROM ApiKeyUsage a WHERE a.apiKey.id = :keyId")
     Long getTotalRequestsForApiKey(@Param("keyId") Long keyId);
 
     // Batch query methods to fix N+1 query problem
@@ -55,7 +54,7 @@ public interface ApiKeyUsageRepository extends JpaRepository<ApiKeyUsage, Long>
     List<Object[]> getTodayRequestsForApiKeys(@Param("keyIds") List<Long> keyIds, @Param("todayStart") Instant todayStart);
 
     @Query("SELECT a.apiKey.id as keyId, COALESCE(SUM(a.requestCount), 0) as requestCount " +
-           "FROM ApiKeyUsage a WHERE a.apiKey.id IN :keyIds AND a.periodType = 'hourly' " +
+           "FROM ApiKeyUsage a WHERE a.apiKey.id IN :keyIds " +
            "GROUP BY a.apiKey.id")
     List<Object[]> getTotalRequestsForApiKeys(@Param("keyIds") List<Long> keyIds);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package dev.skillter.synaxic.security;
 
-import dev.skillter.synaxic.model.entity.ApiKey;
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import dev.skillter.synaxic.service.AccessTokenService;
 import dev.skillter.synaxic.service.ApiKeyService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,31 +23,54 @@ import java.util.Optional;
 public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
     private final ApiKeyService apiKeyService;
+    private final AccessTokenService accessTokenService;
     public static final String API_KEY_PREFIX_ATTRIBUTE = "apiKeyPrefix";
+    private static final String BEARER_PREFIX = "Bearer ";
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String apiKey = extractApiKey(request);
+        // Access tokens are verified locally; only raw API keys need a key lookup
+        String accessToken = accessTokenService.isEnabled() ? extractAccessToken(request) : null;
+        Optional<ApiKeyPrincipal> apiKeyOptional = accessToken != null
+                ? accessTokenService.verify(accessToken)
+                : Optional.empty();
+        boolean viaAccessToken = apiKeyOptional.isPresent();
 
-        if (apiKey != null) {
-            Optional<ApiKey> apiKeyOptional = apiKeyService.validateApiKey(apiKey);
-            if (apiKeyOptional.isPresent()) {
-                ApiKey validApiKey = apiKeyOptional.get();
-                ApiKeyAuthentication auth = new ApiKeyAuthentication(validApiKey);
-                SecurityContextHolder.getContext().setAuthentication(auth);
-                request.setAttribute(API_KEY_PREFIX_ATTRIBUTE, validApiKey.getPrefix());
-                log.debug("API key authenticated for user {}", validApiKey.getUser().getId());
-            } else {
-                log.warn("Invalid API Key provided");
+        if (apiKeyOptional.isEmpty()) {
+            // A Bearer value that is not a valid token may still come with a usable API key
+            String apiKey = extractApiKey(request);
+            if (apiKey != null) {
+                apiKeyOptional = apiKeyService.validateApiKey(apiKey);
+                if (apiKeyOptional.isEmpty()) {
+                    log.warn("Invalid API Key provided");
+                }
+            } else if (accessToken != null) {
+                log.warn("Invalid access token provided");
             }
         }
 
+        if (apiKeyOptional.isPresent()) {
+            ApiKeyPrincipal validApiKey = apiKeyOptional.get();
+            ApiKeyAuthentication auth = new ApiKeyAuthentication(validApiKey, viaAccessToken);
+            SecurityContextHolder.getContext().setAuthentication(auth);
+            request.setAttribute(API_KEY_PREFIX_ATTRIBUTE, validApiKey.prefix());
+            log.debug("API key authenticated for user {}", validApiKey.userId());
+        }
+
         filterChain.doFilter(request, response);
     }
 
+    private String extractAccessToken(HttpServletRequest request) {
+        String headerValue = request.getHeader("Authorization");
+        if (StringUtils.hasText(headerValue) && headerValue.startsWith(BEARER_PREFIX)) {
+            return headerValue.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
     private String extractApiKey(HttpServletRequest request) {
         String headerValue = request.getHeader("Authorization");
         if (StringUtils.hasText(headerValue)) {
@@ -1,7 +1,6 @@
 package dev.skillter.synaxic.security;
 
-import dev.skillter.synaxic.model.entity.ApiKey;
-import dev.skillter.synaxic.model.entity.User;
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 
@@ -10,17 +9,30 @@ import java.util.Collections;
 
 public class ApiKeyAuthentication implements Authentication {
 
-    private final ApiKey apiKey;
+    private final ApiKeyPrincipal apiKey;
+    private final boolean accessToken;
     private boolean authenticated = true;
 
-    public ApiKeyAuthentication(ApiKey apiKey) {
+    public ApiKeyAuthentication(ApiKeyPrincipal apiKey) {
+        this(apiKey, false);
+    }
+
+    public ApiKeyAuthentication(ApiKeyPrincipal apiKey, boolean accessToken) {
         this.apiKey = apiKey;
+        this.accessToken = accessToken;
     }
 
-    public ApiKey getApiKey() {
+    public ApiKeyPrincipal getApiKey() {
         return apiKey;
     }
 
+    /**
+     * @return true if the request presented an access token rather than the API key itself
+     */
+    public boolean isAccessToken() {
+        return accessToken;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.emptyList();
@@ -33,12 +45,12 @@ public class ApiKeyAuthentication implements Authentication {
 
     @Override
     public Object getDetails() {
-        return apiKey;
+        return null;
     }
 
     @Override
     public Object getPrincipal() {
-        return apiKey.getUser();
+        return apiKey;
     }
 
     @Override
@@ -53,6 +65,6 @@ public class ApiKeyAuthentication implements Authentication {
 
     @Override
     public String getName() {
-        return apiKey.getPrefix();
+        return apiKey.prefix();
     }
 }
\ No newline at end of file
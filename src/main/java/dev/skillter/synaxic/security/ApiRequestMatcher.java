@@ -0,0 +1,58 @@
+package dev.skillter.synaxic.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Matches programmatic calls to the public {@code /v1} API: requests that carry an API key or
+ * a frontend token, or that carry no session cookie at all.
+ * <p>
+ * Browser calls with only a session cookie keep using the session-aware chain so they are
+ * rate limited on the frontend tier, and the account endpoints ({@code /v1/auth/**},
+ * {@code /v1/admin/**}) always need the session.
+ */
+public class ApiRequestMatcher implements RequestMatcher {
+
+    static final String SESSION_COOKIE = "SYNAXIC_SESSION";
+    private static final String API_PREFIX = "/v1/";
+    private static final String[] SESSION_ONLY_PREFIXES = {"/v1/auth/", "/v1/admin/"};
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!path.startsWith(API_PREFIX)) {
+            return false;
+        }
+        for (String prefix : SESSION_ONLY_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return false;
+            }
+        }
+        return hasApiKey(request)
+                || hasCookie(request, FrontendTokenService.COOKIE_NAME)
+                || !hasSessionCookie(request);
+    }
+
+    static boolean hasApiKey(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.AUTHORIZATION) != null || request.getHeader("X-API-Key") != null;
+    }
+
+    static boolean hasSessionCookie(HttpServletRequest request) {
+        return hasCookie(request, SESSION_COOKIE);
+    }
+
+    private static boolean hasCookie(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
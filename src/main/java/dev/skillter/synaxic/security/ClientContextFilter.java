@@ -0,0 +1,33 @@
+package dev.skillter.synaxic.security;
+
+import dev.skillter.synaxic.util.ClientContextResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resolves the client address before the security chain runs, so the rate limiter, the
+ * request logging and the controllers all share one {@link dev.skillter.synaxic.util.ClientContext}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ClientContextFilter extends OncePerRequestFilter {
+
+    private final ClientContextResolver clientContextResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        clientContextResolver.resolve(request);
+        filterChain.doFilter(request, response);
+    }
+}
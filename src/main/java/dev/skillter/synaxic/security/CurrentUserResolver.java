@@ -0,0 +1,87 @@
+package dev.skillter.synaxic.security;
+
+import dev.skillter.synaxic.config.CacheConfig;
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import dev.skillter.synaxic.model.entity.User;
+import dev.skillter.synaxic.service.UserService;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+/**
+ * Resolves the authenticated principal to a cached {@link UserSnapshot}, so polling dashboard
+ * endpoints do not query the users table on every call.
+ * <p>
+ * Snapshots are keyed by user ID, which comes from the principal itself, the API key, the
+ * frontend token or the session's {@code user_id} attribute. Only a session without that attribute falls
+ * back to a lookup by email. {@link UserService} evicts a snapshot when its user changes, and
+ * the tiered cache broadcasts the eviction to the other instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    static final String SESSION_USER_ID = "user_id";
+
+    private final UserService userService;
+    private final CacheManager cacheManager;
+
+    public Optional<UserSnapshot> resolve(Object principal) {
+        if (principal instanceof User user) {
+            return Optional.of(UserSnapshot.of(user));
+        }
+        if (principal instanceof ApiKeyPrincipal apiKey) {
+            return findById(apiKey.userId());
+        }
+        if (principal instanceof ApiKeyAuthentication apiKeyAuth) {
+            return findById(apiKeyAuth.getApiKey().userId());
+        }
+        if (principal instanceof FrontendTokenService.FrontendToken token) {
+            return findById(token.userId());
+        }
+        if (principal instanceof OAuth2User oauth2User) {
+            Long userId = sessionUserId();
+            if (userId != null) {
+                return findById(userId);
+            }
+            String email = oauth2User.getAttribute("email");
+            return email == null ? Optional.empty() : userService.findByEmail(email).map(this::cache);
+        }
+        return Optional.empty();
+    }
+
+    public Optional<UserSnapshot> findById(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_USER_SNAPSHOT);
+        if (cache == null) {
+            return userService.findById(userId).map(UserSnapshot::of);
+        }
+        return Optional.ofNullable(cache.get(userId, () -> userService.findById(userId).map(UserSnapshot::of).orElse(null)));
+    }
+
+    private UserSnapshot cache(User user) {
+        UserSnapshot snapshot = UserSnapshot.of(user);
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_USER_SNAPSHOT);
+        if (cache != null) {
+            cache.put(user.getId(), snapshot);
+        }
+        return snapshot;
+    }
+
+    private static Long sessionUserId() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpSession session = attributes.getRequest().getSession(false);
+        if (session != null && session.getAttribute(SESSION_USER_ID) instanceof Number userId) {
+            return userId.longValue();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package dev.skillter.synaxic.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.skillter.synaxic.service.DailyRequestTrackerService;
+import dev.skillter.synaxic.service.IpInspectorService;
+import dev.skillter.synaxic.service.MetricsService;
+import dev.skillter.synaxic.service.RateLimitLeaseService;
+import dev.skillter.synaxic.service.RateLimitService;
+import dev.skillter.synaxic.util.ClientAddress;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in shortcut for anonymous {@code GET /v1/ip}, the most called endpoint. It answers
+ * directly after a leased rate limit check and skips the CSP nonce, Spring Security, the
+ * session lookup, MVC and the request logging interceptor.
+ * <p>
+ * Requests with credentials, a session cookie or an {@code Origin} header (which need CORS
+ * handling) take the standard path. Rejected leases get the standard 429 response directly.
+ * Daily request counts are batched and flushed every {@code synaxic.fast-lane.flush-ms}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+@RequiredArgsConstructor
+public class FastLaneFilter extends OncePerRequestFilter {
+
+    static final String PATH = "/v1/ip";
+    private static final String ANONYMOUS = "anonymous";
+    private static final String UNKNOWN = "unknown";
+
+    private final ClientContextResolver clientContextResolver;
+    private final RateLimitLeaseService rateLimitLeaseService;
+    private final RateLimitService rateLimitService;
+    private final DailyRequestTrackerService dailyRequestTrackerService;
+    private final MetricsService metricsService;
+    private final ObjectMapper objectMapper;
+    private final LongAdder pendingDailyRequests = new LongAdder();
+
+    @Value("${synaxic.fast-lane.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !"GET".equals(request.getMethod())
+                || !PATH.equals(request.getRequestURI())
+                || ApiRequestMatcher.hasApiKey(request)
+                || request.getHeader(HttpHeaders.ORIGIN) != null
+                || ApiRequestMatcher.hasSessionCookie(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClientAddress client = clientContextResolver.resolve(request).address();
+        String ip = client.toString();
+
+        // Same bucket key as the anonymous tier in RateLimitFilter, so both paths share one quota
+        RateLimitLeaseService.LeaseResult lease = rateLimitLeaseService.tryAcquire(ip, RateLimitService.RateLimitTier.ANONYMOUS);
+        if (!lease.allowed()) {
+            // The shared bucket already rejected the request, so the standard path would only check it again
+            RateLimitFilter.writeTooManyRequests(request, response, lease.retryAfterSeconds(), objectMapper);
+            return;
+        }
+
+        String body;
+        String contentType;
+        if (IpInspectorService.prefersPlainText(request.getHeader(HttpHeaders.ACCEPT))) {
+            body = ip + "\n";
+            contentType = MediaType.TEXT_PLAIN_VALUE;
+        } else {
+            // Address text only ever contains hex digits, dots and colons, so no escaping is needed
+            body = "{\"ip\":\"" + ip + "\",\"ipVersion\":\"" + client.version() + "\"}";
+            contentType = MediaType.APPLICATION_JSON_VALUE;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(contentType);
+        response.setContentLength(bytes.length);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimitService.getLimit(RateLimitService.RateLimitTier.ANONYMOUS)));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(lease.remainingTokens()));
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.getOutputStream().write(bytes);
+
+        pendingDailyRequests.increment();
+        metricsService.incrementApiRequest(PATH, "GET", HttpStatus.OK.value(), ANONYMOUS, UNKNOWN);
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.fast-lane.flush-ms:1000}")
+    public void flushDailyRequests() {
+        if (!enabled) {
+            return;
+        }
+        long count = pendingDailyRequests.sumThenReset();
+        if (count == 0) {
+            return;
+        }
+        try {
+            dailyRequestTrackerService.addDailyRequests(count);
+        } catch (Exception e) {
+            pendingDailyRequests.add(count);
+            log.error("Failed to flush {} fast lane requests to the daily counter", count, e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package dev.skillter.synaxic.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates dashboard requests from the frontend token cookie when that mode is enabled.
+ * The context is replaced rather than modified, so the deferred session-backed context is
+ * never loaded.
+ */
+@Component
+@RequiredArgsConstructor
+public class FrontendTokenAuthFilter extends OncePerRequestFilter {
+
+    private final FrontendTokenService frontendTokenService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !frontendTokenService.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        frontendTokenService.verify(request).ifPresent(token -> {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(new FrontendTokenAuthentication(token));
+            SecurityContextHolder.setContext(context);
+
+            if (frontendTokenService.shouldRefresh(token)) {
+                frontendTokenService.writeCookie(response, token.userId());
+            }
+        });
+
+        filterChain.doFilter(request, response);
+    }
+}
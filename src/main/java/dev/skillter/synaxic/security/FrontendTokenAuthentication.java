@@ -0,0 +1,56 @@
+package dev.skillter.synaxic.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+
+public class FrontendTokenAuthentication implements Authentication {
+
+    private final FrontendTokenService.FrontendToken token;
+    private boolean authenticated = true;
+
+    public FrontendTokenAuthentication(FrontendTokenService.FrontendToken token) {
+        this.token = token;
+    }
+
+    public FrontendTokenService.FrontendToken getToken() {
+        return token;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return token;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) throws IllegalArgumentException {
+        this.authenticated = isAuthenticated;
+    }
+
+    @Override
+    public String getName() {
+        return Long.toString(token.userId());
+    }
+}
@@ -0,0 +1,198 @@
+package dev.skillter.synaxic.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.skillter.synaxic.service.RateLimitService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Optional signed cookie that identifies a logged-in dashboard user without loading the
+ * Redis session. Tokens are short-lived HS256 JWTs carrying the user ID and rate limit tier,
+ * verified locally on every request.
+ * <p>
+ * Redis only holds revoked token IDs (scored by expiry) and a topic that tells the other
+ * instances about new revocations, so the check itself never leaves the JVM.
+ */
+@Service
+@Slf4j
+public class FrontendTokenService implements LogoutHandler {
+
+    public static final String COOKIE_NAME = "SYNAXIC_TOKEN";
+    static final String TIER_CLAIM = "tier";
+    private static final String REVOKED_KEY = "frontend-token:revoked";
+    private static final String REVOCATION_TOPIC = "frontend-token:revocations";
+
+    private final RedissonClient redissonClient;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final SecretKey key;
+    private final Cache<String, Boolean> revokedTokenIds;
+
+    public FrontendTokenService(RedissonClient redissonClient,
+                                @Value("${synaxic.frontend-token.enabled:false}") boolean enabled,
+                                @Value("${synaxic.frontend-token.secret:}") String secret,
+                                @Value("${synaxic.frontend-token.ttl-minutes:15}") long ttlMinutes) {
+        this.redissonClient = redissonClient;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        if (StringUtils.hasText(secret)) {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        } else if (enabled) {
+            // A per-instance random key would reject cookies issued by every other instance
+            throw new IllegalStateException("synaxic.frontend-token.secret must be set when frontend tokens are enabled");
+        } else {
+            this.key = Jwts.SIG.HS256.key().build();
+        }
+        this.revokedTokenIds = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        revokedSet().removeRangeByScore(0, true, System.currentTimeMillis(), true);
+        revokedSet().valueRange(System.currentTimeMillis(), false, Double.POSITIVE_INFINITY, true)
+                .forEach(tokenId -> revokedTokenIds.put(tokenId, Boolean.TRUE));
+        redissonClient.getTopic(REVOCATION_TOPIC).addListener(String.class,
+                (channel, tokenId) -> revokedTokenIds.put(tokenId, Boolean.TRUE));
+        log.info("Frontend tokens enabled with {} known revocations", revokedTokenIds.estimatedSize());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String issue(long userId) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(Long.toString(userId))
+                .claim(TIER_CLAIM, RateLimitService.RateLimitTier.FRONTEND.name())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(key)
+                .compact();
+    }
+
+    public void writeCookie(HttpServletResponse response, long userId) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(issue(userId), ttl).toString());
+    }
+
+    public Optional<FrontendToken> verify(HttpServletRequest request) {
+        String token = readCookie(request);
+        if (token == null) {
+            return Optional.empty();
+        }
+        return parse(token).filter(parsed -> revokedTokenIds.getIfPresent(parsed.tokenId()) == null);
+    }
+
+    /**
+     * @return true once less than half of the token's lifetime is left, so active users get a
+     * fresh cookie well before the old one expires
+     */
+    public boolean shouldRefresh(FrontendToken token) {
+        return Duration.between(Instant.now(), token.expiresAt()).compareTo(ttl.dividedBy(2)) < 0;
+    }
+
+    public void revoke(FrontendToken token) {
+        long remainingMillis = token.expiresAt().toEpochMilli() - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return;
+        }
+        revokedTokenIds.put(token.tokenId(), Boolean.TRUE);
+        try {
+            revokedSet().add(token.expiresAt().toEpochMilli(), token.tokenId());
+            redissonClient.getTopic(REVOCATION_TOPIC).publish(token.tokenId());
+        } catch (Exception e) {
+            log.error("Failed to publish revocation of frontend token {}", token.tokenId(), e);
+        }
+    }
+
+    /**
+     * Revokes the request's token, if any, and clears the cookie.
+     */
+    @Override
+    public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
+        if (!enabled) {
+            return;
+        }
+        String token = readCookie(request);
+        if (token != null) {
+            parse(token).ifPresent(this::revoke);
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie("", Duration.ZERO).toString());
+        }
+    }
+
+    Optional<FrontendToken> parse(String token) {
+        try {
+            Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+            if (!RateLimitService.RateLimitTier.FRONTEND.name().equals(claims.get(TIER_CLAIM, String.class))) {
+                return Optional.empty();
+            }
+            return Optional.of(new FrontendToken(
+                    Long.parseLong(claims.getSubject()), claims.getId(), claims.getExpiration().toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected frontend token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private RScoredSortedSet<String> revokedSet() {
+        return redissonClient.getScoredSortedSet(REVOKED_KEY);
+    }
+
+    private static String readCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName()) && StringUtils.hasText(cookie.getValue())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static ResponseCookie cookie(String value, Duration maxAge) {
+        return ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    public record FrontendToken(long userId, String tokenId, Instant expiresAt) {
+    }
+}
@@ -10,12 +10,19 @@ import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -23,8 +30,12 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
 
+    // Principal attributes read after login; everything else (ID token, claims) stays out of the session
+    private static final List<String> SESSION_PRINCIPAL_ATTRIBUTES = List.of("sub", "name", "email", "picture");
+
     private final UserService userService;
     private final ApiKeyService apiKeyService;
+    private final FrontendTokenService frontendTokenService;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
@@ -69,11 +80,16 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
             // Set secure session attributes
             newSession.setAttribute("authenticated", true);
 
-            // Ensure the security context is saved to the session
-            org.springframework.security.core.context.SecurityContext context =
-                org.springframework.security.core.context.SecurityContextHolder.getContext();
+            // Ensure the security context is saved to the session, with a slimmed principal
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(slimAuthentication(authentication));
+            SecurityContextHolder.setContext(context);
             newSession.setAttribute("SPRING_SECURITY_CONTEXT", context);
 
+            if (frontendTokenService.isEnabled()) {
+                frontendTokenService.writeCookie(response, user.getId());
+            }
+
             // Debug logging
             log.info("OAuth2 user logged in: {} ({}) - Session ID: {} - Session secured",
                     oauth2User.getAttribute("email"), user.getId(), newSession.getId());
@@ -96,6 +112,37 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
         }
     }
 
+    /**
+     * Replaces the provider's principal (for Google an OIDC user carrying the ID token and
+     * every claim) with a plain OAuth2 user holding only the attributes the app reads.
+     */
+    static Authentication slimAuthentication(Authentication authentication) {
+        if (!(authentication instanceof OAuth2AuthenticationToken token)) {
+            return authentication;
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        for (String name : SESSION_PRINCIPAL_ATTRIBUTES) {
+            Object value = token.getPrincipal().getAttribute(name);
+            if (value != null) {
+                attributes.put(name, value);
+            }
+        }
+        String nameAttributeKey = attributes.containsKey("sub") ? "sub" : "email";
+        if (!attributes.containsKey(nameAttributeKey)) {
+            return authentication;
+        }
+
+        List<GrantedAuthority> authorities = token.getAuthorities().stream()
+                .<GrantedAuthority>map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
+                .toList();
+        OAuth2AuthenticationToken slim = new OAuth2AuthenticationToken(
+                new DefaultOAuth2User(authorities, attributes, nameAttributeKey),
+                authorities,
+                token.getAuthorizedClientRegistrationId());
+        slim.setDetails(token.getDetails());
+        return slim;
+    }
+
     /**
      * Sanitizes string input to prevent injection attacks
      */
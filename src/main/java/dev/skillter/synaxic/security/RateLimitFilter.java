@@ -1,11 +1,11 @@
 package dev.skillter.synaxic.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import dev.skillter.synaxic.model.entity.User;
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
 import dev.skillter.synaxic.service.AccountUsageService;
 import dev.skillter.synaxic.service.DailyRequestTrackerService;
 import dev.skillter.synaxic.service.RateLimitService;
-import dev.skillter.synaxic.util.IpExtractor;
+import dev.skillter.synaxic.util.ClientContextResolver;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
@@ -38,7 +38,8 @@ public class RateLimitFilter extends OncePerRequestFilter {
     private final RateLimitService rateLimitService;
     private final AccountUsageService accountUsageService;
     private final DailyRequestTrackerService dailyRequestTrackerService;
-    private final IpExtractor ipExtractor;
+    private final ClientContextResolver clientContextResolver;
+    private final FrontendTokenService frontendTokenService;
     private final ObjectMapper objectMapper;
 
     private static final Set<String> STATIC_EXTENSIONS = Set.of(
@@ -81,7 +82,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
         // 1. Static Resources & UI Pages (DDoS Protection Tier - 5M/hr)
         if (isStaticResource(path) || isUiPage(path)) {
             tier = RateLimitService.RateLimitTier.STATIC;
-            key = "static:" + ipExtractor.extractClientIp(request);
+            key = "static:" + clientContextResolver.resolve(request).ip();
         } else {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -89,12 +90,16 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 if (authentication instanceof ApiKeyAuthentication apiKeyAuth) {
                     // 2. API Key Authentication (Programmatic Access - 10k/hr)
                     // Uses 'account:{id}' bucket - counts towards dashboard quota
-                    User user = apiKeyAuth.getApiKey().getUser();
-                    key = "account:" + user.getId();
+                    ApiKeyPrincipal apiKey = apiKeyAuth.getApiKey();
+                    key = "account:" + apiKey.userId();
                     tier = RateLimitService.RateLimitTier.ACCOUNT;
-                    apiKeyPrefix = apiKeyAuth.getApiKey().getPrefix();
-                    apiKeyId = apiKeyAuth.getApiKey().getId();
+                    apiKeyPrefix = apiKey.prefix();
+                    apiKeyId = apiKey.id();
                     isApiKeyAuth = true;
+                } else if (authentication instanceof FrontendTokenAuthentication frontendAuth) {
+                    // 3a. Frontend token (Website Access verified without the session - 50k/hr)
+                    key = "frontend:" + frontendAuth.getToken().userId();
+                    tier = RateLimitService.RateLimitTier.FRONTEND;
                 } else if (authentication instanceof OAuth2AuthenticationToken) {
                     // 3. OAuth2 Session Authentication (Frontend Website Access - 50k/hr)
                     // Uses 'frontend:{id}' bucket - separate high quota, DOES NOT affect dashboard quota
@@ -102,19 +107,23 @@ public class RateLimitFilter extends OncePerRequestFilter {
                     if (userId != null) {
                         key = "frontend:" + userId;
                         tier = RateLimitService.RateLimitTier.FRONTEND;
+                        if (frontendTokenService.isEnabled()) {
+                            // Token missing or expired: issue one so later requests skip the session
+                            frontendTokenService.writeCookie(response, userId);
+                        }
                     } else {
                         // Fallback if session is missing user_id
-                        key = ipExtractor.extractClientIp(request);
+                        key = clientContextResolver.resolve(request).ip();
                         tier = RateLimitService.RateLimitTier.ANONYMOUS;
                     }
                 } else {
                     // Fallback for other auth types
-                    key = ipExtractor.extractClientIp(request);
+                    key = clientContextResolver.resolve(request).ip();
                     tier = RateLimitService.RateLimitTier.ANONYMOUS;
                 }
             } else {
                 // 4. Anonymous (IP Based - 1k/hr)
-                key = ipExtractor.extractClientIp(request);
+                key = clientContextResolver.resolve(request).ip();
                 tier = RateLimitService.RateLimitTier.ANONYMOUS;
             }
         }
@@ -127,6 +136,8 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
         if (probe.isConsumed()) {
             response.addHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
+            request.setAttribute(RateLimitService.BUCKET_KEY_ATTRIBUTE, key);
+            request.setAttribute(RateLimitService.TIER_ATTRIBUTE, tier);
 
             // Only count non-static traffic towards global stats
             if (tier != RateLimitService.RateLimitTier.STATIC) {
@@ -141,7 +152,7 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 // Record detailed usage ONLY for actual API Keys
                 // This ensures frontend browsing does NOT increase the "Hourly Quota" bar on the dashboard
                 if (isApiKeyAuth && apiKeyId != null && apiKeyPrefix != null) {
-                    accountUsageService.recordApiKeyUsage(apiKeyId, apiKeyPrefix);
+                    accountUsageService.recordApiKeyUsage(apiKeyId);
                 }
             }
 
@@ -155,8 +166,8 @@ public class RateLimitFilter extends OncePerRequestFilter {
         HttpSession session = request.getSession(false);
         if (session != null) {
             Object userIdObj = session.getAttribute("user_id");
-            if (userIdObj instanceof Long) {
-                return (Long) userIdObj;
+            if (userIdObj instanceof Number userId) {
+                return userId.longValue();
             }
         }
         return null;
@@ -193,8 +204,14 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
     private void handleRateLimitExceeded(HttpServletRequest request, HttpServletResponse response, ConsumptionProbe probe) throws IOException {
         long waitForRefillNanos = probe.getNanosToWaitForRefill();
-        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitForRefillNanos) + 1;
+        writeTooManyRequests(request, response, TimeUnit.NANOSECONDS.toSeconds(waitForRefillNanos) + 1, objectMapper);
+    }
 
+    /**
+     * Writes the 429 problem response, also used by {@link FastLaneFilter} for rejected leases.
+     */
+    static void writeTooManyRequests(HttpServletRequest request, HttpServletResponse response,
+                                     long retryAfterSeconds, ObjectMapper objectMapper) throws IOException {
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
         response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
         response.addHeader("X-RateLimit-Remaining", "0");
@@ -0,0 +1,17 @@
+package dev.skillter.synaxic.security;
+
+import dev.skillter.synaxic.model.entity.User;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Immutable copy of the user fields the dashboard endpoints read, safe to share across
+ * requests and instances through the tiered cache.
+ */
+public record UserSnapshot(Long id, String email, Instant createdAt) implements Serializable {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,169 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived HS256 access tokens that API clients get in exchange for their API key, so
+ * high-volume integrations authenticate with a local signature check instead of a key lookup.
+ * <p>
+ * Tokens carry the key ID, prefix, user ID and quota tier. Deleting a key revokes every token
+ * issued for it: the prefix goes into a Redis sorted set, scored by when the last such token
+ * expires, and each instance pulls that set in one batch every few seconds. Verification
+ * itself only consults the local copy.
+ */
+@Service
+@Slf4j
+public class AccessTokenService {
+
+    static final String KEY_ID_CLAIM = "key_id";
+    static final String PREFIX_CLAIM = "prefix";
+    static final String TIER_CLAIM = "tier";
+    static final String QUOTA_CLAIM = "quota";
+    private static final String REVOKED_KEY = "access-token:revoked-prefixes";
+
+    private final RedissonClient redissonClient;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final SecretKey key;
+    private volatile Map<String, Long> revokedPrefixes = Map.of();
+    private final Map<String, Long> locallyRevoked = new ConcurrentHashMap<>();
+
+    public AccessTokenService(RedissonClient redissonClient,
+                              @Value("${synaxic.access-token.enabled:false}") boolean enabled,
+                              @Value("${synaxic.access-token.secret:}") String secret,
+                              @Value("${synaxic.access-token.ttl-minutes:15}") long ttlMinutes) {
+        this.redissonClient = redissonClient;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        if (StringUtils.hasText(secret)) {
+            this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        } else if (enabled) {
+            // A per-instance random key would reject tokens issued by every other instance
+            throw new IllegalStateException("synaxic.access-token.secret must be set when access tokens are enabled");
+        } else {
+            this.key = Jwts.SIG.HS256.key().build();
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            syncRevocations();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(ApiKeyPrincipal apiKey) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .subject(Long.toString(apiKey.userId()))
+                .claim(KEY_ID_CLAIM, apiKey.id())
+                .claim(PREFIX_CLAIM, apiKey.prefix())
+                .claim(TIER_CLAIM, RateLimitService.RateLimitTier.ACCOUNT.name())
+                .claim(QUOTA_CLAIM, apiKey.quotaLimit())
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * @return the key the token was issued for, without its hash, or empty if the token is
+     * invalid, expired or revoked
+     */
+    public Optional<ApiKeyPrincipal> verify(String token) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+            if (!RateLimitService.RateLimitTier.ACCOUNT.name().equals(claims.get(TIER_CLAIM, String.class))) {
+                return Optional.empty();
+            }
+            String prefix = claims.get(PREFIX_CLAIM, String.class);
+            if (prefix == null || isRevoked(prefix)) {
+                return Optional.empty();
+            }
+            return Optional.of(new ApiKeyPrincipal(claims.get(KEY_ID_CLAIM, Long.class), prefix, null,
+                    Long.parseLong(claims.getSubject()), claims.get(QUOTA_CLAIM, Integer.class)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected access token: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Revokes every token issued for the key with this prefix. Called after the key is deleted.
+     */
+    public void revokeKey(String prefix) {
+        if (!enabled) {
+            return;
+        }
+        long revokedUntil = System.currentTimeMillis() + ttl.toMillis();
+        locallyRevoked.put(prefix, revokedUntil);
+        try {
+            revokedSet().add(revokedUntil, prefix);
+        } catch (Exception e) {
+            log.error("Failed to publish revocation of access tokens for key {}", prefix, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.access-token.revocation-sync-ms:5000}")
+    public void syncRevocations() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try {
+            RScoredSortedSet<String> revoked = revokedSet();
+            revoked.removeRangeByScore(0, true, now, true);
+            Map<String, Long> snapshot = new ConcurrentHashMap<>();
+            revoked.entryRange(now, false, Double.POSITIVE_INFINITY, true)
+                    .forEach(entry -> snapshot.put(entry.getValue(), entry.getScore().longValue()));
+            revokedPrefixes = snapshot;
+        } catch (Exception e) {
+            log.warn("Failed to sync access token revocations, keeping the previous set: {}", e.getMessage());
+        }
+        locallyRevoked.values().removeIf(revokedUntil -> revokedUntil <= now);
+    }
+
+    private boolean isRevoked(String prefix) {
+        Long revokedUntil = revokedPrefixes.get(prefix);
+        if (revokedUntil == null) {
+            revokedUntil = locallyRevoked.get(prefix);
+        }
+        return revokedUntil != null && revokedUntil > System.currentTimeMillis();
+    }
+
+    private RScoredSortedSet<String> revokedSet() {
+        return redissonClient.getScoredSortedSet(REVOKED_KEY);
+    }
+}
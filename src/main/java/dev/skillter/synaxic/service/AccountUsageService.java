@@ -9,9 +9,7 @@ import dev.skillter.synaxic.repository.ApiKeyUsageRepository;
 import dev.skillter.synaxic.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -30,6 +28,7 @@ public class AccountUsageService {
     private final UserRepository userRepository;
     private final ApiKeyRepository apiKeyRepository;
     private final RateLimitService rateLimitService;
+    private final ApiKeyUsageAccumulator usageAccumulator;
 
     private static final List<String> KEY_COLORS = Arrays.asList(
         "#FF6B6B", "#4ECDC4", "#45B7D1", "#FFA07A", "#98D8C8",
@@ -65,38 +64,12 @@ public class AccountUsageService {
                 .build();
     }
 
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void recordApiKeyUsage(Long apiKeyId, String keyPrefix) {
-        try {
-            Instant currentHour = Instant.now().truncatedTo(ChronoUnit.HOURS);
-
-            ApiKeyUsage usage = apiKeyUsageRepository.findCurrentHourUsage(apiKeyId, currentHour)
-                    .orElseGet(() -> {
-                        Optional<ApiKey> keyOpt = apiKeyRepository.findById(apiKeyId);
-                        if (keyOpt.isEmpty()) return null;
-                        
-                        return ApiKeyUsage.builder()
-                                .apiKey(keyOpt.get())
-                                .periodStart(currentHour)
-                                .periodType("hourly")
-                                .requestCount(0L)
-                                .build();
-                    });
-
-            if (usage != null) {
-                usage.setRequestCount(usage.getRequestCount() + 1);
-                usage.setLastUpdated(Instant.now());
-                apiKeyUsageRepository.save(usage);
-
-                apiKeyRepository.findById(apiKeyId).ifPresent(key -> {
-                    key.setLastUsedAt(Instant.now());
-                    apiKeyRepository.save(key);
-                });
-            }
-        } catch (Exception e) {
-            log.error("Failed to record usage for API key {}: {}", keyPrefix, e.getMessage());
-        }
+    /**
+     * Counts one request against the key's current hour. The count reaches the database on
+     * the next {@link ApiKeyUsageAccumulator} flush.
+     */
+    public void recordApiKeyUsage(Long apiKeyId) {
+        usageAccumulator.record(apiKeyId);
     }
 
     private List<AccountUsageDto.KeyUsageBreakdown> getKeyUsageBreakdown(Long userId, Instant currentHour) {
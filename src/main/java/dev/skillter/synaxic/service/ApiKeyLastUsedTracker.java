@@ -0,0 +1,84 @@
+package dev.skillter.synaxic.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces {@code api_key.last_used_at} updates. Requests only record the latest use per key
+ * in memory; a scheduled flush writes all pending keys with one batched {@code UPDATE}.
+ * <p>
+ * The dashboard shows last use at minute precision, so a few seconds of delay, and the loss
+ * of the last interval on a hard crash, are acceptable.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyLastUsedTracker {
+
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final long MIN_TOUCH_INTERVAL_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<Long, Long> pending = new ConcurrentHashMap<>();
+
+    public void touch(Long apiKeyId) {
+        long now = System.currentTimeMillis();
+        Long previous = pending.get(apiKeyId);
+        if (previous != null && now - previous < MIN_TOUCH_INTERVAL_MS) {
+            return;
+        }
+        pending.merge(apiKeyId, now, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.api-key.last-used-flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Long>> batch = new ArrayList<>(pending.size());
+        for (Long apiKeyId : pending.keySet()) {
+            Long lastUsed = pending.remove(apiKeyId);
+            if (lastUsed != null) {
+                batch.add(Map.entry(apiKeyId, lastUsed));
+            }
+        }
+        for (int from = 0; from < batch.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<Long, Long>> chunk = batch.subList(from, Math.min(batch.size(), from + MAX_ROWS_PER_STATEMENT));
+            try {
+                write(chunk);
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush last-used time for {} API keys, retrying next cycle: {}", chunk.size(), e.getMessage());
+                chunk.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), Math::max));
+            }
+        }
+        log.debug("Flushed last-used time for {} API keys", batch.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<Map.Entry<Long, Long>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE api_key AS k SET last_used_at = v.last_used_at FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 2];
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS BIGINT), CAST(? AS TIMESTAMPTZ))");
+            args[i * 2] = chunk.get(i).getKey();
+            args[i * 2 + 1] = new Timestamp(chunk.get(i).getValue());
+        }
+        sql.append(") AS v(id, last_used_at) WHERE k.id = v.id AND (k.last_used_at IS NULL OR k.last_used_at < v.last_used_at)");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+}
@@ -0,0 +1,98 @@
+package dev.skillter.synaxic.service;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import dev.skillter.synaxic.cache.CacheEvent;
+import dev.skillter.synaxic.config.CacheConfig;
+import dev.skillter.synaxic.repository.ApiKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bloom filter of every API key prefix, so keys with an unknown prefix are rejected without
+ * touching the prefix cache, Redis or Postgres.
+ * <p>
+ * The filter may answer "maybe" for prefixes that do not exist (deleted keys, false
+ * positives); those simply fall through to the normal lookup. It must never answer "no" for a
+ * live key, so new prefixes are added after their key commits, locally and on every other
+ * instance through the cache invalidation topic. A periodic rebuild from the database drops
+ * deleted prefixes and repairs any missed messages. Until the first load succeeds every prefix
+ * is allowed through.
+ */
+@Service
+@Slf4j
+public class ApiKeyPrefixFilter {
+
+    private static final int MIN_EXPECTED_PREFIXES = 10_000;
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final RedissonClient redissonClient;
+    private final double falsePositiveRate;
+    private final Set<String> addedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter<CharSequence> filter;
+    private volatile boolean rebuilding;
+
+    public ApiKeyPrefixFilter(ApiKeyRepository apiKeyRepository,
+                              RedissonClient redissonClient,
+                              @Value("${synaxic.api-key.prefix-filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.redissonClient = redissonClient;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    public void init() {
+        // Subscribe before loading so prefixes created during the load are not missed
+        redissonClient.getTopic(CacheConfig.CACHE_INVALIDATION_TOPIC).addListener(CacheEvent.class, (channel, event) -> {
+            if (CacheConfig.CACHE_API_KEY_BY_PREFIX.equals(event.cacheName()) && event.key() instanceof String prefix) {
+                add(prefix);
+            }
+        });
+        rebuild();
+    }
+
+    public boolean mightContain(String prefix) {
+        BloomFilter<CharSequence> current = filter;
+        return current == null || current.mightContain(prefix);
+    }
+
+    public void add(String prefix) {
+        if (rebuilding) {
+            addedDuringRebuild.add(prefix);
+        }
+        BloomFilter<CharSequence> current = filter;
+        if (current != null) {
+            current.put(prefix);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.api-key.prefix-filter.rebuild-ms:600000}",
+            initialDelayString = "${synaxic.api-key.prefix-filter.rebuild-ms:600000}")
+    public void rebuild() {
+        rebuilding = true;
+        try {
+            List<String> prefixes = apiKeyRepository.findAllPrefixes();
+            BloomFilter<CharSequence> rebuilt = BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8),
+                    Math.max(MIN_EXPECTED_PREFIXES, prefixes.size() * 2L), falsePositiveRate);
+            prefixes.forEach(rebuilt::put);
+            addedDuringRebuild.forEach(rebuilt::put);
+            filter = rebuilt;
+            addedDuringRebuild.forEach(rebuilt::put);
+            log.debug("Loaded {} API key prefixes into the prefix filter", prefixes.size());
+        } catch (Exception e) {
+            log.error("Failed to load API key prefix filter, keeping the previous one: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            addedDuringRebuild.clear();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package dev.skillter.synaxic.service;
 
 import dev.skillter.synaxic.config.CacheConfig;
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
 import dev.skillter.synaxic.model.dto.GeneratedApiKey;
 import dev.skillter.synaxic.model.entity.ApiKey;
 import dev.skillter.synaxic.model.entity.User;
@@ -10,16 +11,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
-import java.time.Instant;
 import java.util.Optional;
 
 @Service
@@ -30,11 +27,29 @@ public class ApiKeyService {
     private final ApiKeyRepository apiKeyRepository;
     private final KeyGenerator keyGenerator;
     private final CacheManager cacheManager;
+    private final VerifiedApiKeyCache verifiedApiKeyCache;
+    private final ApiKeyLastUsedTracker lastUsedTracker;
+    private final ApiKeyPrefixFilter prefixFilter;
+    private final AccessTokenService accessTokenService;
 
     @Transactional
     public GeneratedApiKey generateAndSaveKey(User user) {
         GeneratedApiKey generatedKey = keyGenerator.generate(user);
         apiKeyRepository.save(generatedKey.apiKey());
+        String prefix = generatedKey.apiKey().getPrefix();
+
+        // Publish the new prefix once the key is visible in the database, so no instance
+        // rejects it through the prefix filter or a stale cache entry
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    announcePrefix(prefix);
+                }
+            });
+        } else {
+            announcePrefix(prefix);
+        }
         log.info("Generated new API key for user {}", user.getId());
         return generatedKey;
     }
@@ -53,43 +68,60 @@ public class ApiKeyService {
         apiKeyRepository.save(apiKey);
     }
 
-    @Transactional(readOnly = true)
-    public Optional<ApiKey> validateApiKey(String fullKey) {
-        if (fullKey == null || !fullKey.startsWith(KeyGenerator.PREFIX) || fullKey.length() < 12) {
+    /**
+     * Keys verified recently on this instance are served from {@link VerifiedApiKeyCache}
+     * without touching the database or hashing the key again, and keys whose prefix is not in
+     * {@link ApiKeyPrefixFilter} are rejected before any lookup.
+     */
+    public Optional<ApiKeyPrincipal> validateApiKey(String fullKey) {
+        String prefix = KeyGenerator.lookupId(fullKey);
+        if (prefix == null) {
             return Optional.empty();
         }
 
-        String prefix = fullKey.substring(0, 12);
-        Optional<ApiKey> apiKeyOpt = findApiKeyByPrefix(prefix);
+        Optional<ApiKeyPrincipal> verified = verifiedApiKeyCache.get(fullKey);
+        if (verified.isPresent()) {
+            lastUsedTracker.touch(verified.get().id());
+            return verified;
+        }
 
-        if (apiKeyOpt.isEmpty()) {
+        if (!prefixFilter.mightContain(prefix)) {
             return Optional.empty();
         }
 
-        ApiKey apiKey = apiKeyOpt.get();
-        String providedKeyHash = keyGenerator.calculateSha256(fullKey);
+        long generation = verifiedApiKeyCache.generation();
+        Optional<ApiKeyPrincipal> apiKeyOpt = findApiKeyByPrefix(prefix);
 
-        if (MessageDigest.isEqual(providedKeyHash.getBytes(StandardCharsets.UTF_8), apiKey.getKeyHash().getBytes(StandardCharsets.UTF_8))) {
-            updateLastUsedAsync(apiKey.getId());
+        if (apiKeyOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ApiKeyPrincipal apiKey = apiKeyOpt.get();
+        if (MessageDigest.isEqual(keyGenerator.calculateSha256(fullKey), apiKey.keyHash())) {
+            verifiedApiKeyCache.put(fullKey, apiKey, generation);
+            lastUsedTracker.touch(apiKey.id());
             return Optional.of(apiKey);
         }
 
         return Optional.empty();
     }
 
-    @Cacheable(value = CacheConfig.CACHE_API_KEY_BY_PREFIX, key = "#prefix", unless = "!#result.isPresent()")
-    public Optional<ApiKey> findApiKeyByPrefix(String prefix) {
-        log.debug("DB lookup for API key with prefix: {}", prefix);
-        return apiKeyRepository.findByPrefix(prefix);
+    /**
+     * Looks the prefix up through the {@code apiKeyByPrefix} cache. The cache is used directly
+     * rather than through {@code @Cacheable}, which {@link #validateApiKey}'s self-invocation
+     * would bypass. Unknown prefixes are not cached.
+     */
+    public Optional<ApiKeyPrincipal> findApiKeyByPrefix(String prefix) {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_API_KEY_BY_PREFIX);
+        if (cache == null) {
+            return loadApiKeyByPrefix(prefix);
+        }
+        return Optional.ofNullable(cache.get(prefix, () -> loadApiKeyByPrefix(prefix).orElse(null)));
     }
 
-    @Async
-    @Transactional
-    public void updateLastUsedAsync(Long apiKeyId) {
-        apiKeyRepository.findById(apiKeyId).ifPresent(apiKey -> {
-            apiKey.setLastUsedAt(Instant.now());
-            apiKeyRepository.save(apiKey);
-        });
+    private Optional<ApiKeyPrincipal> loadApiKeyByPrefix(String prefix) {
+        log.debug("DB lookup for API key with prefix: {}", prefix);
+        return apiKeyRepository.findByPrefix(prefix).map(ApiKeyPrincipal::of);
     }
 
     public Optional<ApiKey> findByUserId(Long userId) {
@@ -116,12 +148,12 @@ public class ApiKeyService {
                 TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                     @Override
                     public void afterCommit() {
-                        evictFromCache(prefix);
+                        forgetDeletedKey(prefix);
                     }
                 });
             } else {
                 // No active transaction, evict immediately (safe for tests and fallback in production)
-                evictFromCache(prefix);
+                forgetDeletedKey(prefix);
             }
 
             apiKeyRepository.delete(key);
@@ -131,7 +163,19 @@ public class ApiKeyService {
         }
     }
 
+    private void forgetDeletedKey(String prefix) {
+        accessTokenService.revokeKey(prefix);
+        evictFromCache(prefix);
+    }
+
+    private void announcePrefix(String prefix) {
+        prefixFilter.add(prefix);
+        // The eviction event doubles as the "prefix changed" signal for other instances' filters
+        evictFromCache(prefix);
+    }
+
     private void evictFromCache(String prefix) {
+        verifiedApiKeyCache.evictPrefix(prefix);
         try {
             Cache cache = cacheManager.getCache(CacheConfig.CACHE_API_KEY_BY_PREFIX);
             if (cache != null) {
@@ -156,7 +200,7 @@ public class ApiKeyService {
                 @Override
                 public void afterCommit() {
                     for (String prefix : prefixes) {
-                        evictFromCache(prefix);
+                        forgetDeletedKey(prefix);
                     }
                     log.debug("Evicted {} API keys from cache after transaction commit", prefixes.size());
                 }
@@ -164,7 +208,7 @@ public class ApiKeyService {
         } else {
             // No active transaction, evict immediately (safe for tests and fallback in production)
             for (String prefix : prefixes) {
-                evictFromCache(prefix);
+                forgetDeletedKey(prefix);
             }
         }
 
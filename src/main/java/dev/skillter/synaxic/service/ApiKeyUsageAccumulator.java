@@ -0,0 +1,123 @@
+package dev.skillter.synaxic.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts API key requests per key and hour in memory and writes the deltas to
+ * {@code api_key_usage} with one batched upsert per flush.
+ * <p>
+ * Recording is a {@link LongAdder} increment, so concurrent requests never contend on a row or
+ * lose updates. Every increment is also written to the {@link CounterJournal}, which drives
+ * the flushes and replays unflushed counts after a crash; deltas that fail to write are
+ * recorded again and retried on the next flush. Without a journal file the flushes run every
+ * few seconds, which bounds both the dashboard lag and what a crash can lose.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApiKeyUsageAccumulator implements CounterJournal.Source {
+
+    static final int JOURNAL_STREAM = 2;
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CounterJournal journal;
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<UsageKey, LongAdder>[] counters = new ConcurrentHashMap[]{
+            new ConcurrentHashMap<>(), new ConcurrentHashMap<>()};
+
+    @PostConstruct
+    public void init() {
+        journal.register(this);
+    }
+
+    public void record(long apiKeyId) {
+        journal.record(this, apiKeyId, currentHourStart(), 1);
+    }
+
+    @Override
+    public int journalStream() {
+        return JOURNAL_STREAM;
+    }
+
+    @Override
+    public void apply(int segment, long apiKeyId, long hourStartMillis, long count) {
+        counters[segment].computeIfAbsent(new UsageKey(apiKeyId, hourStartMillis), key -> new LongAdder()).add(count);
+    }
+
+    @Override
+    public void flushSegment(int segment) {
+        List<Map.Entry<UsageKey, Long>> deltas = drain(counters[segment]);
+        for (int from = 0; from < deltas.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<UsageKey, Long>> chunk = deltas.subList(from, Math.min(deltas.size(), from + MAX_ROWS_PER_STATEMENT));
+            try {
+                write(chunk);
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush usage for {} API key hours, retrying next cycle: {}", chunk.size(), e.getMessage());
+                chunk.forEach(entry -> journal.record(this, entry.getKey().apiKeyId(), entry.getKey().hourStartMillis(), entry.getValue()));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        journal.checkpoint();
+    }
+
+    private static List<Map.Entry<UsageKey, Long>> drain(ConcurrentHashMap<UsageKey, LongAdder> segmentCounters) {
+        long currentHour = currentHourStart();
+        List<Map.Entry<UsageKey, Long>> deltas = new ArrayList<>();
+        for (Map.Entry<UsageKey, LongAdder> entry : segmentCounters.entrySet()) {
+            // Past hours get no new requests, so their counters are dropped once drained
+            if (entry.getKey().hourStartMillis() < currentHour) {
+                segmentCounters.remove(entry.getKey(), entry.getValue());
+            }
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                deltas.add(Map.entry(entry.getKey(), delta));
+            }
+        }
+        return deltas;
+    }
+
+    private void write(List<Map.Entry<UsageKey, Long>> chunk) {
+        // Joining api_key skips counts for keys deleted since they were recorded
+        StringBuilder sql = new StringBuilder("INSERT INTO api_key_usage (api_key_id, period_start, period_type, request_count) "
+                + "SELECT v.api_key_id, v.period_start, 'hourly', v.request_count FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 3];
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(CAST(? AS BIGINT), CAST(? AS TIMESTAMPTZ), CAST(? AS BIGINT))");
+            UsageKey key = chunk.get(i).getKey();
+            args[i * 3] = key.apiKeyId();
+            args[i * 3 + 1] = new Timestamp(key.hourStartMillis());
+            args[i * 3 + 2] = chunk.get(i).getValue();
+        }
+        sql.append(") AS v(api_key_id, period_start, request_count) JOIN api_key k ON k.id = v.api_key_id ")
+                .append("ON CONFLICT (api_key_id, period_start, period_type) ")
+                .append("DO UPDATE SET request_count = api_key_usage.request_count + EXCLUDED.request_count");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private static long currentHourStart() {
+        long now = System.currentTimeMillis();
+        return now - now % HOUR_MILLIS;
+    }
+
+    record UsageKey(long apiKeyId, long hourStartMillis) {
+    }
+}
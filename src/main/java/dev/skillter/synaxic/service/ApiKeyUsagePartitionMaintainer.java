@@ -0,0 +1,115 @@
+package dev.skillter.synaxic.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code api_key_usage} in shape: creates partitions for the
+ * coming months ahead of time and, when a retention is configured, detaches partitions whose
+ * month has expired, optionally dropping them.
+ * <p>
+ * Detaching a month is a metadata operation, so retention never runs a mass DELETE. Expired
+ * months no longer count towards usage totals; detached tables are left for archiving unless
+ * dropping is enabled. Only one instance runs the job at a time.
+ * <p>
+ * Rows for a month without a partition land in {@code api_key_usage_default}, for example when
+ * this job has been failing for longer than {@code months-ahead}. Creating that month's
+ * partition moves them out of the DEFAULT partition first, so maintenance catches up instead
+ * of failing on every run.
+ */
+@Service
+@Slf4j
+public class ApiKeyUsagePartitionMaintainer {
+
+    static final String LOCK_KEY = "api-key-usage:partitions:lock";
+    static final String CREATE_PARTITION_SQL = "SELECT create_api_key_usage_partition(?)";
+    // Resolved through the search path, so the same table the unqualified DETACH statements act on
+    static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'api_key_usage'::regclass";
+    private static final Pattern PARTITION_NAME = Pattern.compile("api_key_usage_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedissonClient redissonClient;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean dropExpired;
+
+    public ApiKeyUsagePartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                          RedissonClient redissonClient,
+                                          @Value("${synaxic.api-key.usage-partitions.months-ahead:3}") int monthsAhead,
+                                          @Value("${synaxic.api-key.usage-partitions.retention-months:0}") int retentionMonths,
+                                          @Value("${synaxic.api-key.usage-partitions.drop-expired:false}") boolean dropExpired) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redissonClient = redissonClient;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.dropExpired = dropExpired;
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.api-key.usage-partitions.interval-ms:21600000}",
+            initialDelayString = "${synaxic.api-key.usage-partitions.initial-delay-ms:60000}")
+    public void maintain() {
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        if (!lock.tryLock()) {
+            log.debug("API key usage partition maintenance is already running elsewhere");
+            return;
+        }
+        try {
+            YearMonth current = YearMonth.now(ZoneOffset.UTC);
+            createAhead(current);
+            if (retentionMonths > 0) {
+                expire(current.minusMonths(retentionMonths));
+            }
+        } catch (DataAccessException e) {
+            log.warn("API key usage partition maintenance failed, retrying on the next run: {}", e.getMessage());
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    void createAhead(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate monthStart = current.plusMonths(i).atDay(1);
+            jdbcTemplate.queryForObject(CREATE_PARTITION_SQL, String.class, Date.valueOf(monthStart));
+        }
+    }
+
+    /**
+     * Detaches every monthly partition before {@code oldestKept}.
+     */
+    void expire(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches() || !YearMonth.parse(matcher.group(1), PARTITION_MONTH).isBefore(oldestKept)) {
+                continue;
+            }
+            // The name matched the partition pattern, so it is safe to use as an identifier
+            jdbcTemplate.execute("ALTER TABLE api_key_usage DETACH PARTITION " + partition);
+            if (dropExpired) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired API key usage partition {}", partition);
+            } else {
+                log.info("Detached expired API key usage partition {}", partition);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package dev.skillter.synaxic.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Compacts {@code api_key_usage} so its size stays bounded: hourly rows older than the hourly
+ * retention are folded into daily rows, and daily rows older than the daily retention into
+ * monthly rows.
+ * <p>
+ * Each batch deletes a bounded number of rows and adds their counts to the coarser rows in a
+ * single statement, so every request is counted in exactly one row at all times and totals
+ * can simply sum across granularities. Only one instance runs the job at a time, and progress
+ * is recorded in {@code api_key_usage_rollup}.
+ */
+@Service
+@Slf4j
+public class ApiKeyUsageRollupService {
+
+    static final String LOCK_KEY = "api-key-usage:rollup:lock";
+
+    // Data-modifying CTEs always run to completion, so the count covers both the delete and the upsert
+    static final String COMPACT_SQL = "WITH moved AS ("
+            + "DELETE FROM api_key_usage WHERE (id, period_start) IN ("
+            + "SELECT id, period_start FROM api_key_usage WHERE period_type = ? AND period_start < ? ORDER BY period_start LIMIT ?) "
+            + "RETURNING api_key_id, period_start, request_count), "
+            + "rolled AS ("
+            + "INSERT INTO api_key_usage (api_key_id, period_start, period_type, request_count) "
+            + "SELECT api_key_id, date_trunc(?, period_start AT TIME ZONE 'UTC') AT TIME ZONE 'UTC', ?, SUM(request_count) "
+            + "FROM moved GROUP BY 1, 2 "
+            + "ON CONFLICT (api_key_id, period_start, period_type) "
+            + "DO UPDATE SET request_count = api_key_usage.request_count + EXCLUDED.request_count) "
+            + "SELECT COUNT(*) FROM moved";
+
+    static final String PROGRESS_SQL = "INSERT INTO api_key_usage_rollup "
+            + "(target_period_type, compacted_before, rows_compacted, last_run_at) "
+            + "VALUES (?, CAST(? AS TIMESTAMPTZ), ?, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (target_period_type) DO UPDATE SET "
+            + "compacted_before = COALESCE(EXCLUDED.compacted_before, api_key_usage_rollup.compacted_before), "
+            + "rows_compacted = api_key_usage_rollup.rows_compacted + EXCLUDED.rows_compacted, "
+            + "last_run_at = EXCLUDED.last_run_at";
+
+    enum Rollup {
+        DAILY("hourly", "daily", "day"),
+        MONTHLY("daily", "monthly", "month");
+
+        final String sourceType;
+        final String targetType;
+        final String truncateTo;
+
+        Rollup(String sourceType, String targetType, String truncateTo) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.truncateTo = truncateTo;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedissonClient redissonClient;
+    private final int hourlyRetentionDays;
+    private final int dailyRetentionMonths;
+    private final int batchSize;
+
+    public ApiKeyUsageRollupService(JdbcTemplate jdbcTemplate,
+                                    RedissonClient redissonClient,
+                                    @Value("${synaxic.api-key.usage-rollup.hourly-retention-days:7}") int hourlyRetentionDays,
+                                    @Value("${synaxic.api-key.usage-rollup.daily-retention-months:3}") int dailyRetentionMonths,
+                                    @Value("${synaxic.api-key.usage-rollup.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redissonClient = redissonClient;
+        // Today's usage is always queried from hourly rows
+        this.hourlyRetentionDays = Math.max(1, hourlyRetentionDays);
+        this.dailyRetentionMonths = Math.max(1, dailyRetentionMonths);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.api-key.usage-rollup.interval-ms:3600000}",
+            initialDelayString = "${synaxic.api-key.usage-rollup.initial-delay-ms:300000}")
+    public void rollup() {
+        // The lock is held for the whole run; Redisson's watchdog releases it if this node dies
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        if (!lock.tryLock()) {
+            log.debug("API key usage rollup is already running elsewhere");
+            return;
+        }
+        try {
+            Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+            compact(Rollup.DAILY, today.minus(hourlyRetentionDays, ChronoUnit.DAYS));
+            compact(Rollup.MONTHLY, today.atZone(ZoneOffset.UTC).withDayOfMonth(1).minusMonths(dailyRetentionMonths).toInstant());
+        } catch (DataAccessException e) {
+            log.warn("API key usage rollup failed, resuming on the next run: {}", e.getMessage());
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    long compact(Rollup rollup, Instant before) {
+        Timestamp cutoff = Timestamp.from(before);
+        long total = 0;
+        long moved;
+        do {
+            Long count = jdbcTemplate.queryForObject(COMPACT_SQL, Long.class,
+                    rollup.sourceType, cutoff, batchSize, rollup.truncateTo, rollup.targetType);
+            moved = count == null ? 0 : count;
+            total += moved;
+            if (moved > 0) {
+                jdbcTemplate.update(PROGRESS_SQL, rollup.targetType, null, moved);
+            }
+        } while (moved >= batchSize);
+        jdbcTemplate.update(PROGRESS_SQL, rollup.targetType, cutoff, 0L);
+        if (total > 0) {
+            log.info("Compacted {} {} usage rows before {} into {} rows", total, rollup.sourceType, before, rollup.targetType);
+        }
+        return total;
+    }
+}
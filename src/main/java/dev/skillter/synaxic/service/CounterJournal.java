@@ -0,0 +1,312 @@
+package dev.skillter.synaxic.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only, memory-mapped journal of counter deltas shared by every buffered counter that
+ * is periodically flushed to the database. Each delta is written to the journal as well as to
+ * the counter's in-memory state, so a crash or {@code kill -9} loses nothing: the records are
+ * replayed into the counters at startup.
+ * <p>
+ * The file holds two segments. Writers append to the active one; a checkpoint switches
+ * segments, waits for writers still inside the old one, has every {@link Source} write its
+ * state for that segment to the database and then clears it. A crash between a source's
+ * database write and the clear replays that segment once more, so accounting is at least
+ * once, never lossy. Sources keep separate state per segment for the same reason. If a source
+ * throws while flushing, its records stay in the segment and are applied to its state again,
+ * so they are retried on the next flush of that segment.
+ * <p>
+ * The file is locked while open, so each instance needs its own path; if the file is already
+ * locked, or no path is configured, the journal is disabled and only the in-memory state is kept.
+ * Without a journal nothing survives a crash, so checkpoints then run at the shorter
+ * memory-only interval to bound the loss.
+ */
+@Service
+@Slf4j
+public class CounterJournal {
+
+    /**
+     * A buffered counter backed by the journal. Stream IDs identify a source's records in the
+     * file and must be unique, non-zero and stable across releases.
+     */
+    public interface Source {
+
+        int journalStream();
+
+        /**
+         * Adds a delta to the in-memory state of {@code segment}, for live and replayed records.
+         */
+        void apply(int segment, long key1, long key2, long delta);
+
+        /**
+         * Drains the state of {@code segment} to the database. Deltas that cannot be written
+         * must be passed to {@link CounterJournal#record} again so they land in the active
+         * segment. If this throws, the state is assumed drained and the segment's journaled
+         * records are applied to it again.
+         */
+        void flushSegment(int segment);
+    }
+
+    static final int RECORD_BYTES = 32;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path path;
+    private final int segmentBytes;
+    private final long flushMillis;
+    private final long memoryOnlyFlushMillis;
+    private final List<Source> sources = new CopyOnWriteArrayList<>();
+    private final AtomicLong[] positions = {new AtomicLong(), new AtomicLong()};
+    private final AtomicLong[] inFlight = {new AtomicLong(), new AtomicLong()};
+    private volatile int active;
+    private volatile boolean overflowLogged;
+    private volatile long lastCheckpointMillis = System.currentTimeMillis();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public CounterJournal(@Value("${synaxic.counter-journal.path:}") String path,
+                          @Value("${synaxic.counter-journal.segment-records:1048576}") int segmentRecords,
+                          @Value("${synaxic.counter-journal.flush-ms:60000}") long flushMillis,
+                          @Value("${synaxic.counter-journal.memory-only-flush-ms:5000}") long memoryOnlyFlushMillis) {
+        this.path = StringUtils.hasText(path) ? Path.of(path) : null;
+        this.segmentBytes = Math.toIntExact((long) segmentRecords * RECORD_BYTES);
+        this.flushMillis = flushMillis;
+        this.memoryOnlyFlushMillis = memoryOnlyFlushMillis;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (path == null) {
+            log.info("Counter journal disabled; buffered counters are kept in memory only");
+            return;
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // The lock is held until the channel closes; another instance must not replay or append to this file
+            FileLock lock = tryLock(channel);
+            if (lock == null) {
+                log.error("Counter journal {} is locked by another process; buffered counters are kept in memory only", path);
+                closeChannel();
+                return;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * segmentBytes);
+            for (int segment = 0; segment < 2; segment++) {
+                positions[segment].set(scanEnd(segment));
+            }
+            log.info("Counter journal opened at {} with {} pending records",
+                    path, (positions[0].get() + positions[1].get()) / RECORD_BYTES);
+        } catch (IOException e) {
+            log.error("Failed to open counter journal at {}; buffered counters are kept in memory only", path, e);
+            buffer = null;
+            closeChannel();
+        }
+    }
+
+    /**
+     * Registers a source and replays its journaled records into it.
+     */
+    public void register(Source source) {
+        sources.add(source);
+        if (buffer == null) {
+            return;
+        }
+        int stream = source.journalStream();
+        for (int segment = 0; segment < 2; segment++) {
+            int base = segment * segmentBytes;
+            long end = positions[segment].get();
+            for (int offset = 0; offset < end; offset += RECORD_BYTES) {
+                if ((int) INT.getAcquire(buffer, base + offset) == stream) {
+                    source.apply(segment,
+                            (long) LONG.get(buffer, base + offset + 8),
+                            (long) LONG.get(buffer, base + offset + 16),
+                            (long) LONG.get(buffer, base + offset + 24));
+                }
+            }
+        }
+    }
+
+    public void record(Source source, long key1, long key2, long delta) {
+        int segment = enter();
+        try {
+            append(segment, source.journalStream(), key1, key2, delta);
+            source.apply(segment, key1, key2, delta);
+        } finally {
+            inFlight[segment].decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs every memory-only interval and checkpoints when the interval for the current mode has
+     * passed: every run without a journal, once per {@code flush-ms} with one.
+     */
+    @Scheduled(fixedDelayString = "${synaxic.counter-journal.memory-only-flush-ms:5000}")
+    public void checkpointIfDue() {
+        long interval = isJournaled() ? flushMillis : memoryOnlyFlushMillis;
+        if (System.currentTimeMillis() - lastCheckpointMillis >= interval) {
+            checkpoint();
+        }
+    }
+
+    boolean isJournaled() {
+        return buffer != null;
+    }
+
+    public synchronized void checkpoint() {
+        lastCheckpointMillis = System.currentTimeMillis();
+        int old = active;
+        active = 1 - old;
+        while (inFlight[old].get() != 0) {
+            Thread.onSpinWait();
+        }
+        Map<Integer, Source> failed = new HashMap<>();
+        for (Source source : sources) {
+            try {
+                source.flushSegment(old);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush buffered counter stream {}", source.journalStream(), e);
+                failed.put(source.journalStream(), source);
+            }
+        }
+        if (failed.isEmpty()) {
+            clear(old);
+        } else {
+            retain(old, failed);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+        }
+        closeChannel();
+    }
+
+    private int enter() {
+        while (true) {
+            int segment = active;
+            inFlight[segment].incrementAndGet();
+            if (segment == active) {
+                return segment;
+            }
+            inFlight[segment].decrementAndGet();
+        }
+    }
+
+    private void append(int segment, int stream, long key1, long key2, long delta) {
+        if (buffer == null) {
+            return;
+        }
+        long position = positions[segment].getAndAdd(RECORD_BYTES);
+        if (position + RECORD_BYTES > segmentBytes) {
+            if (!overflowLogged) {
+                overflowLogged = true;
+                log.warn("Counter journal segment is full; further deltas are kept in memory only until the next flush");
+            }
+            return;
+        }
+        int offset = segment * segmentBytes + (int) position;
+        LONG.set(buffer, offset + 8, key1);
+        LONG.set(buffer, offset + 16, key2);
+        LONG.set(buffer, offset + 24, delta);
+        // The stream ID is written last so a torn record is skipped on replay
+        INT.setRelease(buffer, offset, stream);
+    }
+
+    private void clear(int segment) {
+        if (buffer != null) {
+            int base = segment * segmentBytes;
+            long end = Math.min(positions[segment].get(), segmentBytes);
+            for (int offset = 0; offset < end; offset += RECORD_BYTES) {
+                INT.set(buffer, base + offset, 0);
+            }
+        }
+        positions[segment].set(0);
+        overflowLogged = false;
+    }
+
+    /**
+     * Keeps only the records of sources whose flush failed and applies them to those sources
+     * again, since they drained their state before failing.
+     */
+    private void retain(int segment, Map<Integer, Source> failed) {
+        if (buffer == null) {
+            log.error("Counter journal is disabled; counts of streams {} that failed to flush are lost", failed.keySet());
+            return;
+        }
+        int base = segment * segmentBytes;
+        long end = Math.min(positions[segment].get(), segmentBytes);
+        for (int offset = 0; offset < end; offset += RECORD_BYTES) {
+            int stream = (int) INT.get(buffer, base + offset);
+            Source source = failed.get(stream);
+            if (source != null) {
+                source.apply(segment,
+                        (long) LONG.get(buffer, base + offset + 8),
+                        (long) LONG.get(buffer, base + offset + 16),
+                        (long) LONG.get(buffer, base + offset + 24));
+            } else if (stream != 0) {
+                INT.set(buffer, base + offset, 0);
+            }
+        }
+        positions[segment].set(end);
+        overflowLogged = false;
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another journal in this JVM
+            return null;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close counter journal {}: {}", path, e.getMessage());
+        }
+        channel = null;
+    }
+
+    private long scanEnd(int segment) {
+        int base = segment * segmentBytes;
+        long end = 0;
+        for (int offset = 0; offset < segmentBytes; offset += RECORD_BYTES) {
+            if ((int) INT.get(buffer, base + offset) != 0) {
+                end = offset + RECORD_BYTES;
+            }
+        }
+        return end;
+    }
+}
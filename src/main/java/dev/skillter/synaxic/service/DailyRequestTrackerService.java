@@ -37,6 +37,19 @@ public class DailyRequestTrackerService {
         return newValue;
     }
 
+    /**
+     * Adds a batch of locally counted requests to today's counter in one round trip.
+     */
+    public long addDailyRequests(long count) {
+        String todayKey = getTodayKey();
+        RAtomicLong counter = redissonClient.getAtomicLong(todayKey);
+        long newValue = counter.addAndGet(count);
+        counter.expireAsync(java.time.Duration.ofDays(7));
+
+        log.debug("Added {} requests to daily counter {} ({} total)", count, todayKey, newValue);
+        return newValue;
+    }
+
     /**
      * Gets the total number of requests for today (UTC date).
      *
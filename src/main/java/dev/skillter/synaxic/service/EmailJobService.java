@@ -0,0 +1,614 @@
+package dev.skillter.synaxic.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.skillter.synaxic.exception.EmailJobException;
+import dev.skillter.synaxic.model.dto.EmailJobStatus;
+import dev.skillter.synaxic.model.dto.EmailValidationResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs bulk email validation as asynchronous jobs.
+ * <p>
+ * The upload is spooled to disk without being buffered in memory, then read line by line
+ * from the last committed byte offset and validated in bounded parallel batches. Each batch
+ * is written as one NDJSON result chunk before its offset is committed to Redis, so a job
+ * interrupted by a restart resumes from the last committed batch and rewrites at most one
+ * chunk. Job directories live under {@code synaxic.email-jobs.storage-dir}, which must be a
+ * shared volume if jobs should resume on a different node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailJobService {
+
+    public enum Format { CSV, NDJSON }
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private static final String JOB_KEY_PREFIX = "synaxic:email-job:";
+    private static final String ACTIVE_JOBS_KEY = "synaxic:email-jobs:active";
+    private static final String OWNER_JOBS_KEY_PREFIX = "synaxic:email-jobs:owner:";
+    // Directories without job state are left alone this long, since uploads spool before the state exists
+    private static final Duration UPLOAD_GRACE = Duration.ofHours(1);
+    private static final String INPUT_FILE = "input";
+    private static final String CHUNK_FILE_FORMAT = "chunk-%06d.ndjson";
+    private static final int MAX_LINE_BYTES = 8 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String F_OWNER = "owner";
+    private static final String F_STATUS = "status";
+    private static final String F_FORMAT = "format";
+    private static final String F_SIZE = "size";
+    private static final String F_OFFSET = "offset";
+    private static final String F_PROCESSED = "processed";
+    private static final String F_CHUNKS = "chunks";
+    private static final String F_CREATED = "createdAt";
+    private static final String F_UPDATED = "updatedAt";
+    private static final String F_COMPLETED = "completedAt";
+    private static final String F_ERROR = "error";
+
+    private final EmailValidationService emailValidationService;
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${synaxic.email-jobs.storage-dir:${java.io.tmpdir}/synaxic-email-jobs}")
+    private String storageDir;
+
+    @Value("${synaxic.email-jobs.max-upload-bytes:1073741824}")
+    private long maxUploadBytes;
+
+    @Value("${synaxic.email-jobs.batch-size:500}")
+    private int batchSize;
+
+    @Value("${synaxic.email-jobs.parallelism:16}")
+    private int parallelism;
+
+    @Value("${synaxic.email-jobs.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${synaxic.email-jobs.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${synaxic.email-jobs.max-active-jobs-per-user:3}")
+    private int maxActiveJobsPerOwner;
+
+    private ExecutorService jobExecutor;
+    private ExecutorService validationExecutor;
+    private ObjectWriter resultWriter;
+
+    @PostConstruct
+    public void init() {
+        jobExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, namedThreads("email-job-"));
+        validationExecutor = Executors.newFixedThreadPool(parallelism, namedThreads("email-job-validate-"));
+        resultWriter = objectMapper.writerFor(EmailValidationResponse.class).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs keep their committed offset and are resumed on the next start
+        jobExecutor.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    /**
+     * Spools the upload to disk and queues the job. Once the upload is spooled, its number of
+     * lines is passed to {@code chargeRecords}, which may throw to reject the job before it is
+     * queued; the spool and the job slot are then released.
+     *
+     * @throws EmailJobException with 413 if the upload exceeds the configured limit, or 429 if
+     *                           the user already has the maximum number of active jobs
+     */
+    public EmailJobStatus submit(long ownerId, Format format, InputStream body, LongConsumer chargeRecords) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path directory = jobDirectory(jobId);
+        Files.createDirectories(directory);
+        try {
+            reserveSlot(ownerId, jobId);
+        } catch (RuntimeException e) {
+            FileSystemUtils.deleteRecursively(directory);
+            throw e;
+        }
+
+        long size = 0;
+        long lines = 0;
+        byte last = '\n';
+        try (OutputStream out = Files.newOutputStream(directory.resolve(INPUT_FILE))) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxUploadBytes) {
+                    throw new EmailJobException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "The uploaded list exceeds the maximum size of " + maxUploadBytes + " bytes.");
+                }
+                out.write(buffer, 0, read);
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                    }
+                }
+                if (read > 0) {
+                    last = buffer[read - 1];
+                }
+            }
+            if (last != '\n') {
+                lines++;
+            }
+            if (size > 0) {
+                chargeRecords.accept(lines);
+            }
+        } catch (IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(directory);
+            ownerJobs(ownerId).remove(jobId);
+            throw e;
+        }
+
+        if (size == 0) {
+            FileSystemUtils.deleteRecursively(directory);
+            ownerJobs(ownerId).remove(jobId);
+            throw new EmailJobException(HttpStatus.BAD_REQUEST, "The uploaded list is empty.");
+        }
+
+        String now = Instant.now().toString();
+        Map<String, String> fields = new HashMap<>();
+        fields.put(F_OWNER, String.valueOf(ownerId));
+        fields.put(F_STATUS, State.QUEUED.name());
+        fields.put(F_FORMAT, format.name());
+        fields.put(F_SIZE, String.valueOf(size));
+        fields.put(F_OFFSET, "0");
+        fields.put(F_PROCESSED, "0");
+        fields.put(F_CHUNKS, "0");
+        fields.put(F_CREATED, now);
+        fields.put(F_UPDATED, now);
+
+        RMap<String, String> state = jobState(jobId);
+        state.putAll(fields);
+        state.expire(Duration.ofHours(retentionHours));
+        activeJobs().add(jobId);
+
+        log.info("Queued email job {} for user {} ({} bytes, {})", jobId, ownerId, size, format);
+        jobExecutor.execute(() -> run(jobId));
+        return toStatus(jobId, fields);
+    }
+
+    public EmailJobStatus getStatus(String jobId, long ownerId) {
+        return toStatus(jobId, ownedState(jobId, ownerId));
+    }
+
+    /**
+     * Returns the result chunks of a completed job, starting at {@code fromChunk} so an
+     * interrupted download can be resumed.
+     *
+     * @throws EmailJobException with 409 if the job has not completed yet
+     */
+    public List<Path> getResultChunks(String jobId, long ownerId, int fromChunk) {
+        Map<String, String> fields = ownedState(jobId, ownerId);
+        if (!State.COMPLETED.name().equals(fields.get(F_STATUS))) {
+            throw new EmailJobException(HttpStatus.CONFLICT, "Job " + jobId + " has not completed yet.");
+        }
+
+        int chunks = Integer.parseInt(fields.get(F_CHUNKS));
+        Path directory = jobDirectory(jobId);
+        List<Path> result = new ArrayList<>();
+        for (int chunk = Math.max(0, fromChunk); chunk < chunks; chunk++) {
+            Path path = directory.resolve(CHUNK_FILE_FORMAT.formatted(chunk));
+            if (Files.exists(path)) {
+                result.add(path);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the job against the user's active jobs before anything is spooled. Entries whose
+     * state expired and whose directory is gone belong to jobs that never finished cleanly.
+     */
+    private void reserveSlot(long ownerId, String jobId) {
+        RSet<String> ownerJobs = ownerJobs(ownerId);
+        for (String reserved : ownerJobs.readAll()) {
+            if (!jobState(reserved).isExists() && !Files.exists(jobDirectory(reserved))) {
+                ownerJobs.remove(reserved);
+            }
+        }
+        ownerJobs.add(jobId);
+        // Adding first and then checking keeps concurrent submits from both passing the limit
+        if (ownerJobs.size() > maxActiveJobsPerOwner) {
+            ownerJobs.remove(jobId);
+            throw new EmailJobException(HttpStatus.TOO_MANY_REQUESTS,
+                    "You already have " + maxActiveJobsPerOwner + " active email jobs. Wait for one to finish before submitting another.");
+        }
+        ownerJobs.expire(Duration.ofHours(retentionHours));
+    }
+
+    /**
+     * Resumes unfinished jobs after a restart and removes job directories whose state expired.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        try {
+            for (String jobId : activeJobs().readAll()) {
+                if (!jobState(jobId).isExists()) {
+                    activeJobs().remove(jobId);
+                } else if (Files.exists(jobDirectory(jobId).resolve(INPUT_FILE))) {
+                    log.info("Resuming email job {}", jobId);
+                    jobExecutor.execute(() -> run(jobId));
+                }
+            }
+            purgeExpiredJobDirectories();
+        } catch (Exception e) {
+            log.warn("Could not resume email jobs: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${synaxic.email-jobs.purge-interval-ms:3600000}",
+            initialDelayString = "${synaxic.email-jobs.purge-interval-ms:3600000}")
+    public void purgeExpiredJobs() {
+        try {
+            purgeExpiredJobDirectories();
+        } catch (Exception e) {
+            log.warn("Could not purge expired email job directories: {}", e.getMessage());
+        }
+    }
+
+    private void purgeExpiredJobDirectories() throws IOException {
+        Path root = Paths.get(storageDir);
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        FileTime graceCutoff = FileTime.from(Instant.now().minus(UPLOAD_GRACE));
+        try (Stream<Path> directories = Files.list(root)) {
+            for (Path directory : directories.toList()) {
+                if (!jobState(directory.getFileName().toString()).isExists()
+                        && lastModified(directory).compareTo(graceCutoff) < 0) {
+                    FileSystemUtils.deleteRecursively(directory);
+                }
+            }
+        }
+    }
+
+    private static FileTime lastModified(Path directory) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(directory);
+        Path input = directory.resolve(INPUT_FILE);
+        if (Files.exists(input)) {
+            FileTime inputModified = Files.getLastModifiedTime(input);
+            if (inputModified.compareTo(modified) > 0) {
+                return inputModified;
+            }
+        }
+        return modified;
+    }
+
+    private void run(String jobId) {
+        // The lock is held for the whole run; Redisson's watchdog releases it if this node dies
+        RLock lock = redissonClient.getLock(JOB_KEY_PREFIX + jobId + ":lock");
+        if (!lock.tryLock()) {
+            log.debug("Email job {} is already running elsewhere", jobId);
+            return;
+        }
+        try {
+            process(jobId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Email job {} interrupted, it will resume from its last committed offset", jobId);
+        } catch (Exception e) {
+            log.error("Email job {} failed", jobId, e);
+            finish(jobId, State.FAILED, "Processing failed: " + e.getClass().getSimpleName());
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void process(String jobId) throws IOException, InterruptedException {
+        RMap<String, String> state = jobState(jobId);
+        Map<String, String> fields = state.readAllMap();
+        String status = fields.get(F_STATUS);
+        if (status == null || State.COMPLETED.name().equals(status) || State.FAILED.name().equals(status)) {
+            activeJobs().remove(jobId);
+            if (fields.get(F_OWNER) != null) {
+                ownerJobs(Long.parseLong(fields.get(F_OWNER))).remove(jobId);
+            }
+            return;
+        }
+
+        Format format = Format.valueOf(fields.get(F_FORMAT));
+        long offset = Long.parseLong(fields.get(F_OFFSET));
+        long processed = Long.parseLong(fields.get(F_PROCESSED));
+        int chunk = Integer.parseInt(fields.get(F_CHUNKS));
+        Path directory = jobDirectory(jobId);
+
+        state.fastPut(F_STATUS, State.RUNNING.name());
+
+        try (FileChannel channel = FileChannel.open(directory.resolve(INPUT_FILE), StandardOpenOption.READ)) {
+            channel.position(offset);
+            OffsetLineReader reader = new OffsetLineReader(Channels.newInputStream(channel), offset);
+
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+
+                List<String> emails = new ArrayList<>(batchSize);
+                int lines = 0;
+                String line;
+                while (lines < batchSize && (line = reader.readLine()) != null) {
+                    lines++;
+                    String email = parseLine(line, format);
+                    if (email != null) {
+                        emails.add(email);
+                    }
+                }
+                if (lines == 0) {
+                    break;
+                }
+
+                if (!emails.isEmpty()) {
+                    writeChunk(directory, chunk++, validate(emails));
+                    processed += emails.size();
+                }
+
+                state.putAll(Map.of(
+                        F_OFFSET, String.valueOf(reader.offset()),
+                        F_PROCESSED, String.valueOf(processed),
+                        F_CHUNKS, String.valueOf(chunk),
+                        F_UPDATED, Instant.now().toString()));
+            }
+        }
+
+        finish(jobId, State.COMPLETED, null);
+        Files.deleteIfExists(directory.resolve(INPUT_FILE));
+        log.info("Email job {} completed: {} addresses in {} chunks", jobId, processed, chunk);
+    }
+
+    private List<EmailValidationResponse> validate(List<String> emails) throws InterruptedException {
+        int sliceSize = Math.max(1, (emails.size() + parallelism - 1) / parallelism);
+        List<CompletableFuture<List<EmailValidationResponse>>> slices = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += sliceSize) {
+            List<String> slice = emails.subList(from, Math.min(emails.size(), from + sliceSize));
+            slices.add(CompletableFuture.supplyAsync(
+                    () -> slice.stream().map(emailValidationService::validateEmail).toList(), validationExecutor));
+        }
+
+        List<EmailValidationResponse> results = new ArrayList<>(emails.size());
+        for (CompletableFuture<List<EmailValidationResponse>> slice : slices) {
+            try {
+                results.addAll(slice.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Validation batch failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private void writeChunk(Path directory, int chunk, List<EmailValidationResponse> results) throws IOException {
+        Path target = directory.resolve(CHUNK_FILE_FORMAT.formatted(chunk));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (EmailValidationResponse result : results) {
+                writer.write(resultWriter.writeValueAsString(result));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void finish(String jobId, State state, String error) {
+        RMap<String, String> jobState = jobState(jobId);
+        Map<String, String> fields = new HashMap<>();
+        fields.put(F_STATUS, state.name());
+        fields.put(F_COMPLETED, Instant.now().toString());
+        fields.put(F_UPDATED, Instant.now().toString());
+        if (error != null) {
+            fields.put(F_ERROR, error);
+        }
+        jobState.putAll(fields);
+        jobState.expire(Duration.ofHours(retentionHours));
+        activeJobs().remove(jobId);
+        String owner = jobState.get(F_OWNER);
+        if (owner != null) {
+            ownerJobs(Long.parseLong(owner)).remove(jobId);
+        }
+    }
+
+    /**
+     * Extracts the address from one input line. Returns null for blank lines and headers.
+     */
+    String parseLine(String line, Format format) {
+        String value = line.strip();
+        if (value.isEmpty()) {
+            return null;
+        }
+
+        if (format == Format.NDJSON) {
+            if (value.startsWith("{") || value.startsWith("\"")) {
+                try {
+                    JsonNode node = objectMapper.readTree(value);
+                    value = node.isTextual() ? node.asText() : node.path("email").asText("");
+                } catch (IOException e) {
+                    return value;
+                }
+            }
+        } else {
+            value = firstCsvColumn(value);
+        }
+
+        value = value.strip();
+        if (value.isEmpty() || value.equalsIgnoreCase("email")) {
+            return null;
+        }
+        return value;
+    }
+
+    private static String firstCsvColumn(String line) {
+        if (line.startsWith("\"")) {
+            StringBuilder value = new StringBuilder();
+            for (int i = 1; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                } else {
+                    value.append(c);
+                }
+            }
+            return value.toString();
+        }
+        int comma = line.indexOf(',');
+        return comma >= 0 ? line.substring(0, comma) : line;
+    }
+
+    private Map<String, String> ownedState(String jobId, long ownerId) {
+        Map<String, String> fields = isJobId(jobId) ? jobState(jobId).readAllMap() : Map.of();
+        if (fields.isEmpty() || !String.valueOf(ownerId).equals(fields.get(F_OWNER))) {
+            throw new EmailJobException(HttpStatus.NOT_FOUND, "Job " + jobId + " was not found.");
+        }
+        return fields;
+    }
+
+    private EmailJobStatus toStatus(String jobId, Map<String, String> fields) {
+        long size = Long.parseLong(fields.getOrDefault(F_SIZE, "0"));
+        long offset = Long.parseLong(fields.getOrDefault(F_OFFSET, "0"));
+        return EmailJobStatus.builder()
+                .jobId(jobId)
+                .status(fields.get(F_STATUS))
+                .format(fields.get(F_FORMAT))
+                .uploadedBytes(size)
+                .committedOffset(offset)
+                .processedRecords(Long.parseLong(fields.getOrDefault(F_PROCESSED, "0")))
+                .chunks(Integer.parseInt(fields.getOrDefault(F_CHUNKS, "0")))
+                .progressPercent(size > 0 ? Math.round(offset * 1000.0 / size) / 10.0 : 0)
+                .createdAt(parseInstant(fields.get(F_CREATED)))
+                .updatedAt(parseInstant(fields.get(F_UPDATED)))
+                .completedAt(parseInstant(fields.get(F_COMPLETED)))
+                .error(fields.get(F_ERROR))
+                .build();
+    }
+
+    private static Instant parseInstant(String value) {
+        return value != null ? Instant.parse(value) : null;
+    }
+
+    private static boolean isJobId(String jobId) {
+        try {
+            return UUID.fromString(jobId).toString().equals(jobId.toLowerCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private RMap<String, String> jobState(String jobId) {
+        return redissonClient.getMap(JOB_KEY_PREFIX + jobId);
+    }
+
+    private RSet<String> activeJobs() {
+        return redissonClient.getSet(ACTIVE_JOBS_KEY);
+    }
+
+    private RSet<String> ownerJobs(long ownerId) {
+        return redissonClient.getSet(OWNER_JOBS_KEY_PREFIX + ownerId);
+    }
+
+    private Path jobDirectory(String jobId) {
+        return Paths.get(storageDir, jobId);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Reads UTF-8 lines while tracking the byte offset of the next unread line. Lines longer
+     * than {@link #MAX_LINE_BYTES} are truncated.
+     */
+    static final class OffsetLineReader {
+
+        private final InputStream in;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        private long offset;
+
+        OffsetLineReader(InputStream in, long offset) {
+            this.in = new BufferedInputStream(in, COPY_BUFFER_SIZE);
+            this.offset = offset;
+        }
+
+        String readLine() throws IOException {
+            line.reset();
+            int b;
+            boolean read = false;
+            while ((b = in.read()) != -1) {
+                read = true;
+                offset++;
+                if (b == '\n') {
+                    break;
+                }
+                if (b != '\r' && line.size() < MAX_LINE_BYTES) {
+                    line.write(b);
+                }
+            }
+            return read ? line.toString(StandardCharsets.UTF_8) : null;
+        }
+
+        long offset() {
+            return offset;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package dev.skillter.synaxic.service;
 
 import com.google.common.net.InternetDomainName;
 import dev.skillter.synaxic.model.dto.EmailValidationResponse;
+import dev.skillter.synaxic.util.SymSpellIndex;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,8 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 @Service
@@ -26,18 +29,45 @@ public class EmailValidationService {
 
     private final DnsService dnsService;
     private final ResourceLoader resourceLoader;
+    private static final String DISPOSABLE_DOMAINS_LOCATION = "classpath:disposable-domains.txt";
+    private static final String POPULAR_DOMAINS_LOCATION = "classpath:popular-email-domains.txt";
+
+    // Domains shorter than this only get single-edit suggestions to avoid far-fetched matches
+    private static final int SECOND_EDIT_MIN_DOMAIN_LENGTH = 10;
+    private static final int MAX_SUGGESTION_DISTANCE = 2;
+    // Short labels like me.com or qq.com are one edit away from too many real domains (ge.com, aon.com)
+    private static final int MIN_SUGGESTION_LABEL_LENGTH = 4;
+
     private final Set<String> disposableDomains = new HashSet<>();
+    private volatile SymSpellIndex popularDomains = SymSpellIndex.empty();
 
     @PostConstruct
     public void init() {
         log.info("Loading disposable domains list...");
-        Resource resource = resourceLoader.getResource("classpath:disposable-domains.txt");
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+        try (BufferedReader reader = openResource(DISPOSABLE_DOMAINS_LOCATION)) {
             reader.lines().forEach(disposableDomains::add);
             log.info("Successfully loaded {} disposable domains.", disposableDomains.size());
         } catch (IOException e) {
             log.error("Failed to load disposable domains list", e);
         }
+
+        try (BufferedReader reader = openResource(POPULAR_DOMAINS_LOCATION)) {
+            List<String> domains = reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(line -> line.toLowerCase(Locale.ROOT))
+                    .filter(EmailValidationService::hasSuggestableLabel)
+                    .toList();
+            popularDomains = SymSpellIndex.build(domains, MAX_SUGGESTION_DISTANCE);
+            log.info("Built typo suggestion index for {} popular domains.", popularDomains.size());
+        } catch (IOException e) {
+            log.error("Failed to load popular domains list, typo suggestions are disabled", e);
+        }
+    }
+
+    private BufferedReader openResource(String location) throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        return new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8));
     }
 
     public EmailValidationResponse validateEmail(String email) {
@@ -67,6 +97,7 @@ public class EmailValidationService {
         }
 
         boolean isDisposable = isDisposable(domain);
+        String suggestion = isDisposable ? null : suggestCorrection(email, domain);
         boolean hasMxRecords = dnsService.hasMxRecords(domain);
 
         return EmailValidationResponse.builder()
@@ -75,9 +106,30 @@ public class EmailValidationService {
                 .isValidSyntax(true)
                 .isDisposable(isDisposable)
                 .hasMxRecords(hasMxRecords)
+                .suggestion(suggestion)
                 .build();
     }
 
+    /**
+     * Suggests the same address at a popular domain if the given domain looks like a typo of it.
+     * @return The corrected email address, or null if the domain is not a likely typo
+     */
+    private String suggestCorrection(String email, String domain) {
+        String normalized = domain.toLowerCase(Locale.ROOT);
+        if (!hasSuggestableLabel(normalized)) {
+            return null;
+        }
+        int maxDistance = normalized.length() >= SECOND_EDIT_MIN_DOMAIN_LENGTH ? MAX_SUGGESTION_DISTANCE : 1;
+        return popularDomains.closest(normalized, maxDistance)
+                .map(corrected -> email.substring(0, email.length() - domain.length()) + corrected)
+                .orElse(null);
+    }
+
+    private static boolean hasSuggestableLabel(String domain) {
+        int dot = domain.indexOf('.');
+        return (dot < 0 ? domain.length() : dot) >= MIN_SUGGESTION_LABEL_LENGTH;
+    }
+
     private boolean isDisposable(String domain) {
         if (!InternetDomainName.isValid(domain)) {
             return false;
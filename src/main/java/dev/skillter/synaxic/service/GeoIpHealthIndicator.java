@@ -0,0 +1,37 @@
+package dev.skillter.synaxic.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Reports which GeoIP database is loaded and how old it is. A missing database is reported
+ * as UNKNOWN rather than DOWN, because geolocation is optional.
+ */
+@Component
+@RequiredArgsConstructor
+public class GeoIpHealthIndicator implements HealthIndicator {
+
+    private final GeoIpService geoIpService;
+
+    @Override
+    public Health health() {
+        return geoIpService.getDatabaseInfo()
+                .map(info -> {
+                    Health.Builder builder = Health.up()
+                            .withDetail("databaseType", String.valueOf(info.databaseType()))
+                            .withDetail("source", info.source())
+                            .withDetail("loadedAt", info.loadedAt().toString());
+                    if (info.buildDate() != null) {
+                        builder.withDetail("buildDate", info.buildDate().toString())
+                                .withDetail("ageDays", Duration.between(info.buildDate(), Instant.now()).toDays());
+                    }
+                    return builder.build();
+                })
+                .orElseGet(() -> Health.unknown().withDetail("reason", "GeoIP database not loaded").build());
+    }
+}
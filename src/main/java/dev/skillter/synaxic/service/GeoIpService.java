@@ -1,86 +1,420 @@
 package dev.skillter.synaxic.service;
 
+import com.maxmind.db.CHMCache;
+import com.maxmind.db.Metadata;
+import com.maxmind.db.Reader;
 import com.maxmind.geoip2.DatabaseReader;
-import com.maxmind.geoip2.exception.AddressNotFoundException;
-import com.maxmind.geoip2.model.CountryResponse;
+import com.maxmind.geoip2.exception.GeoIp2Exception;
+import com.maxmind.geoip2.model.CityResponse;
 import dev.skillter.synaxic.config.CacheConfig;
+import dev.skillter.synaxic.model.dto.GeoLocationResponse;
+import dev.skillter.synaxic.util.ClientAddress;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 @Service
 @Slf4j
 public class GeoIpService {
 
+    private static final String[] LOCATIONS = {
+            "file:/app/geodb/GeoLite2-City.mmdb",
+            "classpath:GeoLite2-City.mmdb",
+            "file:./GeoLite2-City.mmdb"
+    };
+    private static final String PROBE_ADDRESS = "8.8.8.8";
+    private static final String METRIC_BUILD_TIMESTAMP = "synaxic.geoip.database.build.timestamp";
+    // Below this size the fork/join overhead outweighs the cost of the lookups themselves
+    private static final int PARALLEL_BATCH_THRESHOLD = 256;
+
     private final ResourceLoader resourceLoader;
-    private DatabaseReader databaseReader;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
+    private final AtomicReference<GeoDatabase> database = new AtomicReference<>();
 
-    public GeoIpService(ResourceLoader resourceLoader) {
+    // Last seen state of a changed file; it is only loaded once it stops changing between polls
+    private volatile FileState pendingFileState;
+
+    public GeoIpService(ResourceLoader resourceLoader, MeterRegistry meterRegistry, CacheManager cacheManager) {
         this.resourceLoader = resourceLoader;
+        this.meterRegistry = meterRegistry;
+        this.cacheManager = cacheManager;
     }
 
     @PostConstruct
     public void init() {
-        String[] locations = {
-            "file:/app/geodb/GeoLite2-City.mmdb",
-            "classpath:GeoLite2-City.mmdb",
-            "file:./GeoLite2-City.mmdb"
-        };
+        Gauge.builder(METRIC_BUILD_TIMESTAMP, database, ref -> {
+                    GeoDatabase current = ref.get();
+                    return current != null && current.buildDate() != null ? current.buildDate().getEpochSecond() : Double.NaN;
+                })
+                .description("Build time of the loaded GeoIP database in seconds since the epoch")
+                .register(meterRegistry);
 
-        for (String location : locations) {
+        for (String location : LOCATIONS) {
             try {
                 Resource resource = resourceLoader.getResource(location);
                 if (resource.exists()) {
-                    try (InputStream dbStream = resource.getInputStream()) {
-                        databaseReader = new DatabaseReader.Builder(dbStream).build();
-                        log.info("GeoIP database loaded successfully from {}", location);
-                        return;
-                    }
+                    activate(open(resource, location, fileState(resource)));
+                    log.info("GeoIP database memory-mapped successfully from {}", location);
+                    return;
                 }
             } catch (Exception e) {
                 log.debug("Failed to load GeoIP from {}: {}", location, e.getMessage());
             }
         }
-        
+
         log.warn("GeoLite2-City.mmdb database not found. Geolocation features will be disabled.");
     }
 
-    @Cacheable(value = CacheConfig.CACHE_GEO_IP, key = "#ipAddress", unless = "#result == null || !#result.isPresent()")
+    @PreDestroy
+    public void shutdown() {
+        GeoDatabase current = database.getAndSet(null);
+        if (current != null) {
+            retire(current);
+        }
+    }
+
+    /**
+     * Polls the file locations and swaps in a changed database. The new file is opened and
+     * validated in the background; lookups keep using the old reader until the swap, and the
+     * old reader is closed once its in-flight lookups have finished.
+     */
+    @Scheduled(fixedDelayString = "${synaxic.geoip.reload-interval-ms:60000}",
+            initialDelayString = "${synaxic.geoip.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        for (String location : LOCATIONS) {
+            if (!location.startsWith("file:")) {
+                continue;
+            }
+            Resource resource = resourceLoader.getResource(location);
+            FileState state = fileState(resource);
+            if (state == null) {
+                continue;
+            }
+
+            GeoDatabase current = database.get();
+            if (current != null && state.equals(current.fileState())) {
+                return;
+            }
+            if (!state.equals(pendingFileState)) {
+                pendingFileState = state;
+                log.debug("GeoIP database at {} changed, waiting for it to settle", location);
+                return;
+            }
+
+            try {
+                activate(open(resource, location, state));
+                pendingFileState = null;
+                log.info("GeoIP database reloaded from {}", location);
+            } catch (Exception e) {
+                log.warn("Ignoring invalid GeoIP database at {}: {}", location, e.getMessage());
+            }
+            return;
+        }
+    }
+
+    /**
+     * Parses the address and looks it up under the same cache entry as
+     * {@link #getCountry(ClientAddress)}. A call from inside this bean would bypass the cache
+     * proxy, so the entry is read and written through the cache manager instead.
+     */
     public Optional<String> getCountry(String ipAddress) {
-        if (databaseReader == null || ipAddress == null) {
+        ClientAddress address = ClientAddress.parse(ipAddress);
+        if (address == null) {
+            log.debug("Not an IP address literal: {}", ipAddress);
+            return Optional.empty();
+        }
+        Cache cache = cacheManager != null ? cacheManager.getCache(CacheConfig.CACHE_GEO_IP) : null;
+        if (cache == null) {
+            return getCountry(address);
+        }
+        String cached = cache.get(address, String.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<String> country = getCountry(address);
+        country.ifPresent(code -> cache.put(address, code));
+        return country;
+    }
+
+    /**
+     * Looks up the country of an already parsed address. The geoIp cache is local-only, so
+     * the address itself is used as the key without a round trip through its text form.
+     */
+    // Spring unwraps the Optional before evaluating "unless", so empty results arrive as null
+    @Cacheable(value = CacheConfig.CACHE_GEO_IP, key = "#address", unless = "#result == null")
+    public Optional<String> getCountry(ClientAddress address) {
+        if (address == null) {
             return Optional.empty();
         }
+        return lookupCountry(address);
+    }
 
-        if (isPrivateIp(ipAddress)) {
+    private Optional<String> lookupCountry(ClientAddress address) {
+        if (address.isPrivateOrReserved()) {
             return Optional.empty();
         }
 
         try {
-            InetAddress ip = InetAddress.getByName(ipAddress);
-            CountryResponse response = databaseReader.country(ip);
-            return Optional.ofNullable(response.getCountry().getIsoCode());
-        } catch (AddressNotFoundException e) {
-            return Optional.empty();
+            InetAddress ip = address.toInetAddress();
+            return lookup(reader -> reader.tryCountry(ip)
+                    .map(response -> response.getCountry().getIsoCode()));
         } catch (Exception e) {
-            log.warn("Error during GeoIP lookup for address {}: {}", ipAddress, e.getMessage());
+            log.warn("Error during GeoIP lookup for address {}: {}", address, e.getMessage());
             return Optional.empty();
         }
     }
 
-    private boolean isPrivateIp(String ip) {
-        return ip.startsWith("127.") || 
-               ip.startsWith("10.") || 
-               ip.startsWith("192.168.") || 
-               ip.startsWith("172.16.") ||
-               ip.equals("::1") ||
-               ip.equals("0:0:0:0:0:0:0:1");
+    /**
+     * Looks up the city-level location of an address. Invalid and unknown addresses yield a
+     * response with {@code found=false} instead of an exception, so batches never fail as a whole.
+     */
+    public GeoLocationResponse getLocation(String ipAddress) {
+        ClientAddress address = ClientAddress.parse(ipAddress);
+        if (address == null) {
+            return GeoLocationResponse.builder().ip(ipAddress).found(false).error("Not a valid IP address").build();
+        }
+        InetAddress ip = address.toInetAddress();
+
+        try {
+            return lookup(reader -> reader.tryCity(ip).map(city -> toLocation(ipAddress, city)))
+                    .orElseGet(() -> GeoLocationResponse.builder().ip(ipAddress).found(false).build());
+        } catch (Exception e) {
+            log.warn("Error during GeoIP city lookup for address {}: {}", ipAddress, e.getMessage());
+            return GeoLocationResponse.builder().ip(ipAddress).found(false).error("Lookup failed").build();
+        }
+    }
+
+    /**
+     * Looks up many addresses against the memory-mapped reader, in parallel for large batches.
+     * Results are returned in the order of the input.
+     */
+    public List<GeoLocationResponse> getLocations(List<String> ipAddresses) {
+        return (ipAddresses.size() >= PARALLEL_BATCH_THRESHOLD ? ipAddresses.parallelStream() : ipAddresses.stream())
+                .map(this::getLocation)
+                .toList();
     }
-}
 
+    private static GeoLocationResponse toLocation(String ipAddress, CityResponse city) {
+        return GeoLocationResponse.builder()
+                .ip(ipAddress)
+                .found(true)
+                .countryCode(city.getCountry().getIsoCode())
+                .country(city.getCountry().getName())
+                .regionCode(city.getMostSpecificSubdivision().getIsoCode())
+                .region(city.getMostSpecificSubdivision().getName())
+                .city(city.getCity().getName())
+                .postalCode(city.getPostal().getCode())
+                .latitude(city.getLocation().getLatitude())
+                .longitude(city.getLocation().getLongitude())
+                .accuracyRadiusKm(city.getLocation().getAccuracyRadius())
+                .timeZone(city.getLocation().getTimeZone())
+                .build();
+    }
+
+    public Optional<DatabaseInfo> getDatabaseInfo() {
+        return Optional.ofNullable(database.get())
+                .map(current -> new DatabaseInfo(current.source(), current.databaseType(), current.buildDate(), current.loadedAt()));
+    }
+
+    /**
+     * Runs a lookup against the current reader while holding its read lock, so the reader
+     * cannot be closed underneath it. A lookup that races with a swap retries on the new reader.
+     */
+    private <T> Optional<T> lookup(Lookup<T> lookup) throws IOException, GeoIp2Exception {
+        while (true) {
+            GeoDatabase current = database.get();
+            if (current == null) {
+                return Optional.empty();
+            }
+            Lock lock = current.lock().readLock();
+            lock.lock();
+            try {
+                if (!current.isClosed()) {
+                    return lookup.apply(current.reader());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    void activate(DatabaseReader reader, String source) {
+        activate(new GeoDatabase(reader, null, source, null));
+    }
+
+    private void activate(GeoDatabase next) {
+        GeoDatabase previous = database.getAndSet(next);
+        if (previous != null) {
+            retire(previous);
+            Cache cache = cacheManager != null ? cacheManager.getCache(CacheConfig.CACHE_GEO_IP) : null;
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void retire(GeoDatabase retired) {
+        Lock lock = retired.lock().writeLock();
+        lock.lock();
+        try {
+            retired.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens a private snapshot of the database. Memory mapping needs a real file, and mapping a
+     * copy keeps lookups safe if the original is later overwritten in place.
+     */
+    private GeoDatabase open(Resource resource, String source, FileState state) throws IOException, GeoIp2Exception {
+        Path snapshot = Files.createTempFile("GeoLite2-City", ".mmdb");
+        snapshot.toFile().deleteOnExit();
+        DatabaseReader reader = null;
+        try {
+            try (InputStream dbStream = resource.getInputStream()) {
+                Files.copy(dbStream, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+            reader = new DatabaseReader.Builder(snapshot.toFile())
+                    .fileMode(Reader.FileMode.MEMORY_MAPPED)
+                    .withCache(new CHMCache())
+                    .build();
+            validate(reader);
+            return new GeoDatabase(reader, snapshot, source, state);
+        } catch (IOException | GeoIp2Exception | RuntimeException e) {
+            if (reader != null) {
+                reader.close();
+            }
+            Files.deleteIfExists(snapshot);
+            throw e;
+        }
+    }
+
+    private static void validate(DatabaseReader reader) throws IOException, GeoIp2Exception {
+        String databaseType = reader.getMetadata().getDatabaseType();
+        if (databaseType == null || !(databaseType.contains("City") || databaseType.contains("Country"))) {
+            throw new IOException("Unexpected database type: " + databaseType);
+        }
+        reader.tryCountry(ClientAddress.parse(PROBE_ADDRESS).toInetAddress());
+    }
+
+    private static FileState fileState(Resource resource) {
+        try {
+            if (!resource.isFile()) {
+                return null;
+            }
+            Path path = resource.getFile().toPath();
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            return new FileState(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public record DatabaseInfo(String source, String databaseType, Instant buildDate, Instant loadedAt) {
+    }
+
+    private record FileState(long lastModified, long size) {
+    }
+
+    @FunctionalInterface
+    private interface Lookup<T> {
+        Optional<T> apply(DatabaseReader reader) throws IOException, GeoIp2Exception;
+    }
+
+    /**
+     * A loaded reader with the lock that keeps it open while lookups are running.
+     */
+    private static final class GeoDatabase {
+
+        private final DatabaseReader reader;
+        private final Path snapshot;
+        private final String source;
+        private final FileState fileState;
+        private final String databaseType;
+        private final Instant buildDate;
+        private final Instant loadedAt = Instant.now();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private boolean closed;
+
+        private GeoDatabase(DatabaseReader reader, Path snapshot, String source, FileState fileState) {
+            this.reader = reader;
+            this.snapshot = snapshot;
+            this.source = source;
+            this.fileState = fileState;
+            Metadata metadata = reader.getMetadata();
+            this.databaseType = metadata != null ? metadata.getDatabaseType() : null;
+            this.buildDate = metadata != null && metadata.getBuildDate() != null ? metadata.getBuildDate().toInstant() : null;
+        }
+
+        DatabaseReader reader() {
+            return reader;
+        }
+
+        String source() {
+            return source;
+        }
+
+        FileState fileState() {
+            return fileState;
+        }
+
+        String databaseType() {
+            return databaseType;
+        }
+
+        Instant buildDate() {
+            return buildDate;
+        }
+
+        Instant loadedAt() {
+            return loadedAt;
+        }
+
+        ReentrantReadWriteLock lock() {
+            return lock;
+        }
+
+        // Guarded by the write lock; readers check it under the read lock
+        boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            closed = true;
+            try {
+                reader.close();
+                if (snapshot != null) {
+                    Files.deleteIfExists(snapshot);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to close retired GeoIP database {}: {}", source, e.getMessage());
+            }
+        }
+    }
+}
@@ -3,19 +3,30 @@ package dev.skillter.synaxic.service;
 import dev.skillter.synaxic.model.dto.EchoResponse;
 import dev.skillter.synaxic.model.dto.IpResponse;
 import dev.skillter.synaxic.model.dto.WhoAmIResponse;
+import dev.skillter.synaxic.util.BufferPool;
+import dev.skillter.synaxic.util.ClientAddress;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import dev.skillter.synaxic.util.HashAlgorithm;
 import dev.skillter.synaxic.util.HeaderRedactor;
-import dev.skillter.synaxic.util.IpExtractor;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collections;
-import java.util.HexFormat;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 @RequiredArgsConstructor
@@ -23,28 +34,44 @@ import java.util.TreeMap;
 public class IpInspectorService {
 
     private final HeaderRedactor headerRedactor;
-    private final IpExtractor ipExtractor;
+    private final ClientContextResolver clientContextResolver;
+
+    // 64 KiB reads keep syscalls few while bounding memory at pool size * buffer size
+    private final BufferPool echoBuffers = new BufferPool(64 * 1024, 64);
+
+    @Value("${synaxic.echo.max-body-bytes:10485760}")
+    private long maxEchoBytes;
+
+    @Value("${synaxic.echo.parallel-hash-threshold-bytes:1048576}")
+    private long parallelHashThresholdBytes;
 
     public IpResponse getIpInfo(HttpServletRequest request) {
-        String clientIp = ipExtractor.extractClientIp(request);
-        String ipVersion = determineIpVersion(clientIp);
+        ClientAddress clientAddress = clientContextResolver.resolve(request).address();
 
         return IpResponse.builder()
-                .ip(clientIp)
-                .ipVersion(ipVersion)
+                .ip(clientAddress.toString())
+                .ipVersion(clientAddress.version())
                 .build();
     }
 
+    /**
+     * Whether the client asked for the bare address, i.e. {@code text/plain} is the first type
+     * in its {@code Accept} header. Anything else, including no header, gets JSON.
+     */
+    public static boolean prefersPlainText(String accept) {
+        return accept != null && accept.regionMatches(true, 0, MediaType.TEXT_PLAIN_VALUE, 0, MediaType.TEXT_PLAIN_VALUE.length());
+    }
+
     public WhoAmIResponse getRequestDetails(HttpServletRequest request) {
-        String clientIp = ipExtractor.extractClientIp(request);
+        ClientAddress clientAddress = clientContextResolver.resolve(request).address();
         Map<String, String> headers = extractHeaders(request);
         String userAgent = request.getHeader("User-Agent");
         String method = request.getMethod();
         String protocol = request.getProtocol();
 
         return WhoAmIResponse.builder()
-                .ip(clientIp)
-                .ipVersion(determineIpVersion(clientIp))
+                .ip(clientAddress.toString())
+                .ipVersion(clientAddress.version())
                 .headers(headerRedactor.redactSensitiveHeaders(headers))
                 .userAgent(userAgent)
                 .method(method)
@@ -52,31 +79,109 @@ public class IpInspectorService {
                 .build();
     }
 
-    public EchoResponse processEcho(byte[] body, String contentType) {
-        if (body == null || body.length == 0) {
-            return EchoResponse.builder()
-                    .size(0)
-                    .sha256(calculateSha256(new byte[0]))
-                    .contentType(contentType)
-                    .isEmpty(true)
-                    .build();
+    public EchoResponse processEcho(InputStream body, long contentLength, String contentType) throws IOException {
+        return processEcho(body, contentLength, contentType, null);
+    }
+
+    /**
+     * Hashes a request body while reading it through pooled fixed-size buffers, so memory use
+     * per request is constant regardless of the upload size. Every requested algorithm is fed
+     * the same chunks in a single pass; for large bodies the digests of a chunk run in parallel
+     * while the next chunk is read.
+     *
+     * @param contentLength the declared body length, or -1 if unknown; used to reject
+     *                      oversized uploads before reading anything
+     * @param algorithms    the digests to compute, or null for the default SHA-256 only
+     * @throws MaxUploadSizeExceededException if the body exceeds the configured limit
+     */
+    public EchoResponse processEcho(InputStream body, long contentLength, String contentType,
+                                    Set<HashAlgorithm> algorithms) throws IOException {
+        if (contentLength > maxEchoBytes) {
+            throw new MaxUploadSizeExceededException(maxEchoBytes);
         }
 
-        String sha256 = calculateSha256(body);
+        Set<HashAlgorithm> selected = algorithms == null || algorithms.isEmpty() ? EnumSet.of(HashAlgorithm.SHA256) : algorithms;
+        List<HashAlgorithm.Hasher> hashers = selected.stream().map(HashAlgorithm::newHasher).toList();
+
+        long size = 0;
+        if (body != null) {
+            boolean parallel = hashers.size() > 1 && contentLength >= parallelHashThresholdBytes;
+            size = parallel ? hashParallel(body, hashers) : hashSequential(body, hashers);
+        }
+
+        Map<String, String> digests = new LinkedHashMap<>();
+        for (HashAlgorithm.Hasher hasher : hashers) {
+            digests.put(hasher.algorithm().id(), hasher.hexDigest());
+        }
 
         return EchoResponse.builder()
-                .size(body.length)
-                .sha256(sha256)
-                .contentType(contentType != null ? contentType : "application/octet-stream")
-                .isEmpty(false)
+                .size(size)
+                .sha256(digests.get(HashAlgorithm.SHA256.id()))
+                .hashes(algorithms == null ? null : digests)
+                .contentType(size == 0 || contentType != null ? contentType : "application/octet-stream")
+                .isEmpty(size == 0)
                 .build();
     }
 
-    private String determineIpVersion(String ip) {
-        if (ip == null) {
-            return "unknown";
+    private long hashSequential(InputStream body, List<HashAlgorithm.Hasher> hashers) throws IOException {
+        byte[] buffer = echoBuffers.acquire();
+        try {
+            long size = 0;
+            int read;
+            while ((read = body.readNBytes(buffer, 0, buffer.length)) > 0) {
+                size = checkEchoSize(size + read);
+                for (int i = 0; i < hashers.size(); i++) {
+                    hashers.get(i).update(buffer, 0, read);
+                }
+            }
+            return size;
+        } finally {
+            echoBuffers.release(buffer);
         }
-        return ip.contains(":") ? "IPv6" : "IPv4";
+    }
+
+    private long hashParallel(InputStream body, List<HashAlgorithm.Hasher> hashers) throws IOException {
+        byte[] current = echoBuffers.acquire();
+        byte[] next = echoBuffers.acquire();
+        CompletableFuture<Void> pending = null;
+        try {
+            long size = 0;
+            int read = body.readNBytes(current, 0, current.length);
+            while (read > 0) {
+                size = checkEchoSize(size + read);
+                byte[] chunk = current;
+                int length = read;
+                CompletableFuture<?>[] updates = new CompletableFuture<?>[hashers.size()];
+                for (int i = 0; i < updates.length; i++) {
+                    HashAlgorithm.Hasher hasher = hashers.get(i);
+                    updates[i] = CompletableFuture.runAsync(() -> hasher.update(chunk, 0, length), ForkJoinPool.commonPool());
+                }
+                pending = CompletableFuture.allOf(updates);
+
+                // Read ahead into the other buffer while the digests consume this one
+                read = body.readNBytes(next, 0, next.length);
+                pending.join();
+                pending = null;
+
+                current = next;
+                next = chunk;
+            }
+            return size;
+        } finally {
+            if (pending != null) {
+                // Never hand a buffer back to the pool while a digest may still be reading it
+                pending.exceptionally(e -> null).join();
+            }
+            echoBuffers.release(current);
+            echoBuffers.release(next);
+        }
+    }
+
+    private long checkEchoSize(long size) {
+        if (size > maxEchoBytes) {
+            throw new MaxUploadSizeExceededException(maxEchoBytes);
+        }
+        return size;
     }
 
     private Map<String, String> extractHeaders(HttpServletRequest request) {
@@ -86,15 +191,4 @@ public class IpInspectorService {
         });
         return headers;
     }
-
-    private String calculateSha256(byte[] data) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data);
-            return HexFormat.of().formatHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256 algorithm not available", e);
-            throw new IllegalStateException("SHA-256 algorithm not available", e);
-        }
-    }
-}
\ No newline at end of file
+}
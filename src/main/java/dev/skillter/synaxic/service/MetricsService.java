@@ -6,35 +6,41 @@ import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
-public class MetricsService {
+public class MetricsService implements CounterJournal.Source {
+
+    static final int JOURNAL_STREAM = 1;
 
     private final MeterRegistry meterRegistry;
     private final ApiStatsRepository apiStatsRepository;
-    
-    private final AtomicLong pendingRequestCount = new AtomicLong(0);
+    private final CounterJournal journal;
+
+    // Requests not yet flushed, per journal segment
+    private final LongAdder[] pendingRequestCount = {new LongAdder(), new LongAdder()};
 
     private static final String METRIC_API_REQUESTS_TOTAL = "synaxic.api.requests.total";
     private static final String METRIC_API_RESPONSE_TIME = "synaxic.api.response.time.seconds";
     private static final String METRIC_API_ERRORS_TOTAL = "synaxic.api.errors.total";
     private static final String COUNTER_DB_NAME = "total_api_requests";
 
-    public MetricsService(MeterRegistry meterRegistry, ApiStatsRepository apiStatsRepository) {
+    public MetricsService(MeterRegistry meterRegistry, ApiStatsRepository apiStatsRepository, CounterJournal journal) {
         this.meterRegistry = meterRegistry;
         this.apiStatsRepository = apiStatsRepository;
+        this.journal = journal;
     }
 
     @PostConstruct
     public void init() {
+        journal.register(this);
         try {
             long dbValue = getTotalApiRequests();
             log.info("Initializing metrics. Total historical requests: {}", dbValue);
@@ -56,13 +62,22 @@ public class MetricsService {
                 .register(meterRegistry)
                 .increment();
 
-        pendingRequestCount.incrementAndGet();
+        journal.record(this, 0, 0, 1);
+    }
+
+    @Override
+    public int journalStream() {
+        return JOURNAL_STREAM;
+    }
+
+    @Override
+    public void apply(int segment, long key1, long key2, long delta) {
+        pendingRequestCount[segment].add(delta);
     }
 
-    @Scheduled(fixedRate = 5000)
-    @Transactional
-    public void flushMetricsToDatabase() {
-        long delta = pendingRequestCount.getAndSet(0);
+    @Override
+    public void flushSegment(int segment) {
+        long delta = pendingRequestCount[segment].sumThenReset();
         if (delta > 0) {
             try {
                 apiStatsRepository.findByCounterName(COUNTER_DB_NAME)
@@ -77,24 +92,33 @@ public class MetricsService {
                             apiStatsRepository.save(stats);
                         });
             } catch (Exception e) {
-                pendingRequestCount.addAndGet(delta);
+                journal.record(this, 0, 0, delta);
                 log.error("Failed to flush metrics to database", e);
             }
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        journal.checkpoint();
+    }
+
     @Transactional(readOnly = true)
     public long getTotalApiRequests() {
         try {
             long dbValue = apiStatsRepository.findByCounterName(COUNTER_DB_NAME)
                     .map(ApiStats::getCounterValue)
                     .orElse(0L);
-            return dbValue + pendingRequestCount.get();
+            return dbValue + pendingRequests();
         } catch (Exception e) {
-            return pendingRequestCount.get();
+            return pendingRequests();
         }
     }
 
+    private long pendingRequests() {
+        return pendingRequestCount[0].sum() + pendingRequestCount[1].sum();
+    }
+
     public void recordResponseTime(String endpoint, String method, Duration duration) {
         Timer.builder(METRIC_API_RESPONSE_TIME)
                 .description("API request response time")
@@ -0,0 +1,116 @@
+package dev.skillter.synaxic.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limiting for hot anonymous endpoints that takes tokens from the distributed bucket in
+ * batches ("leases") and hands them out locally, so most requests never reach Redis.
+ * <p>
+ * Leased tokens are already deducted from the shared bucket, so a lease never admits more
+ * requests than the bucket allowed. Near the end of a quota a full lease is no longer
+ * available and every request falls back to taking a single token remotely. Tokens left
+ * in a lease that goes idle are given back to the bucket.
+ */
+@Service
+@Slf4j
+public class RateLimitLeaseService {
+
+    private final RateLimitService rateLimitService;
+    private final int leaseSize;
+    private final Cache<String, Lease> leases;
+
+    public RateLimitLeaseService(RateLimitService rateLimitService,
+                                 @Value("${synaxic.fast-lane.lease-size:20}") int leaseSize,
+                                 @Value("${synaxic.fast-lane.lease-idle-seconds:10}") long leaseIdleSeconds) {
+        this.rateLimitService = rateLimitService;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofSeconds(leaseIdleSeconds))
+                .removalListener(this::returnUnusedTokens)
+                .build();
+    }
+
+    public LeaseResult tryAcquire(String key, RateLimitService.RateLimitTier tier) {
+        while (true) {
+            Lease lease = leases.get(key, k -> new Lease(tier));
+            synchronized (lease) {
+                if (lease.retired) {
+                    // Evicted between lookup and lock; its tokens were already returned
+                    continue;
+                }
+                if (lease.tokens > 0) {
+                    lease.tokens--;
+                    return LeaseResult.allowed(lease.remainingAtGrant + lease.tokens);
+                }
+
+                Bucket bucket = rateLimitService.resolveBucket(key, tier);
+                ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(leaseSize);
+                if (probe.isConsumed()) {
+                    lease.tokens = leaseSize - 1;
+                    lease.remainingAtGrant = probe.getRemainingTokens();
+                    return LeaseResult.allowed(lease.remainingAtGrant + lease.tokens);
+                }
+
+                probe = bucket.tryConsumeAndReturnRemaining(1);
+                if (probe.isConsumed()) {
+                    lease.remainingAtGrant = probe.getRemainingTokens();
+                    return LeaseResult.allowed(probe.getRemainingTokens());
+                }
+                return LeaseResult.rejected(TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()) + 1);
+            }
+        }
+    }
+
+    private void returnUnusedTokens(String key, Lease lease, RemovalCause cause) {
+        if (key == null || lease == null) {
+            return;
+        }
+        long unused;
+        synchronized (lease) {
+            lease.retired = true;
+            unused = lease.tokens;
+            lease.tokens = 0;
+        }
+        if (unused > 0) {
+            try {
+                rateLimitService.resolveBucket(key, lease.tier).addTokens(unused);
+            } catch (Exception e) {
+                log.warn("Could not return {} leased tokens to bucket {}: {}", unused, key, e.getMessage());
+            }
+        }
+    }
+
+    public record LeaseResult(boolean allowed, long remainingTokens, long retryAfterSeconds) {
+
+        static LeaseResult allowed(long remainingTokens) {
+            return new LeaseResult(true, remainingTokens, 0);
+        }
+
+        static LeaseResult rejected(long retryAfterSeconds) {
+            return new LeaseResult(false, 0, retryAfterSeconds);
+        }
+    }
+
+    private static final class Lease {
+
+        private final RateLimitService.RateLimitTier tier;
+        private long tokens;
+        private long remainingAtGrant;
+        private boolean retired;
+
+        private Lease(RateLimitService.RateLimitTier tier) {
+            this.tier = tier;
+        }
+    }
+}
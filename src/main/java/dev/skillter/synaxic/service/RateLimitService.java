@@ -1,20 +1,28 @@
 package dev.skillter.synaxic.service;
 
+import dev.skillter.synaxic.exception.RateLimitExceededException;
 import dev.skillter.synaxic.model.dto.RateLimitStatus;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.distributed.proxy.ProxyManager;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class RateLimitService {
 
+    /** Request attributes set by the rate limit filter so handlers can charge extra tokens. */
+    public static final String BUCKET_KEY_ATTRIBUTE = "rateLimitBucketKey";
+    public static final String TIER_ATTRIBUTE = "rateLimitTier";
+
     private final ProxyManager<String> proxyManager;
 
     @Value("${synaxic.rate-limit.anonymous.capacity:1000}")
@@ -54,6 +62,45 @@ public class RateLimitService {
         return proxyManager.builder().build(key, () -> configuration);
     }
 
+    /**
+     * Charges additional tokens to the bucket the current request was admitted by, for
+     * requests whose cost scales with their size. Requests that bypassed the rate limit
+     * filter are not charged.
+     *
+     * @return the remaining tokens, or -1 if the request has no bucket
+     * @throws RateLimitExceededException if the bucket does not hold enough tokens
+     */
+    public long consumeAdditional(HttpServletRequest request, long tokens) {
+        String key = (String) request.getAttribute(BUCKET_KEY_ATTRIBUTE);
+        Object tier = request.getAttribute(TIER_ATTRIBUTE);
+        if (key == null || !(tier instanceof RateLimitTier rateLimitTier)) {
+            return -1;
+        }
+
+        Bucket bucket = resolveBucket(key, rateLimitTier);
+        if (tokens <= 0) {
+            return bucket.getAvailableTokens();
+        }
+
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(tokens);
+        if (!probe.isConsumed()) {
+            // Bucket4j reports Long.MAX_VALUE when the request can never fit; a full refill is the longest real wait
+            long refillSeconds = TimeUnit.MINUTES.toSeconds(getRefillMinutes(rateLimitTier));
+            long waitSeconds = TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill());
+            throw new RateLimitExceededException(Math.min(waitSeconds, refillSeconds - 1) + 1);
+        }
+        return probe.getRemainingTokens();
+    }
+
+    /**
+     * @return the capacity of the bucket the current request was admitted by, which is the
+     * most a single request can ever be charged, or -1 if the request has no bucket
+     */
+    public long getCapacity(HttpServletRequest request) {
+        Object tier = request.getAttribute(TIER_ATTRIBUTE);
+        return tier instanceof RateLimitTier rateLimitTier ? getLimit(rateLimitTier) : -1;
+    }
+
     public void resetBucket(String key) {
         proxyManager.removeProxy(key);
     }
@@ -81,6 +128,16 @@ public class RateLimitService {
                 .build();
     }
 
+    private long getRefillMinutes(RateLimitTier tier) {
+        return switch (tier) {
+            case API_KEY -> apiKeyRefillMinutes;
+            case STATIC -> staticRefillMinutes;
+            case ANONYMOUS -> anonymousRefillMinutes;
+            case ACCOUNT -> accountRefillMinutes;
+            case FRONTEND -> frontendRefillMinutes;
+        };
+    }
+
     private Bandwidth getBandwidthForTier(RateLimitTier tier) {
         return switch (tier) {
             case API_KEY -> Bandwidth.simple(apiKeyCapacity, Duration.ofMinutes(apiKeyRefillMinutes));
@@ -1,12 +1,17 @@
 package dev.skillter.synaxic.service;
 
+import dev.skillter.synaxic.config.CacheConfig;
 import dev.skillter.synaxic.model.entity.User;
 import dev.skillter.synaxic.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
@@ -14,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
     @Transactional
     public User processOAuth2User(OAuth2User oAuth2User) {
@@ -54,8 +60,34 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
+    public java.util.Optional<User> findById(Long userId) {
+        return userRepository.findById(userId);
+    }
+
     @Transactional
     public void deleteUser(Long userId) {
+        // Evict the cached snapshot only once the delete is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictSnapshot(userId);
+                }
+            });
+        } else {
+            evictSnapshot(userId);
+        }
         userRepository.deleteById(userId);
     }
+
+    private void evictSnapshot(Long userId) {
+        try {
+            Cache cache = cacheManager.getCache(CacheConfig.CACHE_USER_SNAPSHOT);
+            if (cache != null) {
+                cache.evict(userId);
+            }
+        } catch (Exception e) {
+            log.error("Failed to evict user snapshot {}: {}", userId, e.getMessage(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package dev.skillter.synaxic.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import dev.skillter.synaxic.cache.CacheEvent;
+import dev.skillter.synaxic.config.CacheConfig;
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-local cache of API keys that recently passed the SHA-256 check, so hot keys
+ * authenticate with a single map lookup.
+ * <p>
+ * Entries are keyed by a 128-bit SipHash of the presented key under random per-process keys,
+ * so the raw key is never held and fingerprints are useless outside this JVM. Deleting a key
+ * evicts its prefix from {@code apiKeyByPrefix}, which publishes on the cache invalidation
+ * topic; every instance drops the matching entries when it sees that event.
+ */
+@Component
+@Slf4j
+public class VerifiedApiKeyCache {
+
+    private final RedissonClient redissonClient;
+    private final HashFunction highHash;
+    private final HashFunction lowHash;
+    private final Cache<Fingerprint, ApiKeyPrincipal> verifiedKeys;
+    private final AtomicLong generation = new AtomicLong();
+
+    public VerifiedApiKeyCache(RedissonClient redissonClient,
+                               @Value("${synaxic.api-key.verified-cache.max-size:10000}") long maxSize,
+                               @Value("${synaxic.api-key.verified-cache.ttl-minutes:5}") long ttlMinutes) {
+        this.redissonClient = redissonClient;
+        SecureRandom random = new SecureRandom();
+        this.highHash = Hashing.sipHash24(random.nextLong(), random.nextLong());
+        this.lowHash = Hashing.sipHash24(random.nextLong(), random.nextLong());
+        this.verifiedKeys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    @PostConstruct
+    public void init() {
+        redissonClient.getTopic(CacheConfig.CACHE_INVALIDATION_TOPIC).addListener(CacheEvent.class, (channel, event) -> {
+            if (CacheConfig.CACHE_API_KEY_BY_PREFIX.equals(event.cacheName())) {
+                evictPrefix((String) event.key());
+            }
+        });
+    }
+
+    public Optional<ApiKeyPrincipal> get(String fullKey) {
+        return Optional.ofNullable(verifiedKeys.getIfPresent(fingerprint(fullKey)));
+    }
+
+    /**
+     * @return a counter that changes on every eviction; pass it back to {@link #put} so a
+     * verification that raced with a deletion is not cached
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String fullKey, ApiKeyPrincipal apiKey, long generationAtLookup) {
+        if (generation.get() != generationAtLookup) {
+            return;
+        }
+        verifiedKeys.put(fingerprint(fullKey), apiKey);
+        if (generation.get() != generationAtLookup) {
+            evictPrefix(apiKey.prefix());
+        }
+    }
+
+    /**
+     * Drops every cached key with the given prefix, or all keys when {@code prefix} is null.
+     */
+    public void evictPrefix(String prefix) {
+        generation.incrementAndGet();
+        if (prefix == null) {
+            verifiedKeys.invalidateAll();
+        } else {
+            verifiedKeys.asMap().values().removeIf(apiKey -> prefix.equals(apiKey.prefix()));
+        }
+        log.debug("Evicted verified API keys for prefix {}", prefix);
+    }
+
+    private Fingerprint fingerprint(String fullKey) {
+        return new Fingerprint(highHash.hashUnencodedChars(fullKey).asLong(), lowHash.hashUnencodedChars(fullKey).asLong());
+    }
+
+    private record Fingerprint(long high, long low) {
+    }
+}
@@ -0,0 +1,37 @@
+package dev.skillter.synaxic.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of fixed-size byte buffers for streaming request bodies. When the pool is
+ * empty a fresh buffer is allocated, and buffers returned to a full pool are left to the GC,
+ * so callers never block.
+ */
+public final class BufferPool {
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<byte[]> free;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("Buffer size and pool size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = free.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            free.offer(buffer);
+        }
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,97 @@
+package dev.skillter.synaxic.util;
+
+import java.util.List;
+
+/**
+ * A network prefix over the 128-bit {@link ClientAddress} space. IPv4 blocks are stored as
+ * their IPv4-mapped equivalent, so {@code 10.0.0.0/8} becomes {@code ::ffff:10.0.0.0/104}.
+ */
+public record CidrBlock(long high, long low, int prefixLength) {
+
+    private static final List<CidrBlock> RESERVED = List.of(
+            // IPv4 (RFC 6890 special-purpose registry)
+            parse("0.0.0.0/8"),
+            parse("10.0.0.0/8"),
+            parse("100.64.0.0/10"),
+            parse("127.0.0.0/8"),
+            parse("169.254.0.0/16"),
+            parse("172.16.0.0/12"),
+            parse("192.0.0.0/24"),
+            parse("192.0.2.0/24"),
+            parse("192.168.0.0/16"),
+            parse("198.18.0.0/15"),
+            parse("198.51.100.0/24"),
+            parse("203.0.113.0/24"),
+            parse("224.0.0.0/4"),
+            parse("240.0.0.0/4"),
+            // IPv6
+            parse("::/127"),
+            parse("64:ff9b:1::/48"),
+            parse("100::/64"),
+            parse("2001:db8::/32"),
+            parse("fc00::/7"),
+            parse("fe80::/10"),
+            parse("ff00::/8")
+    );
+
+    public CidrBlock {
+        if (prefixLength < 0 || prefixLength > 128) {
+            throw new IllegalArgumentException("Prefix length out of range: " + prefixLength);
+        }
+        high &= highMask(prefixLength);
+        low &= lowMask(prefixLength);
+    }
+
+    /**
+     * Parses {@code address/prefix}. A bare address is treated as a single-host block.
+     */
+    public static CidrBlock parse(String cidr) {
+        int slash = cidr.indexOf('/');
+        int end = slash < 0 ? cidr.length() : slash;
+        ClientAddress address = ClientAddress.parse(cidr, 0, end);
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+        }
+
+        int prefixLength = address.isIpv4() ? 32 : 128;
+        if (slash >= 0) {
+            try {
+                prefixLength = Integer.parseInt(cidr.substring(slash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CIDR block: " + cidr, e);
+            }
+            if (prefixLength < 0 || prefixLength > (address.isIpv4() ? 32 : 128)) {
+                throw new IllegalArgumentException("Invalid CIDR block: " + cidr);
+            }
+        }
+        return new CidrBlock(address.high(), address.low(), address.isIpv4() ? prefixLength + 96 : prefixLength);
+    }
+
+    public boolean contains(ClientAddress address) {
+        return (address.high() & highMask(prefixLength)) == high
+                && (address.low() & lowMask(prefixLength)) == low;
+    }
+
+    static boolean isReserved(ClientAddress address) {
+        for (int i = 0; i < RESERVED.size(); i++) {
+            if (RESERVED.get(i).contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long highMask(int prefixLength) {
+        if (prefixLength == 0) {
+            return 0L;
+        }
+        return prefixLength >= 64 ? -1L : -1L << (64 - prefixLength);
+    }
+
+    private static long lowMask(int prefixLength) {
+        if (prefixLength <= 64) {
+            return 0L;
+        }
+        return -1L << (128 - prefixLength);
+    }
+}
@@ -0,0 +1,356 @@
+package dev.skillter.synaxic.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * An IPv4 or IPv6 address packed into 128 bits.
+ * <p>
+ * IPv4 addresses are stored in their IPv4-mapped IPv6 form ({@code ::ffff:a.b.c.d}), so a
+ * single set of {@link CidrBlock}s covers both families. The parser works directly on a
+ * character range of the input and allocates nothing but the result, which makes it cheap
+ * enough to run over every forwarding header of every request. The text form is canonical
+ * (dotted quad, or RFC 5952 for IPv6) and built lazily.
+ */
+public final class ClientAddress {
+
+    public static final ClientAddress UNSPECIFIED = new ClientAddress(0L, 0xFFFF_0000_0000L, true);
+
+    private static final long IPV4_MAPPED_PREFIX = 0xFFFF_0000_0000L;
+
+    private final long high;
+    private final long low;
+    private final boolean ipv4;
+    private String text;
+
+    private ClientAddress(long high, long low, boolean ipv4) {
+        this.high = high;
+        this.low = low;
+        this.ipv4 = ipv4;
+    }
+
+    public static ClientAddress of(long high, long low) {
+        boolean mapped = high == 0 && (low >>> 32) == 0xFFFFL;
+        return new ClientAddress(high, low, mapped);
+    }
+
+    public static ClientAddress ofIpv4(int address) {
+        return new ClientAddress(0L, IPV4_MAPPED_PREFIX | (address & 0xFFFF_FFFFL), true);
+    }
+
+    /**
+     * Parses an address literal, or returns null if the input is not one. Surrounding
+     * whitespace, IPv6 brackets, IPv6 zone ids and ports ({@code 1.2.3.4:80}, {@code [::1]:80})
+     * are tolerated. Host names are never resolved.
+     */
+    public static ClientAddress parse(CharSequence value) {
+        return value == null ? null : parse(value, 0, value.length());
+    }
+
+    public static ClientAddress parse(CharSequence value, int start, int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        if (start >= end || end - start > 64) {
+            return null;
+        }
+
+        if (value.charAt(start) == '[') {
+            int close = indexOf(value, ']', start + 1, end);
+            if (close < 0 || (close + 1 < end && value.charAt(close + 1) != ':')) {
+                return null;
+            }
+            return parseIpv6(value, start + 1, close);
+        }
+
+        int firstColon = indexOf(value, ':', start, end);
+        if (firstColon < 0) {
+            long ipv4 = parseIpv4(value, start, end);
+            return ipv4 < 0 ? null : ofIpv4((int) ipv4);
+        }
+        if (indexOf(value, '.', start, firstColon) >= 0) {
+            // "a.b.c.d:port"
+            if (indexOf(value, ':', firstColon + 1, end) >= 0) {
+                return null;
+            }
+            long ipv4 = parseIpv4(value, start, firstColon);
+            return ipv4 < 0 ? null : ofIpv4((int) ipv4);
+        }
+        return parseIpv6(value, start, end);
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or -1 if the range is not a dotted quad
+     */
+    private static long parseIpv4(CharSequence value, int start, int end) {
+        long result = 0;
+        int octets = 0;
+        int i = start;
+        while (i < end) {
+            int octet = 0;
+            int digits = 0;
+            while (i < end && digits < 4) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                octet = octet * 10 + (c - '0');
+                digits++;
+                i++;
+            }
+            if (digits == 0 || digits > 3 || octet > 255) {
+                return -1;
+            }
+            result = (result << 8) | octet;
+            octets++;
+            if (i == end) {
+                break;
+            }
+            if (value.charAt(i) != '.' || octets == 4) {
+                return -1;
+            }
+            i++;
+            if (i == end) {
+                return -1;
+            }
+        }
+        return octets == 4 ? result : -1;
+    }
+
+    private static ClientAddress parseIpv6(CharSequence value, int start, int end) {
+        int zone = indexOf(value, '%', start, end);
+        if (zone >= 0) {
+            end = zone;
+        }
+        if (end - start < 2) {
+            return null;
+        }
+
+        long headHigh = 0, headLow = 0, tailHigh = 0, tailLow = 0;
+        int headGroups = 0, tailGroups = 0;
+        boolean compressed = false;
+        int i = start;
+
+        if (value.charAt(i) == ':') {
+            if (value.charAt(i + 1) != ':') {
+                return null;
+            }
+            compressed = true;
+            i += 2;
+        }
+
+        while (i < end) {
+            int groupStart = i;
+            int group = 0;
+            int digits = 0;
+            while (i < end && digits <= 4) {
+                int digit = Character.digit(value.charAt(i), 16);
+                if (digit < 0) {
+                    break;
+                }
+                group = (group << 4) | digit;
+                digits++;
+                i++;
+            }
+
+            if (i < end && value.charAt(i) == '.') {
+                // Embedded IPv4 in the last 32 bits
+                long ipv4 = parseIpv4(value, groupStart, end);
+                if (ipv4 < 0) {
+                    return null;
+                }
+                if (compressed) {
+                    tailHigh = (tailHigh << 32) | (tailLow >>> 32);
+                    tailLow = (tailLow << 32) | ipv4;
+                    tailGroups += 2;
+                } else {
+                    headHigh = (headHigh << 32) | (headLow >>> 32);
+                    headLow = (headLow << 32) | ipv4;
+                    headGroups += 2;
+                }
+                i = end;
+                break;
+            }
+
+            if (digits == 0 || digits > 4) {
+                return null;
+            }
+            if (compressed) {
+                tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+                tailLow = (tailLow << 16) | group;
+                tailGroups++;
+            } else {
+                headHigh = (headHigh << 16) | (headLow >>> 48);
+                headLow = (headLow << 16) | group;
+                headGroups++;
+            }
+
+            if (i == end) {
+                break;
+            }
+            if (value.charAt(i) != ':') {
+                return null;
+            }
+            i++;
+            if (i < end && value.charAt(i) == ':') {
+                if (compressed) {
+                    return null;
+                }
+                compressed = true;
+                i++;
+            } else if (i == end) {
+                return null;
+            }
+        }
+
+        int groups = headGroups + tailGroups;
+        if (compressed ? groups > 7 : groups != 8) {
+            return null;
+        }
+
+        // Move the head groups to the top and leave the tail groups at the bottom
+        int shift = 16 * (8 - headGroups);
+        long high;
+        long low;
+        if (shift >= 128) {
+            high = 0;
+            low = 0;
+        } else if (shift >= 64) {
+            high = headLow << (shift - 64);
+            low = 0;
+        } else if (shift > 0) {
+            high = (headHigh << shift) | (headLow >>> (64 - shift));
+            low = headLow << shift;
+        } else {
+            high = headHigh;
+            low = headLow;
+        }
+        return of(high | tailHigh, low | tailLow);
+    }
+
+    private static int indexOf(CharSequence value, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long high() {
+        return high;
+    }
+
+    public long low() {
+        return low;
+    }
+
+    public boolean isIpv4() {
+        return ipv4;
+    }
+
+    public String version() {
+        return ipv4 ? "IPv4" : "IPv6";
+    }
+
+    /**
+     * Whether the address is private, loopback, link-local or otherwise not globally routable.
+     */
+    public boolean isPrivateOrReserved() {
+        return CidrBlock.isReserved(this);
+    }
+
+    public boolean isPublic() {
+        return !isPrivateOrReserved();
+    }
+
+    public InetAddress toInetAddress() {
+        byte[] bytes;
+        if (ipv4) {
+            int address = (int) low;
+            bytes = new byte[]{(byte) (address >>> 24), (byte) (address >>> 16), (byte) (address >>> 8), (byte) address};
+        } else {
+            bytes = new byte[16];
+            for (int i = 0; i < 8; i++) {
+                bytes[i] = (byte) (high >>> (56 - 8 * i));
+                bytes[i + 8] = (byte) (low >>> (56 - 8 * i));
+            }
+        }
+        try {
+            // Never performs a lookup for a raw address
+            return InetAddress.getByAddress(bytes);
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            result = ipv4 ? formatIpv4() : formatIpv6();
+            text = result;
+        }
+        return result;
+    }
+
+    private String formatIpv4() {
+        int address = (int) low;
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "." + ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+
+    private String formatIpv6() {
+        // RFC 5952: compress the longest run of two or more zero groups, the first one on ties
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            if (group(i) != 0) {
+                i++;
+                continue;
+            }
+            int runStart = i;
+            while (i < 8 && group(i) == 0) {
+                i++;
+            }
+            if (i - runStart > bestLength) {
+                bestStart = runStart;
+                bestLength = i - runStart;
+            }
+        }
+
+        StringBuilder builder = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                builder.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ':') {
+                builder.append(':');
+            }
+            builder.append(Integer.toHexString(group(i)));
+        }
+        return builder.toString();
+    }
+
+    private int group(int index) {
+        long half = index < 4 ? high : low;
+        return (int) (half >>> (48 - 16 * (index & 3))) & 0xFFFF;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ClientAddress other && high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high) * 31 + Long.hashCode(low);
+    }
+}
@@ -0,0 +1,52 @@
+package dev.skillter.synaxic.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The resolved client of a request, stored as a request attribute by
+ * {@link ClientContextResolver} so the address and its country are determined once per request.
+ */
+public final class ClientContext {
+
+    public static final String ATTRIBUTE = ClientContext.class.getName();
+
+    private final ClientAddress address;
+    private final Function<ClientAddress, Optional<String>> countryLookup;
+    private Optional<String> country;
+
+    ClientContext(ClientAddress address, Function<ClientAddress, Optional<String>> countryLookup) {
+        this.address = address;
+        this.countryLookup = countryLookup;
+    }
+
+    /**
+     * @return the context stored on the request, or null if it has not been resolved yet
+     */
+    public static ClientContext get(HttpServletRequest request) {
+        return request.getAttribute(ATTRIBUTE) instanceof ClientContext context ? context : null;
+    }
+
+    public ClientAddress address() {
+        return address;
+    }
+
+    public String ip() {
+        return address.toString();
+    }
+
+    /**
+     * The ISO country code of the client. Looked up on first use, as static resources and
+     * most authenticated requests never need it.
+     */
+    public Optional<String> country() {
+        Optional<String> result = country;
+        if (result == null) {
+            result = countryLookup.apply(address);
+            country = result;
+        }
+        return result;
+    }
+}
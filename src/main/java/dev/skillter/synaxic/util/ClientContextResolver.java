@@ -0,0 +1,28 @@
+package dev.skillter.synaxic.util;
+
+import dev.skillter.synaxic.service.GeoIpService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ClientContextResolver {
+
+    private final IpExtractor ipExtractor;
+    private final GeoIpService geoIpService;
+
+    /**
+     * Returns the client context of the request, resolving and storing it on first use.
+     * {@code ClientContextFilter} does this ahead of everything else, so later callers only
+     * read the attribute.
+     */
+    public ClientContext resolve(HttpServletRequest request) {
+        ClientContext context = ClientContext.get(request);
+        if (context == null) {
+            context = new ClientContext(ipExtractor.extractClientAddress(request), geoIpService::getCountry);
+            request.setAttribute(ClientContext.ATTRIBUTE, context);
+        }
+        return context;
+    }
+}
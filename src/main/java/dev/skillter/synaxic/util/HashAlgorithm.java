@@ -0,0 +1,135 @@
+package dev.skillter.synaxic.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Digests offered by {@code /v1/echo}. Each produces a fresh {@link Hasher} that can be fed
+ * the same buffer chunks as the others, so one pass over a body yields every requested hash.
+ */
+public enum HashAlgorithm {
+
+    SHA256("sha256"),
+    SHA1("sha1"),
+    SHA512("sha512"),
+    MD5("md5"),
+    CRC32C("crc32c"),
+    XXH64("xxh64");
+
+    private final String id;
+
+    HashAlgorithm(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Accepts the identifiers above case-insensitively, with or without a dash
+     * ({@code SHA-256}, {@code xxhash64} is accepted as an alias for {@code xxh64}).
+     */
+    public static HashAlgorithm fromId(String value) {
+        String normalized = value.strip().toLowerCase(Locale.ROOT).replace("-", "");
+        if (normalized.equals("xxhash64") || normalized.equals("xxhash")) {
+            return XXH64;
+        }
+        for (HashAlgorithm algorithm : values()) {
+            if (algorithm.id.equals(normalized)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported hash algorithm: " + value);
+    }
+
+    public Hasher newHasher() {
+        return switch (this) {
+            case SHA256 -> new DigestHasher(this, "SHA-256");
+            case SHA1 -> new DigestHasher(this, "SHA-1");
+            case SHA512 -> new DigestHasher(this, "SHA-512");
+            case MD5 -> new DigestHasher(this, "MD5");
+            case CRC32C -> new Crc32cHasher();
+            case XXH64 -> new XxHash64Hasher();
+        };
+    }
+
+    public interface Hasher {
+
+        HashAlgorithm algorithm();
+
+        void update(byte[] buffer, int offset, int length);
+
+        /**
+         * @return the hash as lowercase hex; checksums are rendered big-endian
+         */
+        String hexDigest();
+    }
+
+    private record DigestHasher(HashAlgorithm algorithm, MessageDigest digest) implements Hasher {
+
+        DigestHasher(HashAlgorithm algorithm, String jcaName) {
+            this(algorithm, getInstance(jcaName));
+        }
+
+        private static MessageDigest getInstance(String jcaName) {
+            try {
+                return MessageDigest.getInstance(jcaName);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(jcaName + " algorithm not available", e);
+            }
+        }
+
+        @Override
+        public void update(byte[] buffer, int offset, int length) {
+            digest.update(buffer, offset, length);
+        }
+
+        @Override
+        public String hexDigest() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+    }
+
+    private static final class Crc32cHasher implements Hasher {
+
+        private final java.util.zip.CRC32C checksum = new java.util.zip.CRC32C();
+
+        @Override
+        public HashAlgorithm algorithm() {
+            return CRC32C;
+        }
+
+        @Override
+        public void update(byte[] buffer, int offset, int length) {
+            checksum.update(buffer, offset, length);
+        }
+
+        @Override
+        public String hexDigest() {
+            return HexFormat.of().toHexDigits((int) checksum.getValue());
+        }
+    }
+
+    private static final class XxHash64Hasher implements Hasher {
+
+        private final XxHash64 hash = new XxHash64();
+
+        @Override
+        public HashAlgorithm algorithm() {
+            return XXH64;
+        }
+
+        @Override
+        public void update(byte[] buffer, int offset, int length) {
+            hash.update(buffer, offset, length);
+        }
+
+        @Override
+        public String hexDigest() {
+            return HexFormat.of().toHexDigits(hash.getValue());
+        }
+    }
+}
@@ -1,116 +1,118 @@
 package dev.skillter.synaxic.util;
 
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
-import java.util.regex.Pattern;
 
+/**
+ * Determines the client address of a request.
+ * <p>
+ * Forwarding headers are only honoured when the connection comes from a configured trusted
+ * proxy. {@code X-Forwarded-For} is then walked from right to left, skipping further trusted
+ * hops, and the first untrusted address is the client. Anything to the left of it was supplied
+ * by the client itself and is ignored.
+ */
 @Component
+@Slf4j
 public class IpExtractor {
 
-    private static final List<String> IP_HEADERS = Arrays.asList(
-            "X-Forwarded-For",
-            "X-Real-IP",
-            "Proxy-Client-IP",
-            "WL-Proxy-Client-IP",
-            "HTTP_X_FORWARDED_FOR",
-            "HTTP_X_FORWARDED",
-            "HTTP_X_CLUSTER_CLIENT_IP",
-            "HTTP_CLIENT_IP",
-            "HTTP_FORWARDED_FOR",
-            "HTTP_FORWARDED"
-    );
-
-    // IPv4 and IPv6 validation patterns
-    private static final Pattern IPV4_PATTERN = Pattern.compile(
-            "^(?:(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$"
-    );
-
-    private static final Pattern IPV6_PATTERN = Pattern.compile(
-            "^([0-9a-fA-F]{1,4}:){7}[0-9a-fA-F]{1,4}$|^::1$|^::$"
-    );
-
-    private static final Pattern COMPRESSED_IPV6_PATTERN = Pattern.compile(
-            "^(([0-9a-fA-F]{1,4}:){0,6}[0-9a-fA-F]{1,4})?::(([0-9a-fA-F]{1,4}:){0,6}[0-9a-fA-F]{1,4})?$"
-    );
-
-    // Private/local IP ranges that should not be treated as external client IPs
-    private static final List<String> PRIVATE_IP_PREFIXES = Arrays.asList(
-            "10.", "172.16.", "172.17.", "172.18.", "172.19.", "172.20.", "172.21.", "172.22.", "172.23.",
-            "172.24.", "172.25.", "172.26.", "172.27.", "172.28.", "172.29.", "172.30.", "172.31.",
-            "192.168.", "127.", "169.254.", "::1", "fc00:", "fe80:"
-    );
-
-    public String extractClientIp(HttpServletRequest request) {
-        if (request == null) {
-            return "0.0.0.0";
-        }
-
-        for (String header : IP_HEADERS) {
-            String ipList = request.getHeader(header);
-            if (StringUtils.hasText(ipList) && !"unknown".equalsIgnoreCase(ipList)) {
-                // The X-Forwarded-For header can contain a comma-separated list of IPs.
-                // The first one is the original client, but we need to validate it.
-                String potentialIp = ipList.split(",")[0].trim();
-
-                if (isValidIp(potentialIp) && !isPrivateIp(potentialIp)) {
-                    return potentialIp;
-                }
-                // If the first IP is invalid or private, continue checking other headers
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+    private static final String REAL_IP = "X-Real-IP";
+    // Local proxies plus the Cloudflare edge, kept in sync with application.properties
+    private static final String DEFAULT_TRUSTED_PROXIES = "127.0.0.0/8,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16,fc00::/7,"
+            + "173.245.48.0/20,103.21.244.0/22,103.22.200.0/22,103.31.4.0/22,141.101.64.0/18,108.162.192.0/18,"
+            + "190.93.240.0/20,188.114.96.0/20,197.234.240.0/22,198.41.128.0/17,162.158.0.0/15,104.16.0.0/13,"
+            + "104.24.0.0/14,172.64.0.0/13,131.0.72.0/22,"
+            + "2400:cb00::/32,2606:4700::/32,2803:f800::/32,2405:b500::/32,2405:8100::/32,2a06:98c0::/29,2c0f:f248::/32";
+
+    private final List<CidrBlock> trustedProxies;
+
+    public IpExtractor(@Value("${synaxic.client-ip.trusted-proxies:" + DEFAULT_TRUSTED_PROXIES + "}")
+                       List<String> trustedProxies) {
+        List<CidrBlock> blocks = new ArrayList<>(trustedProxies.size());
+        for (String proxy : trustedProxies) {
+            if (!proxy.isBlank()) {
+                blocks.add(CidrBlock.parse(proxy.strip()));
             }
         }
+        this.trustedProxies = List.copyOf(blocks);
+        log.info("Trusting forwarding headers from {} proxy network(s)", this.trustedProxies.size());
+    }
 
-        // If no valid headers are found, fall back to the remote address.
-        String remoteAddr = request.getRemoteAddr();
-        if (isValidIp(remoteAddr)) {
-            return remoteAddr;
-        }
-
-        return "0.0.0.0";
+    public String extractClientIp(HttpServletRequest request) {
+        return extractClientAddress(request).toString();
     }
 
     /**
-     * Validates if the given string is a valid IPv4 or IPv6 address.
+     * Resolves the client address. Header values are parsed in place, without splitting or
+     * trimming them first.
+     *
+     * @return the client address, or {@link ClientAddress#UNSPECIFIED} if none can be determined
      */
-    private boolean isValidIp(String ip) {
-        if (!StringUtils.hasText(ip) || ip.length() > 45) { // IPv6 max length is 45
-            return false;
+    public ClientAddress extractClientAddress(HttpServletRequest request) {
+        if (request == null) {
+            return ClientAddress.UNSPECIFIED;
         }
 
-        // Remove any surrounding whitespace
-        ip = ip.trim();
-
-        // Check for common invalid values
-        if ("unknown".equalsIgnoreCase(ip) || ip.contains("..") || ip.contains(":::")) {
-            return false;
+        ClientAddress peer = ClientAddress.parse(request.getRemoteAddr());
+        if (peer == null) {
+            return ClientAddress.UNSPECIFIED;
         }
-
-        // Validate IPv4
-        if (ip.contains(".")) {
-            return IPV4_PATTERN.matcher(ip).matches();
+        if (!isTrustedProxy(peer)) {
+            return peer;
         }
 
-        // Validate IPv6
-        if (ip.contains(":")) {
-            return IPV6_PATTERN.matcher(ip).matches() ||
-                   COMPRESSED_IPV6_PATTERN.matcher(ip).matches();
+        ClientAddress forwarded = fromForwardedFor(request, peer);
+        if (forwarded != peer) {
+            return forwarded;
         }
 
-        return false;
+        ClientAddress realIp = ClientAddress.parse(request.getHeader(REAL_IP));
+        return realIp != null ? realIp : peer;
     }
 
-    /**
-     * Checks if the IP address is a private/local address.
-     */
-    private boolean isPrivateIp(String ip) {
-        if (!StringUtils.hasText(ip)) {
-            return true;
+    public boolean isTrustedProxy(ClientAddress address) {
+        for (int i = 0; i < trustedProxies.size(); i++) {
+            if (trustedProxies.get(i).contains(address)) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        String lowerIp = ip.toLowerCase();
-        return PRIVATE_IP_PREFIXES.stream().anyMatch(lowerIp::startsWith);
+    private ClientAddress fromForwardedFor(HttpServletRequest request, ClientAddress peer) {
+        Enumeration<String> headers = request.getHeaders(FORWARDED_FOR);
+        if (headers == null || !headers.hasMoreElements()) {
+            return peer;
+        }
+        // Repeated headers are equivalent to a single comma-separated list, in order
+        List<String> values = Collections.list(headers);
+
+        ClientAddress client = peer;
+        for (int h = values.size() - 1; h >= 0; h--) {
+            String value = values.get(h);
+            int end = value.length();
+            while (end >= 0) {
+                int comma = value.lastIndexOf(',', end - 1);
+                ClientAddress hop = ClientAddress.parse(value, comma + 1, end);
+                if (hop == null) {
+                    // A malformed entry means nothing further left can be trusted either
+                    return client;
+                }
+                client = hop;
+                if (!isTrustedProxy(hop)) {
+                    return hop;
+                }
+                end = comma;
+            }
+        }
+        // Every hop is a trusted proxy, so the leftmost one is the best we know
+        return client;
     }
-}
\ No newline at end of file
+}
@@ -10,23 +10,32 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
-import java.util.HexFormat;
 
+/**
+ * Generates API keys in the v2 format {@code syn_live_v2.<key ID>.<secret>}. The 96-bit key ID
+ * is stored in {@code api_key.prefix} (with its {@code syn_live_v2.} prefix) and is what keys
+ * are looked up by, so lookups stay a unique index hit however many keys exist.
+ * <p>
+ * Legacy keys ({@code syn_live_<secret>}) are still accepted; their lookup ID is the first 12
+ * characters, which only leaves 3 random characters and is why new keys no longer use it.
+ */
 @Component
 public class KeyGenerator {
 
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     public static final String PREFIX = "syn_live_";
+    static final String V2_PREFIX = PREFIX + "v2.";
+    private static final char SEGMENT_SEPARATOR = '.';
+    private static final int KEY_ID_BYTES = 12;
+    private static final int KEY_ID_LENGTH = 16;
+    private static final int LEGACY_LOOKUP_LENGTH = 12;
     private static final int KEY_LENGTH = 32;
 
     public GeneratedApiKey generate(User user) {
-        byte[] randomBytes = new byte[KEY_LENGTH];
-        SECURE_RANDOM.nextBytes(randomBytes);
-        String key = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
-        String fullKey = PREFIX + key;
+        String prefix = V2_PREFIX + randomBase64(KEY_ID_BYTES);
+        String fullKey = prefix + SEGMENT_SEPARATOR + randomBase64(KEY_LENGTH);
 
-        String keyHash = calculateSha256(fullKey);
-        String prefix = fullKey.substring(0, 12);
+        byte[] keyHash = calculateSha256(fullKey);
 
         ApiKey apiKeyEntity = ApiKey.builder()
                 .user(user)
@@ -37,13 +46,39 @@ public class KeyGenerator {
         return new GeneratedApiKey(fullKey, apiKeyEntity);
     }
 
-    public String calculateSha256(String data) {
+    /**
+     * @return the ID to look the key up by in {@code api_key.prefix}, or null if the key is
+     * malformed
+     */
+    public static String lookupId(String fullKey) {
+        if (fullKey == null || !fullKey.startsWith(PREFIX)) {
+            return null;
+        }
+        if (fullKey.startsWith(V2_PREFIX)) {
+            int end = V2_PREFIX.length() + KEY_ID_LENGTH;
+            if (fullKey.length() <= end + 1 || fullKey.charAt(end) != SEGMENT_SEPARATOR) {
+                return null;
+            }
+            return fullKey.substring(0, end);
+        }
+        return fullKey.length() < LEGACY_LOOKUP_LENGTH ? null : fullKey.substring(0, LEGACY_LOOKUP_LENGTH);
+    }
+
+    /**
+     * @return the raw 32-byte SHA-256 digest of {@code data}, as stored in {@code api_key.key_hash}
+     */
+    public byte[] calculateSha256(String data) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(data.getBytes(StandardCharsets.UTF_8));
-            return HexFormat.of().formatHex(hash);
+            return digest.digest(data.getBytes(StandardCharsets.UTF_8));
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("SHA-256 algorithm not available", e);
         }
     }
-}
\ No newline at end of file
+
+    private static String randomBase64(int bytes) {
+        byte[] randomBytes = new byte[bytes];
+        SECURE_RANDOM.nextBytes(randomBytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+    }
+}
@@ -1,7 +1,6 @@
 package dev.skillter.synaxic.util;
 
 import dev.skillter.synaxic.security.ApiKeyAuthFilter;
-import dev.skillter.synaxic.service.GeoIpService;
 import dev.skillter.synaxic.service.MetricsService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -20,8 +19,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class RequestLoggingInterceptor implements HandlerInterceptor {
 
-    private final IpExtractor ipExtractor;
-    private final GeoIpService geoIpService;
+    private final ClientContextResolver clientContextResolver;
     private final MetricsService metricsService;
 
     private static final String UNKNOWN = "unknown";
@@ -33,11 +31,11 @@ public class RequestLoggingInterceptor implements HandlerInterceptor {
         request.setAttribute("startTime", startTime);
 
         String requestId = UUID.randomUUID().toString();
-        String clientIp = ipExtractor.extractClientIp(request);
-        String country = geoIpService.getCountry(clientIp).orElse(UNKNOWN);
+        ClientContext client = clientContextResolver.resolve(request);
+        String country = client.country().orElse(UNKNOWN);
 
         MDC.put("requestId", requestId);
-        MDC.put("clientIp", clientIp);
+        MDC.put("clientIp", client.ip());
         MDC.put("geoCountry", country);
         MDC.put("method", request.getMethod());
         MDC.put("path", request.getRequestURI());
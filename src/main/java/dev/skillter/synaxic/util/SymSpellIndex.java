@@ -0,0 +1,275 @@
+package dev.skillter.synaxic.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Symmetric-delete (SymSpell) spelling index over a fixed dictionary.
+ * <p>
+ * Every delete variant (up to {@code maxEditDistance} deleted characters) of every dictionary
+ * term is precomputed once, so a lookup only enumerates the delete variants of the input and
+ * probes a table. The lookup cost depends on the input length and the edit distance, not on
+ * the dictionary size. Variants are stored as 64-bit polynomial fingerprints in a primitive
+ * open-addressing table and derived from prefix hashes, so a lookup allocates no strings.
+ * Fingerprint collisions only add candidates: every candidate is verified with the optimal
+ * string alignment distance, which also counts adjacent transpositions such as
+ * {@code gmial.com} as a single edit.
+ * <p>
+ * Terms are ranked by their position in the source collection; on equal distance the
+ * earlier (more popular) term wins. Instances are immutable and thread-safe.
+ */
+public final class SymSpellIndex {
+
+    private static final int MAX_TERM_LENGTH = 255;
+    private static final long MULTIPLIER = 0x100000001B3L;
+    private static final long[] POWERS = new long[MAX_TERM_LENGTH + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * MULTIPLIER;
+        }
+    }
+
+    private final String[] terms;
+    private final Map<String, Integer> termRanks;
+    private final long[] fingerprints;
+    private final int[] ranks;
+    private final int mask;
+    private final int maxEditDistance;
+
+    private SymSpellIndex(String[] terms, Map<String, Integer> termRanks, long[] fingerprints, int[] ranks, int maxEditDistance) {
+        this.terms = terms;
+        this.termRanks = termRanks;
+        this.fingerprints = fingerprints;
+        this.ranks = ranks;
+        this.mask = fingerprints.length - 1;
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    public static SymSpellIndex empty() {
+        return build(List.of(), 0);
+    }
+
+    /**
+     * Builds an index over the given terms. Blank terms and terms longer than 255 characters
+     * are ignored; the first occurrence of a duplicated term keeps its rank.
+     */
+    public static SymSpellIndex build(Collection<String> source, int maxEditDistance) {
+        if (maxEditDistance < 0 || maxEditDistance > 2) {
+            throw new IllegalArgumentException("maxEditDistance must be between 0 and 2");
+        }
+
+        String[] terms = source.stream()
+                .filter(term -> term != null && !term.isEmpty() && term.length() <= MAX_TERM_LENGTH)
+                .collect(Collectors.toCollection(LinkedHashSet::new))
+                .toArray(String[]::new);
+
+        long entries = 0;
+        for (String term : terms) {
+            entries += variantCount(term.length(), maxEditDistance);
+        }
+        int capacity = Integer.highestOneBit((int) Math.min(1 << 29, Math.max(8, entries))) << 2;
+
+        long[] fingerprints = new long[capacity];
+        int[] ranks = new int[capacity];
+        Arrays.fill(ranks, -1);
+
+        Map<String, Integer> termRanks = new HashMap<>(terms.length * 2);
+        long[] prefixes = new long[MAX_TERM_LENGTH + 1];
+        for (int rank = 0; rank < terms.length; rank++) {
+            int termRank = rank;
+            termRanks.put(terms[rank], rank);
+            forEachVariant(terms[rank], maxEditDistance, prefixes,
+                    fingerprint -> insert(fingerprints, ranks, fingerprint, termRank));
+        }
+
+        return new SymSpellIndex(terms, termRanks, fingerprints, ranks, maxEditDistance);
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    public boolean contains(String term) {
+        return termRanks.containsKey(term);
+    }
+
+    /**
+     * Returns the closest dictionary term within {@code maxDistance} edits, or empty if the
+     * input is itself a dictionary term or nothing is close enough.
+     */
+    public Optional<String> closest(String input, int maxDistance) {
+        if (input == null || input.isEmpty() || input.length() > MAX_TERM_LENGTH || termRanks.containsKey(input)) {
+            return Optional.empty();
+        }
+
+        int limit = Math.min(maxDistance, maxEditDistance);
+        if (limit <= 0) {
+            return Optional.empty();
+        }
+
+        Match match = new Match(limit + 1);
+        forEachVariant(input, limit, new long[input.length() + 1], fingerprint -> probe(input, fingerprint, match));
+        return match.rank >= 0 ? Optional.of(terms[match.rank]) : Optional.empty();
+    }
+
+    private void probe(String input, long fingerprint, Match match) {
+        for (int slot = slot(fingerprint, mask); ranks[slot] >= 0; slot = (slot + 1) & mask) {
+            int rank = ranks[slot];
+            if (fingerprints[slot] != fingerprint || rank == match.rank) {
+                continue;
+            }
+            int distance = optimalStringAlignmentDistance(input, terms[rank], match.distance + 1);
+            if (distance < match.distance || (distance == match.distance && rank < match.rank)) {
+                match.distance = distance;
+                match.rank = rank;
+            }
+        }
+    }
+
+    private static void insert(long[] fingerprints, int[] ranks, long fingerprint, int rank) {
+        int mask = fingerprints.length - 1;
+        int slot = slot(fingerprint, mask);
+        while (ranks[slot] >= 0) {
+            if (fingerprints[slot] == fingerprint && ranks[slot] == rank) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        fingerprints[slot] = fingerprint;
+        ranks[slot] = rank;
+    }
+
+    private static int slot(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    private static long variantCount(int length, int maxEditDistance) {
+        long count = 1;
+        if (maxEditDistance >= 1) {
+            count += length;
+        }
+        if (maxEditDistance >= 2) {
+            count += (long) length * (length - 1) / 2;
+        }
+        return count;
+    }
+
+    /**
+     * Emits the fingerprint of {@code term} and of every string obtained by deleting up to
+     * {@code maxEditDistance} characters from it. The same variant may be emitted twice,
+     * e.g. when deleting either character of a doubled letter.
+     */
+    private static void forEachVariant(String term, int maxEditDistance, long[] prefixes, LongConsumer consumer) {
+        int n = term.length();
+        prefixes[0] = 0;
+        for (int i = 0; i < n; i++) {
+            prefixes[i + 1] = prefixes[i] * MULTIPLIER + term.charAt(i);
+        }
+
+        consumer.accept(finish(prefixes[n], n));
+        if (maxEditDistance < 1) {
+            return;
+        }
+
+        for (int i = 0; i < n; i++) {
+            long hash = prefixes[i] * POWERS[n - i - 1] + segment(prefixes, i + 1, n);
+            consumer.accept(finish(hash, n - 1));
+        }
+        if (maxEditDistance < 2) {
+            return;
+        }
+
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                long hash = prefixes[i] * POWERS[n - i - 2]
+                        + segment(prefixes, i + 1, j) * POWERS[n - j - 1]
+                        + segment(prefixes, j + 1, n);
+                consumer.accept(finish(hash, n - 2));
+            }
+        }
+    }
+
+    private static long segment(long[] prefixes, int from, int to) {
+        return prefixes[to] - prefixes[from] * POWERS[to - from];
+    }
+
+    private static long finish(long hash, int length) {
+        long h = hash ^ ((long) length << 56);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Optimal string alignment (restricted Damerau-Levenshtein) distance. Returns
+     * {@code limit} as soon as the distance is known to reach {@code limit}.
+     */
+    static int optimalStringAlignmentDistance(String a, String b, int limit) {
+        int lengthA = a.length();
+        int lengthB = b.length();
+        if (Math.abs(lengthA - lengthB) >= limit) {
+            return limit;
+        }
+
+        int[] previousPrevious = new int[lengthB + 1];
+        int[] previous = new int[lengthB + 1];
+        int[] current = new int[lengthB + 1];
+        for (int j = 0; j <= lengthB; j++) {
+            previous[j] = j;
+        }
+        int previousRowMinimum = 0;
+
+        for (int i = 1; i <= lengthA; i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            char charA = a.charAt(i - 1);
+            for (int j = 1; j <= lengthB; j++) {
+                char charB = b.charAt(j - 1);
+                int cost = charA == charB ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && charA == b.charAt(j - 2) && a.charAt(i - 2) == charB) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMinimum = Math.min(rowMinimum, value);
+            }
+            // A transposition can skip one row, so two consecutive rows must reach the limit
+            if (rowMinimum >= limit && previousRowMinimum >= limit) {
+                return limit;
+            }
+            previousRowMinimum = rowMinimum;
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return Math.min(previous[lengthB], limit);
+    }
+
+    @Override
+    public String toString() {
+        return "SymSpellIndex{terms=" + terms.length + ", slots=" + fingerprints.length
+                + ", maxEditDistance=" + maxEditDistance + "}";
+    }
+
+    private static final class Match {
+        private int distance;
+        private int rank = -1;
+
+        private Match(int distance) {
+            this.distance = distance;
+        }
+    }
+}
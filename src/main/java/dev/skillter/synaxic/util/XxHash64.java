@@ -0,0 +1,123 @@
+package dev.skillter.synaxic.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the XXH64 non-cryptographic hash (seed 0 by default), matching
+ * the reference implementation byte for byte. Input may arrive in chunks of any size; up to
+ * 31 bytes are carried over between updates until a full 32-byte stripe is available.
+ */
+public final class XxHash64 {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final long seed;
+    private final byte[] pending = new byte[32];
+    private int pendingLength;
+    private long totalLength;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+
+    public XxHash64() {
+        this(0L);
+    }
+
+    public XxHash64(long seed) {
+        this.seed = seed;
+        this.v1 = seed + PRIME64_1 + PRIME64_2;
+        this.v2 = seed + PRIME64_2;
+        this.v3 = seed;
+        this.v4 = seed - PRIME64_1;
+    }
+
+    public void update(byte[] input, int offset, int length) {
+        totalLength += length;
+        int end = offset + length;
+
+        if (pendingLength > 0) {
+            int fill = Math.min(32 - pendingLength, length);
+            System.arraycopy(input, offset, pending, pendingLength, fill);
+            pendingLength += fill;
+            offset += fill;
+            if (pendingLength < 32) {
+                return;
+            }
+            stripe(pending, 0);
+            pendingLength = 0;
+        }
+
+        for (; offset + 32 <= end; offset += 32) {
+            stripe(input, offset);
+        }
+
+        if (offset < end) {
+            System.arraycopy(input, offset, pending, 0, end - offset);
+            pendingLength = end - offset;
+        }
+    }
+
+    public long getValue() {
+        long hash;
+        if (totalLength >= 32) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME64_5;
+        }
+        hash += totalLength;
+
+        int i = 0;
+        for (; i + 8 <= pendingLength; i += 8) {
+            hash ^= round(0, (long) LONG_LE.get(pending, i));
+            hash = Long.rotateLeft(hash, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (i + 4 <= pendingLength) {
+            hash ^= ((int) INT_LE.get(pending, i) & 0xFFFF_FFFFL) * PRIME64_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME64_2 + PRIME64_3;
+            i += 4;
+        }
+        for (; i < pendingLength; i++) {
+            hash ^= (pending[i] & 0xFFL) * PRIME64_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME64_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME64_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME64_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private void stripe(byte[] input, int offset) {
+        v1 = round(v1, (long) LONG_LE.get(input, offset));
+        v2 = round(v2, (long) LONG_LE.get(input, offset + 8));
+        v3 = round(v3, (long) LONG_LE.get(input, offset + 16));
+        v4 = round(v4, (long) LONG_LE.get(input, offset + 24));
+    }
+
+    private static long round(long accumulator, long lane) {
+        accumulator += lane * PRIME64_2;
+        accumulator = Long.rotateLeft(accumulator, 31);
+        return accumulator * PRIME64_1;
+    }
+
+    private static long mergeRound(long accumulator, long value) {
+        accumulator ^= round(0, value);
+        return accumulator * PRIME64_1 + PRIME64_4;
+    }
+}
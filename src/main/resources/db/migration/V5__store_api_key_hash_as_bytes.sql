@@ -0,0 +1,3 @@
+-- Store API key hashes as the raw 32-byte SHA-256 digest instead of 64 hex characters
+-- Halves the column and lets authentication compare digests without hex encoding
+ALTER TABLE api_key ALTER COLUMN key_hash TYPE BYTEA USING decode(key_hash, 'hex');
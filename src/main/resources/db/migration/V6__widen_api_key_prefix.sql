@@ -0,0 +1,6 @@
+-- v2 keys are looked up by "syn_live_v2." plus a 16-character key ID (28 characters)
+-- Legacy 12-character prefixes stay valid in the wider column
+ALTER TABLE api_key ALTER COLUMN prefix TYPE VARCHAR(32);
+
+-- The UNIQUE constraint on prefix already provides an index
+DROP INDEX IF EXISTS idx_api_key_prefix;
@@ -0,0 +1,11 @@
+-- Progress of the job that compacts old hourly usage into daily rows and old daily rows into monthly rows
+CREATE TABLE IF NOT EXISTS api_key_usage_rollup (
+    target_period_type VARCHAR(20) PRIMARY KEY,
+    compacted_before TIMESTAMP WITH TIME ZONE,
+    rows_compacted BIGINT NOT NULL DEFAULT 0,
+    last_run_at TIMESTAMP WITH TIME ZONE
+);
+
+-- The rollup selects the oldest rows of one granularity
+CREATE INDEX IF NOT EXISTS idx_api_key_usage_type_period
+ON api_key_usage(period_type, period_start);
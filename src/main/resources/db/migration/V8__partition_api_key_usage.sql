@@ -0,0 +1,84 @@
+-- Convert api_key_usage to monthly range partitions on period_start so range scans prune
+-- partitions and retention detaches whole months instead of deleting rows.
+-- Rolled-up daily and monthly rows start inside the month they summarize, so they stay in its partition.
+
+-- Creates the partition for the month starting at month_start if it does not exist yet
+CREATE OR REPLACE FUNCTION create_api_key_usage_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := 'api_key_usage_p' || to_char(month_start, 'YYYYMM');
+    range_start TIMESTAMPTZ := date_trunc('month', month_start::TIMESTAMP) AT TIME ZONE 'UTC';
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF api_key_usage FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_start + INTERVAL '1 month');
+    RETURN partition_name;
+END;
+$$ language 'plpgsql';
+
+-- Move the existing table aside, keeping its sequence for the new table
+ALTER TABLE api_key_usage RENAME TO api_key_usage_unpartitioned;
+ALTER TABLE api_key_usage_unpartitioned RENAME CONSTRAINT uk_api_key_usage_period TO uk_api_key_usage_unpartitioned_period;
+ALTER INDEX api_key_usage_pkey RENAME TO api_key_usage_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_api_key_usage_key_period;
+DROP INDEX IF EXISTS idx_api_key_usage_period_start;
+DROP INDEX IF EXISTS idx_api_key_usage_key_id_type;
+DROP INDEX IF EXISTS idx_api_key_usage_type_period;
+
+-- Unique constraints on a partitioned table must include the partition key
+CREATE TABLE api_key_usage (
+    id BIGINT NOT NULL DEFAULT nextval('api_key_usage_id_seq'),
+    api_key_id BIGINT NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    period_start TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    period_type VARCHAR(20) NOT NULL DEFAULT 'hourly',
+    last_updated TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT api_key_usage_pkey
+        PRIMARY KEY (id, period_start),
+
+    CONSTRAINT fk_api_key_usage_key_id
+        FOREIGN KEY (api_key_id)
+        REFERENCES api_key(id)
+        ON DELETE CASCADE,
+
+    -- Also serves lookups by (api_key_id, period_start)
+    CONSTRAINT uk_api_key_usage_period
+        UNIQUE (api_key_id, period_start, period_type)
+) PARTITION BY RANGE (period_start);
+
+-- Catches rows outside every monthly partition, such as late replays into a detached month
+CREATE TABLE api_key_usage_default PARTITION OF api_key_usage DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_api_key_usage_key_id_type
+ON api_key_usage(api_key_id, period_type);
+
+CREATE INDEX IF NOT EXISTS idx_api_key_usage_type_period
+ON api_key_usage(period_type, period_start);
+
+-- One partition per month of existing data, plus the next three months
+DO $$
+DECLARE
+    month_start DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(period_start) AT TIME ZONE 'UTC'), date_trunc('month', now() AT TIME ZONE 'UTC'))::DATE
+    INTO month_start
+    FROM api_key_usage_unpartitioned;
+
+    WHILE month_start <= (date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_api_key_usage_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO api_key_usage (id, api_key_id, request_count, period_start, period_type, last_updated, created_at)
+SELECT id, api_key_id, request_count, period_start, period_type, last_updated, created_at
+FROM api_key_usage_unpartitioned;
+
+ALTER SEQUENCE api_key_usage_id_seq OWNED BY api_key_usage.id;
+DROP TABLE api_key_usage_unpartitioned;
+
+CREATE TRIGGER trg_api_key_usage_last_updated
+    BEFORE UPDATE ON api_key_usage
+    FOR EACH ROW
+    EXECUTE FUNCTION update_api_key_usage_last_updated();
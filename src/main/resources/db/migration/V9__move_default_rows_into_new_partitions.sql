@@ -0,0 +1,26 @@
+-- A month's partition cannot be created while api_key_usage_default holds rows for that month,
+-- which happens once partitions were not created ahead in time. The partition is now built as a
+-- plain table, the month's rows are moved into it from the DEFAULT partition and it is attached,
+-- all in the caller's transaction. Attaching scans the DEFAULT partition, which is normally empty.
+-- The month end is computed before converting to UTC so the session time zone cannot shift it.
+CREATE OR REPLACE FUNCTION create_api_key_usage_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := 'api_key_usage_p' || to_char(month_start, 'YYYYMM');
+    range_start TIMESTAMPTZ := date_trunc('month', month_start::TIMESTAMP) AT TIME ZONE 'UTC';
+    range_end TIMESTAMPTZ := (date_trunc('month', month_start::TIMESTAMP) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE api_key_usage INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format('WITH moved AS (DELETE FROM api_key_usage_default WHERE period_start >= %L AND period_start < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   range_start, range_end, partition_name);
+    -- Indexes, the foreign key and the last_updated trigger are cloned from the parent on attach
+    EXECUTE format('ALTER TABLE api_key_usage ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, range_start, range_end);
+    RETURN partition_name;
+END;
+$$ language 'plpgsql';
@@ -128,6 +128,7 @@ function formatComponentName(name) {
     const names = {
         'db': 'Database',
         'diskSpace': 'Disk Space',
+        'geoIp': 'GeoIP Database',
         'ping': 'Ping',
         'redis': 'Redis Cache',
         'ssl': 'SSL Certificates'
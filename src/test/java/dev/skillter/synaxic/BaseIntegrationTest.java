@@ -1,8 +1,10 @@
 package dev.skillter.synaxic;
 
 import dev.skillter.synaxic.config.NoDockerConfig;
+import org.flywaydb.core.Flyway;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -11,6 +13,8 @@ import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
+import javax.sql.DataSource;
+
 @SpringBootTest(
     webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
     properties = "spring.main.allow-bean-definition-overriding=true"
@@ -52,6 +56,25 @@ public abstract class BaseIntegrationTest {
         } catch (Exception ignored) {}
     }
 
+    /**
+     * Runs the Flyway migrations up to {@code targetVersion} into {@code schema} of the Postgres
+     * container and returns a data source whose search path is that schema. Calling it again
+     * with a later version continues from where the schema is. The application context keeps
+     * using Hibernate's create-drop on the default schema, so SQL that depends on the migrated
+     * table layout (partitions, functions, triggers) is tested against its own schema.
+     */
+    protected static DataSource migrateSchema(String schema, String targetVersion) {
+        Flyway.configure()
+                .dataSource(postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword())
+                .schemas(schema)
+                .target(targetVersion)
+                .load()
+                .migrate();
+        String url = postgresContainer.getJdbcUrl();
+        return new DriverManagerDataSource(url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema,
+                postgresContainer.getUsername(), postgresContainer.getPassword());
+    }
+
     @DynamicPropertySource
     static void overrideProperties(DynamicPropertyRegistry registry) {
         if (dockerAvailable && postgresContainer != null && postgresContainer.isRunning()) {
@@ -0,0 +1,81 @@
+package dev.skillter.synaxic.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import dev.skillter.synaxic.model.dto.ColorConversionResponse;
+import dev.skillter.synaxic.model.dto.EmailValidationResponse;
+import dev.skillter.synaxic.model.dto.IpResponse;
+import dev.skillter.synaxic.model.dto.UnitConversionResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares serialization cost and size of the hot response DTOs for the previous pretty-printed
+ * reflection mapper and the compact Blackbird mapper. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class JsonSerializationBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    private static final List<Object> RESPONSES = List.of(
+            IpResponse.builder().ip("203.0.113.195").ipVersion("IPv4").build(),
+            new UnitConversionResponse("km", "mi", 42.0, 26.097590073968025),
+            new ColorConversionResponse("#1e90ff", "rgb(30, 144, 255)", "hsl(210, 100%, 56%)"),
+            EmailValidationResponse.builder()
+                    .email("someone@gmial.com")
+                    .domain("gmial.com")
+                    .isValidSyntax(true)
+                    .isDisposable(false)
+                    .hasMxRecords(false)
+                    .suggestion("someone@gmail.com")
+                    .build()
+    );
+
+    @Test
+    void compactBlackbirdIsSmallerAndNoSlower() throws Exception {
+        ObjectMapper reflection = new ObjectMapper();
+        ObjectMapper blackbird = new ObjectMapper().registerModule(new BlackbirdModule());
+
+        Map<String, ObjectWriter> writers = new LinkedHashMap<>();
+        writers.put("pretty/reflection", reflection.writer(SerializationFeature.INDENT_OUTPUT));
+        writers.put("compact/reflection", reflection.writer());
+        writers.put("compact/blackbird", blackbird.writer());
+
+        Map<String, Double> nanosPerResponse = new LinkedHashMap<>();
+        Map<String, Integer> bytesPerRound = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectWriter> entry : writers.entrySet()) {
+            run(entry.getValue(), WARMUP_ITERATIONS);
+
+            long start = System.nanoTime();
+            long bytes = run(entry.getValue(), MEASURED_ITERATIONS);
+            double nanos = (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+            nanosPerResponse.put(entry.getKey(), nanos);
+            bytesPerRound.put(entry.getKey(), (int) (bytes / (MEASURED_ITERATIONS / RESPONSES.size())));
+            System.out.printf("%-20s %8.1f ns/response %5d bytes per 4 responses%n",
+                    entry.getKey(), nanos, bytesPerRound.get(entry.getKey()));
+        }
+
+        assertThat(bytesPerRound.get("compact/blackbird")).isLessThan(bytesPerRound.get("pretty/reflection"));
+        // Allow for noise; the point is that compact output with Blackbird is not a regression
+        assertThat(nanosPerResponse.get("compact/blackbird")).isLessThan(nanosPerResponse.get("pretty/reflection") * 1.1);
+    }
+
+    private static long run(ObjectWriter writer, int iterations) throws Exception {
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            bytes += writer.writeValueAsBytes(RESPONSES.get(i % RESPONSES.size())).length;
+        }
+        return bytes;
+    }
+}
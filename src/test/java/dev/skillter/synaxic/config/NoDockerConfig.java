@@ -6,6 +6,7 @@ import io.github.bucket4j.distributed.proxy.ProxyManager;
 import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
 import org.redisson.api.RAtomicLong;
 import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
 import org.redisson.api.RTopic;
 import org.redisson.api.RedissonClient;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -44,6 +45,9 @@ public class NoDockerConfig {
         when(mockBucket.get()).thenReturn(null);
         when(mockClient.getBucket(anyString())).thenReturn(mockBucket);
         
+        // Scheduled cluster-singleton jobs never acquire the lock, so they skip the database
+        when(mockClient.getLock(anyString())).thenReturn(mock(RLock.class));
+        
         return mockClient;
     }
 
@@ -0,0 +1,65 @@
+package dev.skillter.synaxic.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.skillter.synaxic.model.dto.IpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrettyPrintJsonHttpMessageConverterTest {
+
+    private final PrettyPrintJsonHttpMessageConverter converter = new PrettyPrintJsonHttpMessageConverter(new ObjectMapper());
+
+    private final IpResponse body = IpResponse.builder().ip("203.0.113.195").ipVersion("IPv4").build();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void write_WithoutPrettyParameter_WritesCompactJson() throws Exception {
+        bindRequest(null);
+
+        assertThat(write()).isEqualTo("{\"ip\":\"203.0.113.195\",\"ipVersion\":\"IPv4\"}");
+    }
+
+    @Test
+    void write_PrettyTrue_IndentsOutput() throws Exception {
+        bindRequest("true");
+
+        assertThat(write()).contains("\n").contains("  \"ip\" : \"203.0.113.195\"");
+    }
+
+    @Test
+    void write_PrettyFalse_WritesCompactJson() throws Exception {
+        bindRequest("false");
+
+        assertThat(write()).doesNotContain("\n");
+    }
+
+    @Test
+    void write_OutsideRequest_WritesCompactJson() throws Exception {
+        assertThat(write()).doesNotContain("\n");
+    }
+
+    private void bindRequest(String pretty) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/ip");
+        if (pretty != null) {
+            request.setParameter(PrettyPrintJsonHttpMessageConverter.PRETTY_PARAMETER, pretty);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private String write() throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsString();
+    }
+}
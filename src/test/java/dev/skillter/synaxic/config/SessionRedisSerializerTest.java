@@ -0,0 +1,60 @@
+package dev.skillter.synaxic.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionRedisSerializerTest {
+
+    private final SessionRedisSerializer serializer = new SessionRedisSerializer(getClass().getClassLoader());
+
+    @Test
+    void roundTrip_SecurityContext_RestoresOAuth2Principal() {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("OIDC_USER"));
+        DefaultOAuth2User principal = new DefaultOAuth2User(authorities,
+                Map.of("sub", "google123", "email", "test@example.com"), "sub");
+        SecurityContext context = new SecurityContextImpl(new OAuth2AuthenticationToken(principal, authorities, "google"));
+
+        Object restored = serializer.deserialize(serializer.serialize(context));
+
+        assertThat(restored).isInstanceOf(SecurityContext.class);
+        OAuth2AuthenticationToken token = (OAuth2AuthenticationToken) ((SecurityContext) restored).getAuthentication();
+        assertThat(token.getName()).isEqualTo("google123");
+        assertThat(token.getPrincipal().<String>getAttribute("email")).isEqualTo("test@example.com");
+        assertThat(token.getAuthorizedClientRegistrationId()).isEqualTo("google");
+    }
+
+    @Test
+    void roundTrip_SessionAttributes_KeepsValues() {
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("name", "Test User");
+        userInfo.put("email", "test@example.com");
+
+        assertThat(serializer.deserialize(serializer.serialize(userInfo))).isEqualTo(userInfo);
+        assertThat(serializer.deserialize(serializer.serialize(Boolean.TRUE))).isEqualTo(true);
+        assertThat(((Number) serializer.deserialize(serializer.serialize(42L))).longValue()).isEqualTo(42L);
+    }
+
+    @Test
+    void deserialize_LegacyJdkValue_IsStillRead() {
+        byte[] legacy = new JdkSerializationRedisSerializer().serialize(42L);
+
+        assertThat(serializer.deserialize(legacy)).isEqualTo(42L);
+    }
+
+    @Test
+    void deserialize_UnreadableValue_ReturnsNull() {
+        assertThat(serializer.deserialize("{not json".getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+}
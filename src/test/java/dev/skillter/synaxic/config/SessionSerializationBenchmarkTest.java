@@ -0,0 +1,115 @@
+package dev.skillter.synaxic.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes and serialization time of the session a dashboard request reads from Redis: the old
+ * JDK-serialized OIDC principal against the slimmed principal written as JSON.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class SessionSerializationBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    @Test
+    void slimJsonSessionIsSmallerThanJdkSession() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", "https://accounts.google.com");
+        claims.put("azp", "1234567890-abcdefghijklmnop.apps.googleusercontent.com");
+        claims.put("aud", List.of("1234567890-abcdefghijklmnop.apps.googleusercontent.com"));
+        claims.put("sub", "109876543210987654321");
+        claims.put("email", "someone@example.com");
+        claims.put("email_verified", true);
+        claims.put("at_hash", "HK6E_P6Dh8Y93mRNtsDB1Q");
+        claims.put("nonce", "0394852-3190485-2490358");
+        claims.put("name", "Some One");
+        claims.put("picture", "https://lh3.googleusercontent.com/a/ACg8ocJ-example=s96-c");
+        claims.put("given_name", "Some");
+        claims.put("family_name", "One");
+        OidcIdToken idToken = new OidcIdToken("eyJhbGciOiJSUzI1NiIsImtpZCI6ImV4YW1wbGUifQ." + "x".repeat(900) + ".signature",
+                Instant.now(), Instant.now().plusSeconds(3600), claims);
+        List<GrantedAuthority> authorities = List.of(new OidcUserAuthority(idToken),
+                new SimpleGrantedAuthority("SCOPE_openid"), new SimpleGrantedAuthority("SCOPE_email"),
+                new SimpleGrantedAuthority("SCOPE_profile"));
+        DefaultOidcUser oidcUser = new DefaultOidcUser(authorities, idToken);
+        SecurityContextImpl fullContext = new SecurityContextImpl(
+                new OAuth2AuthenticationToken(oidcUser, authorities, "google"));
+
+        List<GrantedAuthority> slimAuthorities = authorities.stream()
+                .<GrantedAuthority>map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
+                .toList();
+        Map<String, Object> slimAttributes = Map.of("sub", claims.get("sub"), "name", claims.get("name"),
+                "email", claims.get("email"), "picture", claims.get("picture"));
+        SecurityContextImpl slimContext = new SecurityContextImpl(new OAuth2AuthenticationToken(
+                new DefaultOAuth2User(slimAuthorities, slimAttributes, "sub"), slimAuthorities, "google"));
+
+        JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+        SessionRedisSerializer json = new SessionRedisSerializer(getClass().getClassLoader());
+
+        long jdkBytes = measure("jdk/full-oidc", jdk, session(fullContext));
+        long jsonBytes = measure("json/slim", json, session(slimContext));
+
+        System.out.printf("Saved %d bytes (%.0f%%) per session read%n",
+                jdkBytes - jsonBytes, 100.0 * (jdkBytes - jsonBytes) / jdkBytes);
+        assertThat(jsonBytes).isLessThan(jdkBytes);
+    }
+
+    private static Map<String, Object> session(SecurityContextImpl context) {
+        Map<String, Object> userInfo = new HashMap<>();
+        userInfo.put("name", "Some One");
+        userInfo.put("email", "someone@example.com");
+        userInfo.put("picture", "https://lh3.googleusercontent.com/a/ACg8ocJ-example=s96-c");
+
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("SPRING_SECURITY_CONTEXT", context);
+        attributes.put("oauth2_user", userInfo);
+        attributes.put("user_id", 42L);
+        attributes.put("login_time", System.currentTimeMillis());
+        attributes.put("authenticated", true);
+        return attributes;
+    }
+
+    private static long measure(String label, RedisSerializer<Object> serializer, Map<String, Object> attributes) {
+        long bytes = 0;
+        for (Object value : attributes.values()) {
+            bytes += serializer.serialize(value).length;
+        }
+
+        run(serializer, attributes, WARMUP_ITERATIONS);
+        long start = System.nanoTime();
+        run(serializer, attributes, MEASURED_ITERATIONS);
+        double micros = (System.nanoTime() - start) / 1e3 / MEASURED_ITERATIONS;
+
+        System.out.printf("%-15s %6d bytes/session %8.2f us write+read%n", label, bytes, micros);
+        return bytes;
+    }
+
+    private static void run(RedisSerializer<Object> serializer, Map<String, Object> attributes, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            for (Object value : attributes.values()) {
+                serializer.deserialize(serializer.serialize(value));
+            }
+        }
+    }
+}
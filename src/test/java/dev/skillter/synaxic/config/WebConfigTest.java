@@ -0,0 +1,33 @@
+package dev.skillter.synaxic.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.skillter.synaxic.model.dto.IpResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebConfigTest {
+
+    private final WebConfig webConfig = new WebConfig(null);
+
+    @Test
+    void objectMapper_BuilderExcludingNulls_StillWritesNullFields() throws Exception {
+        ObjectMapper mapper = webConfig.objectMapper(
+                new Jackson2ObjectMapperBuilder().serializationInclusion(JsonInclude.Include.NON_NULL));
+
+        assertThat(mapper.writeValueAsString(new Body(null))).isEqualTo("{\"value\":null}");
+    }
+
+    @Test
+    void objectMapper_DtoOptingOut_OmitsNullFields() throws Exception {
+        ObjectMapper mapper = webConfig.objectMapper(new Jackson2ObjectMapperBuilder());
+
+        assertThat(mapper.writeValueAsString(IpResponse.builder().ip("203.0.113.195").build()))
+                .isEqualTo("{\"ip\":\"203.0.113.195\"}");
+    }
+
+    record Body(String value) {
+    }
+}
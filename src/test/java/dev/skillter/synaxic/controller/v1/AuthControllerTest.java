@@ -5,6 +5,9 @@ import dev.skillter.synaxic.model.dto.GeneratedApiKey;
 import dev.skillter.synaxic.model.entity.ApiKey;
 import dev.skillter.synaxic.model.entity.User;
 import dev.skillter.synaxic.repository.ApiKeyUsageRepository;
+import dev.skillter.synaxic.security.CurrentUserResolver;
+import dev.skillter.synaxic.security.FrontendTokenService;
+import dev.skillter.synaxic.security.UserSnapshot;
 import dev.skillter.synaxic.service.AccountUsageService;
 import dev.skillter.synaxic.service.ApiKeyService;
 import dev.skillter.synaxic.service.UserService;
@@ -45,6 +48,12 @@ class AuthControllerTest {
     @Mock
     private ApiKeyUsageRepository apiKeyUsageRepository;
 
+    @Mock
+    private FrontendTokenService frontendTokenService;
+
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+
     @InjectMocks
     private AuthController authController;
 
@@ -70,7 +79,7 @@ class AuthControllerTest {
                 .id(1L)
                 .user(testUser)
                 .prefix("syn_live_abc")
-                .keyHash("hashedkey")
+                .keyHash(new byte[]{1})
                 .quotaLimit(10000)
                 .createdAt(Instant.now())
                 .lastUsedAt(Instant.now())
@@ -79,7 +88,7 @@ class AuthControllerTest {
 
     @Test
     void getApiKeys_WithValidUser_ShouldReturnKeys() {
-        when(userService.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(currentUserResolver.resolve(oauth2User)).thenReturn(Optional.of(UserSnapshot.of(testUser)));
         when(apiKeyService.findAllByUserId(1L)).thenReturn(Arrays.asList(testApiKey));
         // Mock batch query methods to avoid NPE
         Object[] todayRow = new Object[]{1L, 10L};
@@ -99,7 +108,7 @@ class AuthControllerTest {
 
     @Test
     void getUserStats_WithValidUser_ShouldReturnStats() {
-        when(userService.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(currentUserResolver.resolve(oauth2User)).thenReturn(Optional.of(UserSnapshot.of(testUser)));
         // Mock account usage service calls
         when(accountUsageService.getTotalRequestsForUser(1L)).thenReturn(500L);
         when(accountUsageService.getTodayRequestsForUser(1L)).thenReturn(50L);
@@ -120,7 +129,7 @@ class AuthControllerTest {
                 .accountRequestsUsed(500L)
                 .build();
 
-        when(userService.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(currentUserResolver.resolve(oauth2User)).thenReturn(Optional.of(UserSnapshot.of(testUser)));
         when(accountUsageService.getAccountUsage(1L)).thenReturn(usageDto);
 
         ResponseEntity<AccountUsageDto> response = authController.getAccountUsage(oauth2User);
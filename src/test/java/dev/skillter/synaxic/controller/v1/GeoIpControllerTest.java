@@ -0,0 +1,93 @@
+package dev.skillter.synaxic.controller.v1;
+
+import dev.skillter.synaxic.exception.BatchTooLargeException;
+import dev.skillter.synaxic.exception.RateLimitExceededException;
+import dev.skillter.synaxic.model.dto.GeoLocationResponse;
+import dev.skillter.synaxic.service.GeoIpService;
+import dev.skillter.synaxic.service.RateLimitService;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GeoIpControllerTest {
+
+    @Mock
+    private GeoIpService geoIpService;
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private ClientContextResolver clientContextResolver;
+
+    @InjectMocks
+    private GeoIpController geoIpController;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void getLocations_WithinQuota_ChargesEachAddressAndReturnsResults() {
+        List<String> ips = List.of("8.8.8.8", "1.1.1.1", "9.9.9.9");
+        List<GeoLocationResponse> results = List.of(
+                GeoLocationResponse.builder().ip("8.8.8.8").build(),
+                GeoLocationResponse.builder().ip("1.1.1.1").build(),
+                GeoLocationResponse.builder().ip("9.9.9.9").build());
+        when(rateLimitService.getCapacity(request)).thenReturn(1000L);
+        when(rateLimitService.consumeAdditional(request, 2L)).thenReturn(995L);
+        when(geoIpService.getLocations(ips)).thenReturn(results);
+
+        List<GeoLocationResponse> locations = geoIpController.getLocations(ips, request, response);
+
+        assertThat(locations).isEqualTo(results);
+        assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("995");
+    }
+
+    @Test
+    void getLocations_WhenQuotaExhausted_PropagatesRateLimitAndSkipsLookups() {
+        List<String> ips = List.of("8.8.8.8", "1.1.1.1");
+        when(rateLimitService.getCapacity(request)).thenReturn(1000L);
+        when(rateLimitService.consumeAdditional(request, 1L)).thenThrow(new RateLimitExceededException(120));
+
+        assertThatThrownBy(() -> geoIpController.getLocations(ips, request, response))
+                .isInstanceOf(RateLimitExceededException.class);
+        verifyNoInteractions(geoIpService);
+    }
+
+    @Test
+    void getLocations_LargerThanTierCapacity_IsRejectedWithoutCharging() {
+        List<String> ips = Collections.nCopies(1001, "8.8.8.8");
+        when(rateLimitService.getCapacity(request)).thenReturn(1000L);
+
+        assertThatThrownBy(() -> geoIpController.getLocations(ips, request, response))
+                .isInstanceOfSatisfying(BatchTooLargeException.class,
+                        e -> assertThat(e.getMaxBatchSize()).isEqualTo(1000L));
+        verify(rateLimitService, never()).consumeAdditional(any(), anyLong());
+        verifyNoInteractions(geoIpService);
+    }
+}
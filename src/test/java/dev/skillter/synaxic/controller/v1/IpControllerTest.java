@@ -4,6 +4,10 @@ import dev.skillter.synaxic.model.dto.EchoResponse;
 import dev.skillter.synaxic.model.dto.IpResponse;
 import dev.skillter.synaxic.model.dto.WhoAmIResponse;
 import dev.skillter.synaxic.service.IpInspectorService;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import dev.skillter.synaxic.util.HashAlgorithm;
+import dev.skillter.synaxic.util.HeaderRedactor;
+import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,13 +16,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.EnumSet;
+import java.util.HexFormat;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -62,14 +80,27 @@ class IpControllerTest {
     void getIp_ShouldReturnIpResponse() {
         when(ipInspectorService.getIpInfo(any(HttpServletRequest.class))).thenReturn(ipResponse);
 
-        IpResponse response = ipController.getIp(request);
+        ResponseEntity<?> response = ipController.getIp(request);
 
-        assertThat(response).isNotNull();
-        assertThat(response.getIp()).isEqualTo("192.168.1.1");
-        assertThat(response.getIpVersion()).isEqualTo("IPv4");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getBody()).isInstanceOf(IpResponse.class);
+        IpResponse body = (IpResponse) response.getBody();
+        assertThat(body.getIp()).isEqualTo("192.168.1.1");
+        assertThat(body.getIpVersion()).isEqualTo("IPv4");
         verify(ipInspectorService).getIpInfo(request);
     }
 
+    @Test
+    void getIp_AcceptTextPlain_ShouldReturnBareAddress() {
+        when(ipInspectorService.getIpInfo(any(HttpServletRequest.class))).thenReturn(ipResponse);
+        when(request.getHeader("Accept")).thenReturn("text/plain, */*;q=0.1");
+
+        ResponseEntity<?> response = ipController.getIp(request);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.TEXT_PLAIN);
+        assertThat(response.getBody()).isEqualTo("192.168.1.1\n");
+    }
+
     @Test
     void whoAmI_ShouldReturnWhoAmIResponse() {
         when(ipInspectorService.getRequestDetails(any(HttpServletRequest.class))).thenReturn(whoAmIResponse);
@@ -83,39 +114,76 @@ class IpControllerTest {
     }
 
     @Test
-    void echo_WithBody_ShouldReturnEchoResponse() {
-        byte[] body = "test data".getBytes();
-        when(ipInspectorService.processEcho(any(byte[].class), anyString())).thenReturn(echoResponse);
+    void echo_WithBody_ShouldStreamRequestBody() throws Exception {
+        ServletInputStream body = mock(ServletInputStream.class);
+        when(request.getInputStream()).thenReturn(body);
+        when(request.getContentLengthLong()).thenReturn(9L);
+        when(ipInspectorService.processEcho(any(InputStream.class), anyLong(), anyString(), isNull())).thenReturn(echoResponse);
 
-        ResponseEntity<EchoResponse> response = ipController.echo(body, "application/json");
+        ResponseEntity<EchoResponse> response = ipController.echo(request, "application/json");
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
         assertThat(response.getBody().getSize()).isEqualTo(100L);
         assertThat(response.getBody().getSha256()).isEqualTo("abc123");
-        verify(ipInspectorService).processEcho(eq(body), eq("application/json"));
+        verify(ipInspectorService).processEcho(eq(body), eq(9L), eq("application/json"), isNull());
     }
 
     @Test
-    void echo_WithNullBody_ShouldReturnEchoResponse() {
-        when(ipInspectorService.processEcho(any(), any())).thenReturn(echoResponse);
+    void echo_WithNullContentType_ShouldReturnEchoResponse() throws Exception {
+        ServletInputStream body = mock(ServletInputStream.class);
+        when(request.getInputStream()).thenReturn(body);
+        when(request.getContentLengthLong()).thenReturn(-1L);
+        when(ipInspectorService.processEcho(any(InputStream.class), anyLong(), any(), any())).thenReturn(echoResponse);
 
-        ResponseEntity<EchoResponse> response = ipController.echo(null, null);
+        ResponseEntity<EchoResponse> response = ipController.echo(request, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        verify(ipInspectorService).processEcho(any(), eq(null));
+        verify(ipInspectorService).processEcho(eq(body), eq(-1L), isNull(), isNull());
     }
 
     @Test
-    void echo_WithNullContentType_ShouldReturnEchoResponse() {
-        byte[] body = "test data".getBytes();
-        when(ipInspectorService.processEcho(any(byte[].class), any())).thenReturn(echoResponse);
+    void echo_WithAlgorithms_ShouldPassParsedAlgorithms() throws Exception {
+        ServletInputStream body = mock(ServletInputStream.class);
+        when(request.getInputStream()).thenReturn(body);
+        when(request.getContentLengthLong()).thenReturn(-1L);
+        when(request.getQueryString()).thenReturn("pretty=true&algorithms=SHA-256%2Cmd5&algorithms=xxhash64");
+        when(ipInspectorService.processEcho(any(InputStream.class), anyLong(), any(), any())).thenReturn(echoResponse);
 
-        ResponseEntity<EchoResponse> response = ipController.echo(body, null);
+        ipController.echo(request, null);
+
+        verify(ipInspectorService).processEcho(eq(body), eq(-1L), isNull(),
+                eq(EnumSet.of(HashAlgorithm.SHA256, HashAlgorithm.MD5, HashAlgorithm.XXH64)));
+    }
+
+    @Test
+    void echo_WithUnknownAlgorithm_ShouldThrow() {
+        when(request.getQueryString()).thenReturn("algorithms=sha3");
+
+        assertThatThrownBy(() -> ipController.echo(request, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void echo_FormEncodedBody_ShouldHashBodyWithoutReadingParameters() throws Exception {
+        byte[] form = "name=synaxic&value=42".getBytes(StandardCharsets.UTF_8);
+        IpInspectorService realService = new IpInspectorService(mock(HeaderRedactor.class), mock(ClientContextResolver.class));
+        ReflectionTestUtils.setField(realService, "maxEchoBytes", 1024L);
+        ReflectionTestUtils.setField(realService, "parallelHashThresholdBytes", 1024L);
+        MockHttpServletRequest formPost = spy(new MockHttpServletRequest("POST", "/v1/echo"));
+        formPost.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+        formPost.setContent(form);
+
+        ResponseEntity<EchoResponse> response = new IpController(realService)
+                .echo(formPost, MediaType.APPLICATION_FORM_URLENCODED_VALUE);
 
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        verify(ipInspectorService).processEcho(eq(body), eq(null));
+        assertThat(response.getBody().getSize()).isEqualTo(form.length);
+        assertThat(response.getBody().getSha256())
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(form)));
+        verify(formPost, never()).getParameter(anyString());
+        verify(formPost, never()).getParameterMap();
+        verify(formPost, never()).getParameterValues(anyString());
     }
 }
@@ -0,0 +1,114 @@
+package dev.skillter.synaxic.security;
+
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import dev.skillter.synaxic.service.AccessTokenService;
+import dev.skillter.synaxic.service.ApiKeyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyAuthFilterTest {
+
+    private static final String API_KEY = "syn_live_v2.ABCDEFGHIJKLMNOP.secret";
+
+    @Mock
+    private ApiKeyService apiKeyService;
+
+    @Mock
+    private AccessTokenService accessTokenService;
+
+    @InjectMocks
+    private ApiKeyAuthFilter apiKeyAuthFilter;
+
+    private ApiKeyPrincipal apiKey;
+
+    @BeforeEach
+    void setUp() {
+        apiKey = new ApiKeyPrincipal(7L, "syn_live_v2.ABCDEFGHIJKLMNOP", new byte[32], 42L, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ValidAccessToken_AuthenticatesWithoutKeyLookup() throws Exception {
+        when(accessTokenService.isEnabled()).thenReturn(true);
+        when(accessTokenService.verify("token")).thenReturn(Optional.of(apiKey));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+
+        apiKeyAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authentication().isAccessToken()).isTrue();
+        verify(apiKeyService, never()).validateApiKey(anyString());
+    }
+
+    @Test
+    void doFilter_AccessTokensDisabled_UsesApiKeyHeader() throws Exception {
+        when(accessTokenService.isEnabled()).thenReturn(false);
+        when(apiKeyService.validateApiKey(API_KEY)).thenReturn(Optional.of(apiKey));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer some-oauth-token");
+        request.addHeader("X-API-Key", API_KEY);
+
+        apiKeyAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authentication().isAccessToken()).isFalse();
+        verify(accessTokenService, never()).verify(anyString());
+    }
+
+    @Test
+    void doFilter_InvalidAccessToken_FallsBackToApiKeyHeader() throws Exception {
+        when(accessTokenService.isEnabled()).thenReturn(true);
+        when(accessTokenService.verify("not-a-token")).thenReturn(Optional.empty());
+        when(apiKeyService.validateApiKey(API_KEY)).thenReturn(Optional.of(apiKey));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer not-a-token");
+        request.addHeader("X-API-Key", API_KEY);
+
+        apiKeyAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(authentication().getApiKey()).isEqualTo(apiKey);
+        assertThat(authentication().isAccessToken()).isFalse();
+        assertThat(request.getAttribute(ApiKeyAuthFilter.API_KEY_PREFIX_ATTRIBUTE)).isEqualTo(apiKey.prefix());
+    }
+
+    @Test
+    void doFilter_InvalidAccessTokenWithoutApiKey_LeavesRequestUnauthenticated() throws Exception {
+        when(accessTokenService.isEnabled()).thenReturn(true);
+        when(accessTokenService.verify("not-a-token")).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer not-a-token");
+
+        apiKeyAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(apiKeyService, never()).validateApiKey(anyString());
+    }
+
+    private static ApiKeyAuthentication authentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isInstanceOf(ApiKeyAuthentication.class);
+        return (ApiKeyAuthentication) authentication;
+    }
+}
@@ -0,0 +1,50 @@
+package dev.skillter.synaxic.security;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiRequestMatcherTest {
+
+    private final ApiRequestMatcher matcher = new ApiRequestMatcher();
+
+    @Test
+    void matches_AnonymousApiCall_UsesStatelessChain() {
+        assertThat(matcher.matches(request("/v1/convert/length"))).isTrue();
+    }
+
+    @Test
+    void matches_ApiKeyWithSessionCookie_UsesStatelessChain() {
+        MockHttpServletRequest request = request("/v1/ip");
+        request.addHeader("X-API-Key", "syn_live_abc");
+        request.setCookies(new Cookie(ApiRequestMatcher.SESSION_COOKIE, "session"));
+
+        assertThat(matcher.matches(request)).isTrue();
+    }
+
+    @Test
+    void matches_BrowserWithSessionCookie_UsesSessionChain() {
+        MockHttpServletRequest request = request("/v1/ip");
+        request.setCookies(new Cookie(ApiRequestMatcher.SESSION_COOKIE, "session"));
+
+        assertThat(matcher.matches(request)).isFalse();
+    }
+
+    @Test
+    void matches_AccountEndpoints_UseSessionChain() {
+        assertThat(matcher.matches(request("/v1/auth/api-keys"))).isFalse();
+        assertThat(matcher.matches(request("/v1/admin/stats"))).isFalse();
+    }
+
+    @Test
+    void matches_NonApiPaths_UseSessionChain() {
+        assertThat(matcher.matches(request("/dashboard"))).isFalse();
+        assertThat(matcher.matches(request("/api/stats"))).isFalse();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,109 @@
+package dev.skillter.synaxic.security;
+
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import dev.skillter.synaxic.model.entity.User;
+import dev.skillter.synaxic.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserResolverTest {
+
+    @Mock
+    private UserService userService;
+
+    private CurrentUserResolver currentUserResolver;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager("userSnapshot");
+        currentUserResolver = new CurrentUserResolver(userService, cacheManager);
+        testUser = User.builder()
+                .id(1L)
+                .email("test@example.com")
+                .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void resolve_SessionUserId_LoadsUserOnceThenServesFromCache() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession(true).setAttribute(CurrentUserResolver.SESSION_USER_ID, 1L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        OAuth2User oauth2User = mock(OAuth2User.class);
+
+        Optional<UserSnapshot> first = currentUserResolver.resolve(oauth2User);
+        Optional<UserSnapshot> second = currentUserResolver.resolve(oauth2User);
+
+        assertThat(first).contains(new UserSnapshot(1L, "test@example.com", testUser.getCreatedAt()));
+        assertThat(second).isEqualTo(first);
+        verify(userService, times(1)).findById(1L);
+        verify(userService, never()).findByEmail("test@example.com");
+    }
+
+    @Test
+    void resolve_ApiKeyPrincipal_UsesCachedSnapshotByUserId() {
+        ApiKeyPrincipal apiKey = new ApiKeyPrincipal(5L, "syn_live_abc", new byte[32], 1L, 1000);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+
+        currentUserResolver.resolve(apiKey);
+        Optional<UserSnapshot> second = currentUserResolver.resolve(new ApiKeyAuthentication(apiKey));
+
+        assertThat(second).map(UserSnapshot::email).contains("test@example.com");
+        verify(userService, times(1)).findById(1L);
+    }
+
+    @Test
+    void resolve_SessionWithoutUserId_FallsBackToEmailAndCachesById() {
+        OAuth2User oauth2User = mock(OAuth2User.class);
+        when(oauth2User.getAttribute("email")).thenReturn("test@example.com");
+        when(userService.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        assertThat(currentUserResolver.resolve(oauth2User)).map(UserSnapshot::id).contains(1L);
+        assertThat(currentUserResolver.findById(1L)).map(UserSnapshot::email).contains("test@example.com");
+        verify(userService, never()).findById(1L);
+    }
+
+    @Test
+    void resolve_FrontendToken_UsesTokenUserId() {
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+
+        Optional<UserSnapshot> user = currentUserResolver.resolve(
+                new FrontendTokenService.FrontendToken(1L, "token-id", Instant.now().plusSeconds(600)));
+
+        assertThat(user).map(UserSnapshot::email).contains("test@example.com");
+    }
+
+    @Test
+    void resolve_UnknownPrincipal_ReturnsEmpty() {
+        assertThat(currentUserResolver.resolve("anonymousUser")).isEmpty();
+        assertThat(currentUserResolver.resolve(null)).isEmpty();
+    }
+}
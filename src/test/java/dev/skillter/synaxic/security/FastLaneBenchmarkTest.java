@@ -0,0 +1,120 @@
+package dev.skillter.synaxic.security;
+
+import dev.skillter.synaxic.BaseIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares latency and throughput of {@code GET /v1/ip} through the fast lane and through the
+ * standard filter, security and MVC path. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = "synaxic.fast-lane.enabled=true")
+class FastLaneBenchmarkTest extends BaseIntegrationTest {
+
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int MEASURED_REQUESTS = 5_000;
+    private static final int THREADS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FastLaneFilter fastLaneFilter;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @AfterEach
+    void restore() {
+        ReflectionTestUtils.setField(fastLaneFilter, "enabled", true);
+    }
+
+    @Test
+    void fastLaneBeatsStandardPath() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FastLaneFilter.PATH))
+                .GET()
+                .build();
+
+        ReflectionTestUtils.setField(fastLaneFilter, "enabled", false);
+        long[] standard = measure(request);
+        double standardThroughput = throughput(request);
+
+        ReflectionTestUtils.setField(fastLaneFilter, "enabled", true);
+        long[] fastLane = measure(request);
+        double fastLaneThroughput = throughput(request);
+
+        report("standard", standard, standardThroughput);
+        report("fast lane", fastLane, fastLaneThroughput);
+
+        assertThat(percentile(fastLane, 50)).isLessThan(percentile(standard, 50));
+    }
+
+    private long[] measure(HttpRequest request) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            send(request);
+        }
+        long[] nanos = new long[MEASURED_REQUESTS];
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            long start = System.nanoTime();
+            send(request);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private double throughput(HttpRequest request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < MEASURED_REQUESTS / THREADS; i++) {
+                        send(request);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            return (MEASURED_REQUESTS / THREADS) * THREADS / seconds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void send(HttpRequest request) throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+
+    private static void report(String label, long[] sorted, double requestsPerSecond) {
+        System.out.printf("/v1/ip %-10s p50=%7.1f us  p99=%7.1f us  %8.0f req/s (%d threads)%n",
+                label, percentile(sorted, 50) / 1e3, percentile(sorted, 99) / 1e3, requestsPerSecond, THREADS);
+    }
+}
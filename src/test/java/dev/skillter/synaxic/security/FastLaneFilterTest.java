@@ -0,0 +1,91 @@
+package dev.skillter.synaxic.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dev.skillter.synaxic.service.DailyRequestTrackerService;
+import dev.skillter.synaxic.service.MetricsService;
+import dev.skillter.synaxic.service.RateLimitLeaseService;
+import dev.skillter.synaxic.service.RateLimitService;
+import dev.skillter.synaxic.util.ClientAddress;
+import dev.skillter.synaxic.util.ClientContext;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FastLaneFilterTest {
+
+    @Mock
+    private ClientContextResolver clientContextResolver;
+
+    @Mock
+    private RateLimitLeaseService rateLimitLeaseService;
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private DailyRequestTrackerService dailyRequestTrackerService;
+
+    @Mock
+    private MetricsService metricsService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private FastLaneFilter fastLaneFilter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        fastLaneFilter = new FastLaneFilter(clientContextResolver, rateLimitLeaseService, rateLimitService,
+                dailyRequestTrackerService, metricsService, new ObjectMapper().registerModule(new JavaTimeModule()));
+        ReflectionTestUtils.setField(fastLaneFilter, "enabled", true);
+        request = new MockHttpServletRequest("GET", FastLaneFilter.PATH);
+        ClientContext context = mock(ClientContext.class);
+        when(context.address()).thenReturn(ClientAddress.parse("203.0.113.195"));
+        when(clientContextResolver.resolve(request)).thenReturn(context);
+    }
+
+    @Test
+    void doFilter_LeaseAllowed_AnswersWithRateLimitHeaders() throws Exception {
+        when(rateLimitLeaseService.tryAcquire("203.0.113.195", RateLimitService.RateLimitTier.ANONYMOUS))
+                .thenReturn(new RateLimitLeaseService.LeaseResult(true, 41, 0));
+        when(rateLimitService.getLimit(RateLimitService.RateLimitTier.ANONYMOUS)).thenReturn(1000L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        fastLaneFilter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeaders("X-RateLimit-Limit")).containsExactly("1000");
+        assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("41");
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void doFilter_LeaseRejected_AnswersTooManyRequestsWithoutStandardPath() throws Exception {
+        when(rateLimitLeaseService.tryAcquire("203.0.113.195", RateLimitService.RateLimitTier.ANONYMOUS))
+                .thenReturn(new RateLimitLeaseService.LeaseResult(false, 0, 120));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        fastLaneFilter.doFilter(request, response, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("120");
+        assertThat(response.getHeader("X-RateLimit-Limit")).isNull();
+        assertThat(response.getContentAsString()).contains("\"retryAfterSeconds\":120");
+        verifyNoInteractions(filterChain, metricsService);
+    }
+}
@@ -0,0 +1,93 @@
+package dev.skillter.synaxic.security;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FrontendTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScoredSortedSet<Object> revokedSet;
+
+    @Mock
+    private RTopic topic;
+
+    private FrontendTokenService frontendTokenService;
+
+    @BeforeEach
+    void setUp() {
+        frontendTokenService = new FrontendTokenService(redissonClient, true, SECRET, 15);
+    }
+
+    @Test
+    void verify_IssuedToken_ReturnsUserId() {
+        Optional<FrontendTokenService.FrontendToken> token = frontendTokenService.verify(requestWith(frontendTokenService.issue(42L)));
+
+        assertThat(token).isPresent();
+        assertThat(token.get().userId()).isEqualTo(42L);
+        assertThat(frontendTokenService.shouldRefresh(token.get())).isFalse();
+    }
+
+    @Test
+    void verify_TokenSignedWithOtherKey_IsRejected() {
+        String foreign = new FrontendTokenService(redissonClient, true,
+                Base64.getEncoder().encodeToString("another-secret-of-at-least-32-bytes".getBytes()), 15).issue(42L);
+
+        assertThat(frontendTokenService.verify(requestWith(foreign))).isEmpty();
+        assertThat(frontendTokenService.verify(requestWith("not-a-jwt"))).isEmpty();
+        assertThat(frontendTokenService.verify(new MockHttpServletRequest())).isEmpty();
+    }
+
+    @Test
+    void constructor_WhenEnabledWithoutSecret_FailsStartup() {
+        assertThatThrownBy(() -> new FrontendTokenService(redissonClient, true, " ", 15))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void logout_RevokesTokenAndClearsCookie() {
+        when(redissonClient.getScoredSortedSet(anyString())).thenReturn(revokedSet);
+        when(redissonClient.getTopic(anyString())).thenReturn(topic);
+        MockHttpServletRequest request = requestWith(frontendTokenService.issue(42L));
+        String tokenId = frontendTokenService.verify(request).orElseThrow().tokenId();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        frontendTokenService.logout(request, response, null);
+
+        assertThat(frontendTokenService.verify(request)).isEmpty();
+        assertThat(response.getHeader("Set-Cookie")).startsWith(FrontendTokenService.COOKIE_NAME + "=;").contains("Max-Age=0");
+        verify(revokedSet).add(anyDouble(), eq(tokenId));
+        verify(topic).publish(tokenId);
+    }
+
+    private static MockHttpServletRequest requestWith(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/ip");
+        request.setCookies(new Cookie(FrontendTokenService.COOKIE_NAME, token));
+        return request;
+    }
+}
@@ -15,9 +15,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,6 +43,9 @@ class OAuth2LoginSuccessHandlerTest {
     @Mock
     private ApiKeyService apiKeyService;
 
+    @Mock
+    private FrontendTokenService frontendTokenService;
+
     @Mock
     private HttpServletRequest request;
 
@@ -68,7 +80,7 @@ class OAuth2LoginSuccessHandlerTest {
                 .id(1L)
                 .user(testUser)
                 .prefix("syn_live_abc")
-                .keyHash("hashedkey")
+                .keyHash(new byte[]{1})
                 .build();
 
         lenient().when(authentication.getPrincipal()).thenReturn(oauth2User);
@@ -127,4 +139,27 @@ class OAuth2LoginSuccessHandlerTest {
                    "https://example.com/pic.jpg".equals(info.get("picture"));
         }));
     }
+
+    @Test
+    void slimAuthentication_OidcLogin_KeepsOnlyReadAttributes() {
+        OidcIdToken idToken = new OidcIdToken("id-token-value", Instant.now(), Instant.now().plusSeconds(3600), Map.of(
+                "sub", "google123",
+                "iss", "https://accounts.google.com",
+                "email", "test@example.com",
+                "email_verified", true,
+                "name", "Test User",
+                "picture", "https://example.com/pic.jpg"));
+        DefaultOidcUser oidcUser = new DefaultOidcUser(
+                List.of(new OidcUserAuthority(idToken), new SimpleGrantedAuthority("SCOPE_openid")), idToken);
+        OAuth2AuthenticationToken token = new OAuth2AuthenticationToken(oidcUser, oidcUser.getAuthorities(), "google");
+
+        OAuth2AuthenticationToken slim = (OAuth2AuthenticationToken) OAuth2LoginSuccessHandler.slimAuthentication(token);
+
+        assertThat(slim.getPrincipal()).isNotInstanceOf(OidcUser.class);
+        assertThat(slim.getPrincipal().getAttributes()).containsOnlyKeys("sub", "name", "email", "picture");
+        assertThat(slim.getName()).isEqualTo("google123");
+        assertThat(slim.getAuthorizedClientRegistrationId()).isEqualTo("google");
+        assertThat(slim.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrderElementsOf(oidcUser.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
 }
@@ -0,0 +1,102 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.protocol.ScoredEntry;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScoredSortedSet<Object> revokedSet;
+
+    private AccessTokenService accessTokenService;
+    private ApiKeyPrincipal apiKey;
+
+    @BeforeEach
+    void setUp() {
+        accessTokenService = new AccessTokenService(redissonClient, true, SECRET, 15);
+        apiKey = new ApiKeyPrincipal(7L, "syn_live_v2.ABCDEFGHIJKLMNOP", new byte[32], 42L, 1000);
+    }
+
+    @Test
+    void verify_IssuedToken_ReturnsKeyWithoutHash() {
+        Optional<ApiKeyPrincipal> verified = accessTokenService.verify(accessTokenService.issue(apiKey));
+
+        assertThat(verified).isPresent();
+        assertThat(verified.get().id()).isEqualTo(7L);
+        assertThat(verified.get().prefix()).isEqualTo(apiKey.prefix());
+        assertThat(verified.get().userId()).isEqualTo(42L);
+        assertThat(verified.get().quotaLimit()).isEqualTo(1000);
+        assertThat(verified.get().keyHash()).isNull();
+    }
+
+    @Test
+    void verify_TokenSignedWithOtherKey_IsRejected() {
+        String foreign = new AccessTokenService(redissonClient, true,
+                Base64.getEncoder().encodeToString("another-secret-of-at-least-32-bytes".getBytes()), 15).issue(apiKey);
+
+        assertThat(accessTokenService.verify(foreign)).isEmpty();
+        assertThat(accessTokenService.verify("not-a-jwt")).isEmpty();
+    }
+
+    @Test
+    void verify_WhenDisabled_RejectsEverything() {
+        AccessTokenService disabled = new AccessTokenService(redissonClient, false, SECRET, 15);
+
+        assertThat(disabled.verify(disabled.issue(apiKey))).isEmpty();
+    }
+
+    @Test
+    void constructor_WhenEnabledWithoutSecret_FailsStartup() {
+        assertThatThrownBy(() -> new AccessTokenService(redissonClient, true, "", 15))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void revokeKey_RejectsTokensLocallyAndPublishesToRedis() {
+        when(redissonClient.getScoredSortedSet(anyString())).thenReturn(revokedSet);
+        String token = accessTokenService.issue(apiKey);
+
+        accessTokenService.revokeKey(apiKey.prefix());
+
+        assertThat(accessTokenService.verify(token)).isEmpty();
+        verify(revokedSet).add(anyDouble(), eq(apiKey.prefix()));
+    }
+
+    @Test
+    void syncRevocations_PicksUpRevocationsFromOtherInstances() {
+        when(redissonClient.getScoredSortedSet(anyString())).thenReturn(revokedSet);
+        when(revokedSet.entryRange(anyDouble(), anyBoolean(), anyDouble(), anyBoolean()))
+                .thenReturn(List.of(new ScoredEntry<>((double) System.currentTimeMillis() + 60_000, apiKey.prefix())));
+        String token = accessTokenService.issue(apiKey);
+
+        accessTokenService.syncRevocations();
+
+        assertThat(accessTokenService.verify(token)).isEmpty();
+    }
+}
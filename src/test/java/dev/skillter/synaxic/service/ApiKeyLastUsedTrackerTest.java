@@ -0,0 +1,68 @@
+package dev.skillter.synaxic.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyLastUsedTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ApiKeyLastUsedTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ApiKeyLastUsedTracker(jdbcTemplate);
+    }
+
+    @Test
+    void flush_CoalescesTouchesIntoOneBatchedUpdate() {
+        tracker.touch(1L);
+        tracker.touch(1L);
+        tracker.touch(2L);
+
+        tracker.flush();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(sql.capture(), args.capture());
+        assertThat(sql.getValue()).contains("FROM (VALUES").contains("k.last_used_at < v.last_used_at");
+        assertThat(args.getValue()).hasSize(4);
+    }
+
+    @Test
+    void flush_WithNothingPending_ShouldNotTouchDatabase() {
+        tracker.flush();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void flush_WhenUpdateFails_ShouldRetryOnNextCycle() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(1);
+        tracker.touch(1L);
+
+        tracker.flush();
+        tracker.flush();
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+    }
+}
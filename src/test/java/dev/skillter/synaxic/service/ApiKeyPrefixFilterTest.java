@@ -0,0 +1,71 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.repository.ApiKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyPrefixFilterTest {
+
+    @Mock
+    private ApiKeyRepository apiKeyRepository;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private ApiKeyPrefixFilter prefixFilter;
+
+    @BeforeEach
+    void setUp() {
+        prefixFilter = new ApiKeyPrefixFilter(apiKeyRepository, redissonClient, 0.001);
+    }
+
+    @Test
+    void mightContain_BeforeFirstLoad_ShouldAllowEverything() {
+        assertThat(prefixFilter.mightContain("syn_live_zzz")).isTrue();
+    }
+
+    @Test
+    void rebuild_ShouldRejectUnknownPrefixes() {
+        when(apiKeyRepository.findAllPrefixes()).thenReturn(List.of("syn_live_abc", "syn_live_xyz"));
+
+        prefixFilter.rebuild();
+
+        assertThat(prefixFilter.mightContain("syn_live_abc")).isTrue();
+        assertThat(prefixFilter.mightContain("syn_live_xyz")).isTrue();
+        assertThat(prefixFilter.mightContain("syn_live_zzz")).isFalse();
+    }
+
+    @Test
+    void add_ShouldAcceptNewPrefixImmediately() {
+        when(apiKeyRepository.findAllPrefixes()).thenReturn(List.of("syn_live_abc"));
+        prefixFilter.rebuild();
+
+        prefixFilter.add("syn_live_new");
+
+        assertThat(prefixFilter.mightContain("syn_live_new")).isTrue();
+    }
+
+    @Test
+    void rebuild_WhenDatabaseFails_ShouldKeepPreviousFilter() {
+        when(apiKeyRepository.findAllPrefixes())
+                .thenReturn(List.of("syn_live_abc"))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+        prefixFilter.rebuild();
+
+        prefixFilter.rebuild();
+
+        assertThat(prefixFilter.mightContain("syn_live_abc")).isTrue();
+        assertThat(prefixFilter.mightContain("syn_live_zzz")).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package dev.skillter.synaxic.service;
 
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
 import dev.skillter.synaxic.model.dto.GeneratedApiKey;
 import dev.skillter.synaxic.model.entity.ApiKey;
 import dev.skillter.synaxic.model.entity.User;
@@ -21,6 +22,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +40,18 @@ class ApiKeyServiceTest {
     @Mock
     private Cache cache;
 
+    @Mock
+    private VerifiedApiKeyCache verifiedApiKeyCache;
+
+    @Mock
+    private ApiKeyLastUsedTracker lastUsedTracker;
+
+    @Mock
+    private ApiKeyPrefixFilter prefixFilter;
+
+    @Mock
+    private AccessTokenService accessTokenService;
+
     @InjectMocks
     private ApiKeyService apiKeyService;
 
@@ -58,7 +72,7 @@ class ApiKeyServiceTest {
                 .id(1L)
                 .user(testUser)
                 .prefix("syn_live_abc")
-                .keyHash("hashedkey")
+                .keyHash(new byte[]{1})
                 .quotaLimit(10000)
                 .createdAt(Instant.now())
                 .build();
@@ -77,6 +91,7 @@ class ApiKeyServiceTest {
         assertThat(result.fullKey()).isEqualTo("syn_live_abcdefghijklmnop");
         verify(keyGenerator).generate(testUser);
         verify(apiKeyRepository).save(testApiKey);
+        verify(prefixFilter).add("syn_live_abc");
     }
 
     @Test
@@ -119,20 +134,52 @@ class ApiKeyServiceTest {
     @Test
     void validateApiKey_WithValidKey_ShouldReturnApiKey() {
         String fullKey = "syn_live_abcdefghijklmnop";
-        String hashedKey = "hashedkey";
 
+        when(verifiedApiKeyCache.generation()).thenReturn(7L);
+        when(prefixFilter.mightContain("syn_live_abc")).thenReturn(true);
         when(apiKeyRepository.findByPrefix("syn_live_abc")).thenReturn(Optional.of(testApiKey));
-        when(keyGenerator.calculateSha256(fullKey)).thenReturn(hashedKey);
+        when(keyGenerator.calculateSha256(fullKey)).thenReturn(new byte[]{1});
 
-        Optional<ApiKey> result = apiKeyService.validateApiKey(fullKey);
+        Optional<ApiKeyPrincipal> result = apiKeyService.validateApiKey(fullKey);
 
         assertThat(result).isPresent();
-        assertThat(result.get()).isEqualTo(testApiKey);
+        assertThat(result.get().id()).isEqualTo(1L);
+        assertThat(result.get().prefix()).isEqualTo("syn_live_abc");
+        assertThat(result.get().userId()).isEqualTo(1L);
+        assertThat(result.get().quotaLimit()).isEqualTo(10000);
+        verify(verifiedApiKeyCache).put(fullKey, result.get(), 7L);
+        verify(lastUsedTracker).touch(1L);
+    }
+
+    @Test
+    void validateApiKey_WhenRecentlyVerified_ShouldSkipLookupAndHashing() {
+        String fullKey = "syn_live_abcdefghijklmnop";
+
+        ApiKeyPrincipal principal = ApiKeyPrincipal.of(testApiKey);
+        when(verifiedApiKeyCache.get(fullKey)).thenReturn(Optional.of(principal));
+
+        Optional<ApiKeyPrincipal> result = apiKeyService.validateApiKey(fullKey);
+
+        assertThat(result).contains(principal);
+        verify(apiKeyRepository, never()).findByPrefix(any());
+        verify(keyGenerator, never()).calculateSha256(any());
+        verify(lastUsedTracker).touch(1L);
+    }
+
+    @Test
+    void validateApiKey_WithPrefixNotInFilter_ShouldRejectWithoutLookup() {
+        when(prefixFilter.mightContain("syn_live_zzz")).thenReturn(false);
+
+        Optional<ApiKeyPrincipal> result = apiKeyService.validateApiKey("syn_live_zzzdefghijklmnop");
+
+        assertThat(result).isEmpty();
+        verify(apiKeyRepository, never()).findByPrefix(any());
+        verify(keyGenerator, never()).calculateSha256(any());
     }
 
     @Test
     void validateApiKey_WithInvalidPrefix_ShouldReturnEmpty() {
-        Optional<ApiKey> result = apiKeyService.validateApiKey("invalid_key");
+        Optional<ApiKeyPrincipal> result = apiKeyService.validateApiKey("invalid_key");
 
         assertThat(result).isEmpty();
         verify(apiKeyRepository, never()).findByPrefix(any());
@@ -140,7 +187,7 @@ class ApiKeyServiceTest {
 
     @Test
     void validateApiKey_WithNullKey_ShouldReturnEmpty() {
-        Optional<ApiKey> result = apiKeyService.validateApiKey(null);
+        Optional<ApiKeyPrincipal> result = apiKeyService.validateApiKey(null);
 
         assertThat(result).isEmpty();
         verify(apiKeyRepository, never()).findByPrefix(any());
@@ -150,12 +197,15 @@ class ApiKeyServiceTest {
     void validateApiKey_WithWrongHash_ShouldReturnEmpty() {
         String fullKey = "syn_live_abcdefghijklmnop";
 
+        when(prefixFilter.mightContain("syn_live_abc")).thenReturn(true);
         when(apiKeyRepository.findByPrefix("syn_live_abc")).thenReturn(Optional.of(testApiKey));
-        when(keyGenerator.calculateSha256(fullKey)).thenReturn("wronghash");
+        when(keyGenerator.calculateSha256(fullKey)).thenReturn(new byte[]{9});
 
-        Optional<ApiKey> result = apiKeyService.validateApiKey(fullKey);
+        Optional<ApiKeyPrincipal> result = apiKeyService.validateApiKey(fullKey);
 
         assertThat(result).isEmpty();
+        verify(verifiedApiKeyCache, never()).put(any(), any(), anyLong());
+        verify(lastUsedTracker, never()).touch(any());
     }
 
     @Test
@@ -175,7 +225,7 @@ class ApiKeyServiceTest {
                 .id(2L)
                 .user(testUser)
                 .prefix("syn_live_xyz")
-                .keyHash("hashedkey2")
+                .keyHash(new byte[]{2})
                 .build();
 
         List<ApiKey> keys = Arrays.asList(testApiKey, key2);
@@ -196,6 +246,8 @@ class ApiKeyServiceTest {
 
         verify(apiKeyRepository).findById(1L);
         verify(apiKeyRepository).delete(testApiKey);
+        verify(verifiedApiKeyCache).evictPrefix("syn_live_abc");
+        verify(accessTokenService).revokeKey("syn_live_abc");
     }
 
     @Test
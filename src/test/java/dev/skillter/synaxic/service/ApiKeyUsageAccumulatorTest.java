@@ -0,0 +1,106 @@
+package dev.skillter.synaxic.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyUsageAccumulatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CounterJournal journal;
+    private ApiKeyUsageAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        journal = new CounterJournal("", 16, 60_000, 5_000);
+        accumulator = new ApiKeyUsageAccumulator(jdbcTemplate, journal);
+        accumulator.init();
+    }
+
+    @Test
+    void flush_WritesConcurrentIncrementsAsOneUpsert() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            long apiKeyId = i % 2 == 0 ? 1L : 2L;
+            executor.execute(() -> accumulator.record(apiKeyId));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        journal.checkpoint();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(sql.capture(), args.capture());
+        assertThat(sql.getValue()).contains("ON CONFLICT (api_key_id, period_start, period_type)")
+                .contains("api_key_usage.request_count + EXCLUDED.request_count");
+        Object[] values = args.getValue();
+        assertThat(values).hasSize(6);
+        assertThat((Long) values[2] + (Long) values[5]).isEqualTo(1000L);
+    }
+
+    @Test
+    void flush_WithoutJournalFile_RunsOnEveryScheduledTick() {
+        CounterJournal memoryOnly = new CounterJournal("", 16, 60_000, 0);
+        ApiKeyUsageAccumulator memoryOnlyAccumulator = new ApiKeyUsageAccumulator(jdbcTemplate, memoryOnly);
+        memoryOnlyAccumulator.init();
+        memoryOnlyAccumulator.record(1L);
+
+        memoryOnly.checkpointIfDue();
+
+        verify(jdbcTemplate).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void flush_WithNoNewRequests_ShouldNotTouchDatabase() {
+        accumulator.record(1L);
+        journal.checkpoint();
+
+        journal.checkpoint();
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void flush_WhenUpsertFails_ShouldRetryDeltasOnNextCycle() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"))
+                .thenReturn(1);
+        accumulator.record(1L);
+        accumulator.record(1L);
+
+        journal.checkpoint();
+        journal.checkpoint();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).update(anyString(), args.capture());
+        assertThat(args.getAllValues().get(1)[2]).isEqualTo(2L);
+    }
+
+    @Test
+    void flush_WithNothingRecorded_ShouldNotTouchDatabase() {
+        journal.checkpoint();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,117 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the partitioning migration on seeded data and the partition maintenance against
+ * Postgres, each in its own schema.
+ */
+@EnabledIf("dev.skillter.synaxic.config.DockerSupport#isAvailable")
+class ApiKeyUsagePartitionMaintainerIntegrationTest extends BaseIntegrationTest {
+
+    @Test
+    void migrate_ToPartitionedTable_KeepsRowsSequenceAndTrigger() {
+        String schema = "partition_migration_it";
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(migrateSchema(schema, "7"));
+        long apiKeyId = insertKey(jdbcTemplate);
+        insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2024-01-15T10:00:00Z"), 2);
+        insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2024-02-10T08:00:00Z"), 3);
+        insertUsage(jdbcTemplate, apiKeyId, Instant.now().truncatedTo(ChronoUnit.HOURS), 4);
+        long maxId = queryLong(jdbcTemplate, "SELECT MAX(id) FROM api_key_usage");
+
+        migrateSchema(schema, "latest");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT relkind FROM pg_class WHERE oid = 'api_key_usage'::regclass", String.class))
+                .isEqualTo("p");
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage")).isEqualTo(3);
+        assertThat(queryLong(jdbcTemplate, "SELECT SUM(request_count) FROM api_key_usage")).isEqualTo(9);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_p202401")).isEqualTo(1);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_p202402")).isEqualTo(1);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_default")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('api_key_usage', 'id')", String.class)).isNotNull();
+
+        long newId = insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2024-02-11T08:00:00Z"), 1);
+        assertThat(newId).isGreaterThan(maxId);
+
+        jdbcTemplate.update("UPDATE api_key_usage SET last_updated = ? WHERE id = ?",
+                Timestamp.from(Instant.parse("2000-01-01T00:00:00Z")), newId);
+        Timestamp lastUpdated = jdbcTemplate.queryForObject("SELECT last_updated FROM api_key_usage WHERE id = ?", Timestamp.class, newId);
+        assertThat(lastUpdated.toInstant()).isAfter(Instant.parse("2020-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void createPartition_WithRowsInDefaultPartition_MovesThemIntoTheNewPartition() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(migrateSchema("partition_default_it", "latest"));
+        long apiKeyId = insertKey(jdbcTemplate);
+        insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2023-05-10T10:00:00Z"), 2);
+        insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2023-06-10T10:00:00Z"), 3);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_default")).isEqualTo(2);
+
+        String partition = jdbcTemplate.queryForObject(ApiKeyUsagePartitionMaintainer.CREATE_PARTITION_SQL, String.class,
+                Date.valueOf(LocalDate.of(2023, 5, 1)));
+
+        assertThat(partition).isEqualTo("api_key_usage_p202305");
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_p202305")).isEqualTo(1);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_default")).isEqualTo(1);
+        assertThat(queryLong(jdbcTemplate, "SELECT SUM(request_count) FROM api_key_usage")).isEqualTo(5);
+
+        // Creating it again is a no-op, and new rows for the month go to the attached partition
+        assertThat(jdbcTemplate.queryForObject(ApiKeyUsagePartitionMaintainer.CREATE_PARTITION_SQL, String.class,
+                Date.valueOf(LocalDate.of(2023, 5, 1)))).isEqualTo(partition);
+        insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2023-05-31T23:00:00Z"), 4);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_p202305")).isEqualTo(2);
+    }
+
+    @Test
+    void expire_DetachesOrDropsOnlyExpiredMonths() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(migrateSchema("partition_expire_it", "latest"));
+        long apiKeyId = insertKey(jdbcTemplate);
+        for (int month = 1; month <= 3; month++) {
+            jdbcTemplate.queryForObject(ApiKeyUsagePartitionMaintainer.CREATE_PARTITION_SQL, String.class,
+                    Date.valueOf(LocalDate.of(2023, month, 1)));
+            insertUsage(jdbcTemplate, apiKeyId, Instant.parse("2023-0" + month + "-10T10:00:00Z"), month);
+        }
+
+        new ApiKeyUsagePartitionMaintainer(jdbcTemplate, null, 3, 12, true).expire(YearMonth.of(2023, 2));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('api_key_usage_p202301')", String.class)).isNull();
+        assertThat(queryLong(jdbcTemplate, "SELECT SUM(request_count) FROM api_key_usage")).isEqualTo(5);
+
+        new ApiKeyUsagePartitionMaintainer(jdbcTemplate, null, 3, 12, false).expire(YearMonth.of(2023, 3));
+
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_p202302")).isEqualTo(1);
+        assertThat(queryLong(jdbcTemplate, "SELECT SUM(request_count) FROM api_key_usage")).isEqualTo(3);
+        assertThat(queryLong(jdbcTemplate, "SELECT COUNT(*) FROM api_key_usage_p202303")).isEqualTo(1);
+    }
+
+    private static long insertKey(JdbcTemplate jdbcTemplate) {
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO api_user (google_sub, email) VALUES ('sub-partitions', 'partitions@example.com') RETURNING id", Long.class);
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO api_key (user_id, prefix, key_hash) VALUES (?, 'syn_live_partitions', ?) RETURNING id", Long.class,
+                userId, new byte[32]);
+    }
+
+    private static long insertUsage(JdbcTemplate jdbcTemplate, long apiKeyId, Instant periodStart, long count) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO api_key_usage (api_key_id, period_start, period_type, request_count) VALUES (?, ?, 'hourly', ?) RETURNING id",
+                Long.class, apiKeyId, Timestamp.from(periodStart), count);
+    }
+
+    private static long queryLong(JdbcTemplate jdbcTemplate, String sql) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class);
+        return value == null ? 0 : value;
+    }
+}
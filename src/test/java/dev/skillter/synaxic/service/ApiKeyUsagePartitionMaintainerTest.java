@@ -0,0 +1,100 @@
+package dev.skillter.synaxic.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyUsagePartitionMaintainerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock lock;
+
+    @Test
+    void createAhead_CreatesCurrentAndFutureMonths() {
+        ApiKeyUsagePartitionMaintainer maintainer = new ApiKeyUsagePartitionMaintainer(jdbcTemplate, redissonClient, 2, 0, false);
+
+        maintainer.createAhead(YearMonth.of(2026, 11));
+
+        ArgumentCaptor<Object> months = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(3)).queryForObject(eq(ApiKeyUsagePartitionMaintainer.CREATE_PARTITION_SQL), eq(String.class), months.capture());
+        assertThat(months.getAllValues()).containsExactly(
+                Date.valueOf(LocalDate.of(2026, 11, 1)),
+                Date.valueOf(LocalDate.of(2026, 12, 1)),
+                Date.valueOf(LocalDate.of(2027, 1, 1)));
+    }
+
+    @Test
+    void expire_DetachesOnlyMonthsBeforeRetention() {
+        ApiKeyUsagePartitionMaintainer maintainer = new ApiKeyUsagePartitionMaintainer(jdbcTemplate, redissonClient, 3, 12, false);
+        when(jdbcTemplate.queryForList(ApiKeyUsagePartitionMaintainer.LIST_PARTITIONS_SQL, String.class))
+                .thenReturn(List.of("api_key_usage_p202509", "api_key_usage_p202510", "api_key_usage_default"));
+
+        maintainer.expire(YearMonth.of(2025, 10));
+
+        verify(jdbcTemplate).execute("ALTER TABLE api_key_usage DETACH PARTITION api_key_usage_p202509");
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+
+    @Test
+    void expire_WithDropEnabled_DropsDetachedPartition() {
+        ApiKeyUsagePartitionMaintainer maintainer = new ApiKeyUsagePartitionMaintainer(jdbcTemplate, redissonClient, 3, 12, true);
+        when(jdbcTemplate.queryForList(ApiKeyUsagePartitionMaintainer.LIST_PARTITIONS_SQL, String.class))
+                .thenReturn(List.of("api_key_usage_p202409"));
+
+        maintainer.expire(YearMonth.of(2025, 10));
+
+        verify(jdbcTemplate).execute("ALTER TABLE api_key_usage DETACH PARTITION api_key_usage_p202409");
+        verify(jdbcTemplate).execute("DROP TABLE api_key_usage_p202409");
+    }
+
+    @Test
+    void maintain_WithoutRetention_NeverDetaches() {
+        ApiKeyUsagePartitionMaintainer maintainer = new ApiKeyUsagePartitionMaintainer(jdbcTemplate, redissonClient, 3, 0, false);
+        when(redissonClient.getLock(ApiKeyUsagePartitionMaintainer.LOCK_KEY)).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+
+        maintainer.maintain();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+        verify(jdbcTemplate, never()).execute(anyString());
+        verify(lock).unlock();
+    }
+
+    @Test
+    void maintain_WhenLockedElsewhere_ShouldNotTouchDatabase() {
+        ApiKeyUsagePartitionMaintainer maintainer = new ApiKeyUsagePartitionMaintainer(jdbcTemplate, redissonClient, 3, 12, false);
+        when(redissonClient.getLock(ApiKeyUsagePartitionMaintainer.LOCK_KEY)).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(false);
+
+        maintainer.maintain();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
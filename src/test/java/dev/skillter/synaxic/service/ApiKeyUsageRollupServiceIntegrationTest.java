@@ -0,0 +1,99 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.BaseIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link ApiKeyUsageRollupService#COMPACT_SQL} against the partitioned table from the
+ * migrations, so the data-modifying CTE is checked by Postgres and not only by argument order.
+ */
+@EnabledIf("dev.skillter.synaxic.config.DockerSupport#isAvailable")
+class ApiKeyUsageRollupServiceIntegrationTest extends BaseIntegrationTest {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM api_key_usage WHERE period_type = ? AND period_start < ?";
+
+    @Test
+    void compact_RollsHourlyIntoDailyAndDailyIntoMonthly_KeepingTotals() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(migrateSchema("rollup_it", "8"));
+        jdbcTemplate.queryForObject(ApiKeyUsagePartitionMaintainer.CREATE_PARTITION_SQL, String.class, Date.valueOf(LocalDate.of(2024, 3, 1)));
+        long keyA = insertKey(jdbcTemplate, "a");
+        long keyB = insertKey(jdbcTemplate, "b");
+        insertUsage(jdbcTemplate, keyA, "2024-03-10T01:00:00Z", "hourly", 2);
+        insertUsage(jdbcTemplate, keyA, "2024-03-10T02:00:00Z", "hourly", 3);
+        insertUsage(jdbcTemplate, keyA, "2024-03-11T05:00:00Z", "hourly", 4);
+        insertUsage(jdbcTemplate, keyB, "2024-03-10T01:00:00Z", "hourly", 5);
+        Instant currentHour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        insertUsage(jdbcTemplate, keyA, currentHour.toString(), "hourly", 7);
+        Map<Long, Long> totalsBefore = totals(jdbcTemplate);
+        // A batch size of 2 splits the hourly rows over several statements that upsert into the same daily row
+        ApiKeyUsageRollupService rollupService = new ApiKeyUsageRollupService(jdbcTemplate, null, 7, 3, 2);
+
+        Instant hourlyCutoff = Instant.now().truncatedTo(ChronoUnit.DAYS).minus(7, ChronoUnit.DAYS);
+        assertThat(rollupService.compact(ApiKeyUsageRollupService.Rollup.DAILY, hourlyCutoff)).isEqualTo(4);
+
+        assertThat(count(jdbcTemplate, "hourly", hourlyCutoff)).isZero();
+        assertThat(usage(jdbcTemplate, keyA, "2024-03-10T00:00:00Z", "daily")).isEqualTo(5);
+        assertThat(usage(jdbcTemplate, keyA, "2024-03-11T00:00:00Z", "daily")).isEqualTo(4);
+        assertThat(usage(jdbcTemplate, keyB, "2024-03-10T00:00:00Z", "daily")).isEqualTo(5);
+        assertThat(totals(jdbcTemplate)).isEqualTo(totalsBefore);
+
+        Instant dailyCutoff = Instant.parse("2024-06-01T00:00:00Z");
+        assertThat(rollupService.compact(ApiKeyUsageRollupService.Rollup.MONTHLY, dailyCutoff)).isEqualTo(3);
+
+        assertThat(count(jdbcTemplate, "daily", dailyCutoff)).isZero();
+        assertThat(usage(jdbcTemplate, keyA, "2024-03-01T00:00:00Z", "monthly")).isEqualTo(9);
+        assertThat(usage(jdbcTemplate, keyB, "2024-03-01T00:00:00Z", "monthly")).isEqualTo(5);
+        assertThat(usage(jdbcTemplate, keyA, currentHour.toString(), "hourly")).isEqualTo(7);
+        assertThat(totals(jdbcTemplate)).isEqualTo(totalsBefore);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT rows_compacted FROM api_key_usage_rollup WHERE target_period_type = 'monthly'", Long.class))
+                .isEqualTo(3L);
+    }
+
+    static long insertKey(JdbcTemplate jdbcTemplate, String name) {
+        Long userId = jdbcTemplate.queryForObject(
+                "INSERT INTO api_user (google_sub, email) VALUES (?, ?) RETURNING id", Long.class,
+                "sub-" + name, name + "@example.com");
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO api_key (user_id, prefix, key_hash) VALUES (?, ?, ?) RETURNING id", Long.class,
+                userId, "syn_live_" + name, new byte[32]);
+    }
+
+    static void insertUsage(JdbcTemplate jdbcTemplate, long apiKeyId, String periodStart, String periodType, long count) {
+        jdbcTemplate.update("INSERT INTO api_key_usage (api_key_id, period_start, period_type, request_count) VALUES (?, ?, ?, ?)",
+                apiKeyId, Timestamp.from(Instant.parse(periodStart)), periodType, count);
+    }
+
+    private static long usage(JdbcTemplate jdbcTemplate, long apiKeyId, String periodStart, String periodType) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT request_count FROM api_key_usage WHERE api_key_id = ? AND period_start = ? AND period_type = ?",
+                Long.class, apiKeyId, Timestamp.from(Instant.parse(periodStart)), periodType);
+        return count == null ? 0 : count;
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String periodType, Instant before) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class, periodType, Timestamp.from(before));
+        return count == null ? 0 : count;
+    }
+
+    private static Map<Long, Long> totals(JdbcTemplate jdbcTemplate) {
+        Map<Long, Long> totals = new HashMap<>();
+        jdbcTemplate.query("SELECT api_key_id, SUM(request_count) FROM api_key_usage GROUP BY api_key_id",
+                rs -> {
+                    totals.put(rs.getLong(1), rs.getLong(2));
+                });
+        return totals;
+    }
+}
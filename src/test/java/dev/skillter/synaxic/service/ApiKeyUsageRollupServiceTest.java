@@ -0,0 +1,107 @@
+package dev.skillter.synaxic.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyUsageRollupServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock lock;
+
+    private ApiKeyUsageRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new ApiKeyUsageRollupService(jdbcTemplate, redissonClient, 7, 3, 2);
+    }
+
+    @Test
+    void compact_DeletesInBatchesUntilAShortBatchAndRecordsProgress() {
+        when(jdbcTemplate.queryForObject(eq(ApiKeyUsageRollupService.COMPACT_SQL), eq(Long.class), any(Object[].class)))
+                .thenReturn(2L, 2L, 1L);
+        Instant before = Instant.parse("2026-01-01T00:00:00Z");
+
+        long moved = rollupService.compact(ApiKeyUsageRollupService.Rollup.DAILY, before);
+
+        assertThat(moved).isEqualTo(5L);
+        ArgumentCaptor<Object[]> compactArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).queryForObject(eq(ApiKeyUsageRollupService.COMPACT_SQL), eq(Long.class), compactArgs.capture());
+        assertThat(compactArgs.getValue()).containsExactly("hourly", Timestamp.from(before), 2, "day", "daily");
+
+        ArgumentCaptor<Object[]> progressArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(4)).update(eq(ApiKeyUsageRollupService.PROGRESS_SQL), progressArgs.capture());
+        List<Object[]> progress = progressArgs.getAllValues();
+        assertThat(progress.get(0)).containsExactly("daily", null, 2L);
+        assertThat(progress.get(3)).containsExactly("daily", Timestamp.from(before), 0L);
+    }
+
+    @Test
+    void rollup_CompactsHourlyThenDailyRowsAndReleasesLock() {
+        when(redissonClient.getLock(ApiKeyUsageRollupService.LOCK_KEY)).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(eq(ApiKeyUsageRollupService.COMPACT_SQL), eq(Long.class), any(Object[].class)))
+                .thenReturn(0L);
+
+        rollupService.rollup();
+
+        ArgumentCaptor<Object[]> compactArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).queryForObject(eq(ApiKeyUsageRollupService.COMPACT_SQL), eq(Long.class), compactArgs.capture());
+        assertThat(compactArgs.getAllValues().get(0)[0]).isEqualTo("hourly");
+        assertThat(compactArgs.getAllValues().get(1)[0]).isEqualTo("daily");
+        verify(lock).unlock();
+    }
+
+    @Test
+    void rollup_WhenDatabaseFails_ReleasesLock() {
+        when(redissonClient.getLock(ApiKeyUsageRollupService.LOCK_KEY)).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(eq(ApiKeyUsageRollupService.COMPACT_SQL), eq(Long.class), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database unavailable"));
+
+        rollupService.rollup();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verify(lock).unlock();
+    }
+
+    @Test
+    void rollup_WhenLockedElsewhere_ShouldNotTouchDatabase() {
+        when(redissonClient.getLock(ApiKeyUsageRollupService.LOCK_KEY)).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(false);
+
+        rollupService.rollup();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,208 @@
+package dev.skillter.synaxic.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CounterJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void register_AfterCrash_ReplaysUnflushedDeltas() {
+        String path = tempDir.resolve("journal.bin").toString();
+        CounterJournal journal = open(path);
+        TestSource source = new TestSource(1);
+        journal.register(source);
+        journal.record(source, 7L, 100L, 2);
+        journal.record(source, 7L, 100L, 3);
+
+        // No checkpoint: the process dies with the deltas only in the journal, releasing its lock
+        journal.close();
+        CounterJournal restarted = open(path);
+        TestSource replayed = new TestSource(1);
+        TestSource otherStream = new TestSource(2);
+        restarted.register(replayed);
+        restarted.register(otherStream);
+
+        assertThat(replayed.pending()).isEqualTo(5);
+        assertThat(otherStream.pending()).isZero();
+    }
+
+    @Test
+    void checkpoint_FlushesSourcesAndClearsJournal() {
+        String path = tempDir.resolve("journal.bin").toString();
+        CounterJournal journal = open(path);
+        TestSource source = new TestSource(1);
+        journal.register(source);
+        journal.record(source, 1L, 0L, 4);
+
+        journal.checkpoint();
+
+        assertThat(source.flushed).containsExactly(4L);
+        journal.close();
+        TestSource replayed = new TestSource(1);
+        open(path).register(replayed);
+        assertThat(replayed.pending()).isZero();
+    }
+
+    @Test
+    void checkpoint_KeepsDeltasRecordedConcurrently() throws Exception {
+        CounterJournal journal = open(tempDir.resolve("journal.bin").toString());
+        TestSource source = new TestSource(1);
+        journal.register(source);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> journal.record(source, 1L, 0L, 1));
+            if (i % 1000 == 0) {
+                executor.execute(journal::checkpoint);
+            }
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        journal.checkpoint();
+        journal.checkpoint();
+
+        assertThat(source.flushed.stream().mapToLong(Long::longValue).sum()).isEqualTo(10_000L);
+    }
+
+    @Test
+    void open_WhenFileLockedByAnotherJournal_FallsBackToMemoryOnly() {
+        String path = tempDir.resolve("journal.bin").toString();
+        CounterJournal owner = open(path);
+        CounterJournal second = open(path);
+        TestSource source = new TestSource(1);
+        second.register(source);
+        second.record(source, 1L, 0L, 3);
+        owner.close();
+
+        TestSource replayed = new TestSource(1);
+        open(path).register(replayed);
+
+        assertThat(source.pending()).isEqualTo(3);
+        assertThat(replayed.pending()).isZero();
+    }
+
+    @Test
+    void checkpoint_WhenSourceFails_KeepsItsRecordsAndRetriesThem() {
+        String path = tempDir.resolve("journal.bin").toString();
+        CounterJournal journal = open(path);
+        TestSource failing = new TestSource(1);
+        TestSource healthy = new TestSource(2);
+        journal.register(failing);
+        journal.register(healthy);
+        journal.record(failing, 1L, 0L, 5);
+        journal.record(healthy, 1L, 0L, 7);
+
+        failing.failNextFlush = true;
+        journal.checkpoint();
+
+        assertThat(failing.flushed).isEmpty();
+        assertThat(failing.pending()).isEqualTo(5);
+        assertThat(healthy.flushed).containsExactly(7L);
+
+        journal.close();
+        TestSource replayedFailing = new TestSource(1);
+        TestSource replayedHealthy = new TestSource(2);
+        CounterJournal restarted = open(path);
+        restarted.register(replayedFailing);
+        restarted.register(replayedHealthy);
+        assertThat(replayedFailing.pending()).isEqualTo(5);
+        assertThat(replayedHealthy.pending()).isZero();
+    }
+
+    @Test
+    void record_WhenDisabled_StillCountsInMemory() {
+        CounterJournal journal = open("");
+        TestSource source = new TestSource(1);
+        journal.register(source);
+        journal.record(source, 1L, 0L, 3);
+
+        journal.checkpoint();
+
+        assertThat(source.flushed).containsExactly(3L);
+    }
+
+    @Test
+    void checkpointIfDue_WhenDisabled_UsesMemoryOnlyInterval() {
+        CounterJournal journal = new CounterJournal("", 1024, 60_000, 0);
+        journal.open();
+        TestSource source = new TestSource(1);
+        journal.register(source);
+        journal.record(source, 1L, 0L, 3);
+
+        journal.checkpointIfDue();
+
+        assertThat(source.flushed).containsExactly(3L);
+    }
+
+    @Test
+    void checkpointIfDue_WhenJournaled_WaitsForFlushInterval() {
+        CounterJournal journal = new CounterJournal(tempDir.resolve("journal.bin").toString(), 1024, 60_000, 0);
+        journal.open();
+        TestSource source = new TestSource(1);
+        journal.register(source);
+        journal.record(source, 1L, 0L, 3);
+
+        journal.checkpointIfDue();
+
+        assertThat(journal.isJournaled()).isTrue();
+        assertThat(source.flushed).isEmpty();
+        journal.close();
+    }
+
+    private static CounterJournal open(String path) {
+        CounterJournal journal = new CounterJournal(path, 1024, 60_000, 5_000);
+        journal.open();
+        return journal;
+    }
+
+    private static class TestSource implements CounterJournal.Source {
+
+        private final int stream;
+        private final LongAdder[] pending = {new LongAdder(), new LongAdder()};
+        private final List<Long> flushed = new ArrayList<>();
+        private boolean failNextFlush;
+
+        TestSource(int stream) {
+            this.stream = stream;
+        }
+
+        long pending() {
+            return pending[0].sum() + pending[1].sum();
+        }
+
+        @Override
+        public int journalStream() {
+            return stream;
+        }
+
+        @Override
+        public void apply(int segment, long key1, long key2, long delta) {
+            pending[segment].add(delta);
+        }
+
+        @Override
+        public void flushSegment(int segment) {
+            long delta = pending[segment].sumThenReset();
+            if (failNextFlush) {
+                failNextFlush = false;
+                throw new IllegalStateException("database unavailable");
+            }
+            if (delta > 0) {
+                flushed.add(delta);
+            }
+        }
+    }
+}
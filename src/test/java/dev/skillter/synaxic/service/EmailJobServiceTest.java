@@ -0,0 +1,173 @@
+package dev.skillter.synaxic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.skillter.synaxic.exception.EmailJobException;
+import dev.skillter.synaxic.exception.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class EmailJobServiceTest {
+
+    @Mock
+    private EmailValidationService emailValidationService;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RMap<String, String> jobState;
+
+    @Mock
+    private RSet<String> ownerJobs;
+
+    @TempDir
+    Path storageDir;
+
+    private EmailJobService emailJobService;
+
+    @BeforeEach
+    void setUp() {
+        emailJobService = new EmailJobService(emailValidationService, redissonClient, new ObjectMapper());
+        ReflectionTestUtils.setField(emailJobService, "storageDir", storageDir.toString());
+        ReflectionTestUtils.setField(emailJobService, "maxActiveJobsPerOwner", 3);
+        ReflectionTestUtils.setField(emailJobService, "maxUploadBytes", 1024L);
+    }
+
+    @Test
+    void parseLine_Csv_ReturnsFirstColumnAndSkipsHeader() {
+        assertThat(emailJobService.parseLine("email,name", EmailJobService.Format.CSV)).isNull();
+        assertThat(emailJobService.parseLine("test@example.com,Test User", EmailJobService.Format.CSV)).isEqualTo("test@example.com");
+        assertThat(emailJobService.parseLine("\"quoted,user@example.com\",x", EmailJobService.Format.CSV)).isEqualTo("quoted,user@example.com");
+        assertThat(emailJobService.parseLine("   ", EmailJobService.Format.CSV)).isNull();
+    }
+
+    @Test
+    void parseLine_Ndjson_AcceptsStringsAndObjects() {
+        assertThat(emailJobService.parseLine("\"test@example.com\"", EmailJobService.Format.NDJSON)).isEqualTo("test@example.com");
+        assertThat(emailJobService.parseLine("{\"email\":\"test@example.com\",\"id\":1}", EmailJobService.Format.NDJSON)).isEqualTo("test@example.com");
+        assertThat(emailJobService.parseLine("{\"id\":1}", EmailJobService.Format.NDJSON)).isNull();
+    }
+
+    @Test
+    void offsetLineReader_TracksByteOffsetAcrossLineEndings() throws Exception {
+        byte[] input = "a@b.com\r\nü@x.de\nlast@c.io".getBytes(StandardCharsets.UTF_8);
+        EmailJobService.OffsetLineReader reader = new EmailJobService.OffsetLineReader(new ByteArrayInputStream(input), 100);
+
+        assertThat(reader.readLine()).isEqualTo("a@b.com");
+        assertThat(reader.offset()).isEqualTo(109);
+        assertThat(reader.readLine()).isEqualTo("ü@x.de");
+        assertThat(reader.offset()).isEqualTo(117);
+        assertThat(reader.readLine()).isEqualTo("last@c.io");
+        assertThat(reader.readLine()).isNull();
+        assertThat(reader.offset()).isEqualTo(100 + input.length);
+    }
+
+    @Test
+    void getStatus_OtherOwner_ThrowsNotFound() {
+        String jobId = "3f1c2a5e-8d0b-4c7e-9a51-2b6f0e9d4c11";
+        given(redissonClient.<String, String>getMap("synaxic:email-job:" + jobId)).willReturn(jobState);
+        given(jobState.readAllMap()).willReturn(Map.of("owner", "2", "status", "RUNNING"));
+
+        assertThatThrownBy(() -> emailJobService.getStatus(jobId, 1L))
+                .isInstanceOf(EmailJobException.class)
+                .extracting(e -> ((EmailJobException) e).getStatus())
+                .isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void getResultChunks_RunningJob_ThrowsConflict() {
+        String jobId = "3f1c2a5e-8d0b-4c7e-9a51-2b6f0e9d4c11";
+        given(redissonClient.<String, String>getMap("synaxic:email-job:" + jobId)).willReturn(jobState);
+        given(jobState.readAllMap()).willReturn(Map.of("owner", "1", "status", "RUNNING", "chunks", "3"));
+
+        assertThatThrownBy(() -> emailJobService.getResultChunks(jobId, 1L, 0))
+                .isInstanceOf(EmailJobException.class)
+                .extracting(e -> ((EmailJobException) e).getStatus())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void submit_OverActiveJobLimit_ThrowsTooManyRequestsWithoutSpooling() throws Exception {
+        given(redissonClient.<String>getSet("synaxic:email-jobs:owner:1")).willReturn(ownerJobs);
+        given(ownerJobs.readAll()).willReturn(Set.of());
+        given(ownerJobs.size()).willReturn(4);
+        InputStream body = mock(InputStream.class);
+
+        assertThatThrownBy(() -> emailJobService.submit(1L, EmailJobService.Format.CSV, body, records -> { }))
+                .isInstanceOf(EmailJobException.class)
+                .extracting(e -> ((EmailJobException) e).getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        verify(ownerJobs).remove(anyString());
+        verifyNoInteractions(body);
+        try (var directories = Files.list(storageDir)) {
+            assertThat(directories).isEmpty();
+        }
+    }
+
+    @Test
+    void submit_ChargeRejected_ReleasesSlotAndSpool() throws Exception {
+        given(redissonClient.<String>getSet("synaxic:email-jobs:owner:1")).willReturn(ownerJobs);
+        given(ownerJobs.readAll()).willReturn(Set.of());
+        given(ownerJobs.size()).willReturn(1);
+        InputStream body = new ByteArrayInputStream("a@example.com\nb@example.com\nc@example.com".getBytes(StandardCharsets.UTF_8));
+        List<Long> charged = new ArrayList<>();
+
+        assertThatThrownBy(() -> emailJobService.submit(1L, EmailJobService.Format.CSV, body, records -> {
+            charged.add(records);
+            throw new RateLimitExceededException(60);
+        })).isInstanceOf(RateLimitExceededException.class);
+
+        assertThat(charged).containsExactly(3L);
+        verify(ownerJobs).remove(anyString());
+        try (var directories = Files.list(storageDir)) {
+            assertThat(directories).isEmpty();
+        }
+    }
+
+    @Test
+    void purgeExpiredJobs_RemovesStaleDirectoriesButKeepsRecentUploads() throws Exception {
+        String expiredId = "3f1c2a5e-8d0b-4c7e-9a51-2b6f0e9d4c11";
+        String uploadingId = "7a2d4b6c-1e3f-4a5b-8c9d-0e1f2a3b4c5d";
+        Path expired = Files.createDirectories(storageDir.resolve(expiredId));
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Files.createDirectories(storageDir.resolve(uploadingId));
+        given(redissonClient.<String, String>getMap(anyString())).willReturn(jobState);
+        given(jobState.isExists()).willReturn(false);
+
+        emailJobService.purgeExpiredJobs();
+
+        assertThat(storageDir.resolve(expiredId)).doesNotExist();
+        assertThat(storageDir.resolve(uploadingId)).exists();
+    }
+}
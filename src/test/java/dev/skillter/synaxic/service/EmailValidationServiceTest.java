@@ -13,7 +13,6 @@ import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,7 +25,10 @@ class EmailValidationServiceTest {
     private ResourceLoader resourceLoader;
 
     @Mock
-    private Resource resource;
+    private Resource disposableResource;
+
+    @Mock
+    private Resource popularResource;
 
     private EmailValidationService emailValidationService;
 
@@ -34,9 +36,12 @@ class EmailValidationServiceTest {
     void setUp() {
         // Setup disposable domains list
         String domains = "mailinator.com\ntemp-mail.org";
-        given(resourceLoader.getResource(anyString())).willReturn(resource);
+        String popularDomains = "gmail.com\nyahoo.com\nhotmail.com\noutlook.com\nme.com\naol.com";
+        given(resourceLoader.getResource("classpath:disposable-domains.txt")).willReturn(disposableResource);
+        given(resourceLoader.getResource("classpath:popular-email-domains.txt")).willReturn(popularResource);
         try {
-            given(resource.getInputStream()).willReturn(new ByteArrayInputStream(domains.getBytes(StandardCharsets.UTF_8)));
+            given(disposableResource.getInputStream()).willReturn(new ByteArrayInputStream(domains.getBytes(StandardCharsets.UTF_8)));
+            given(popularResource.getInputStream()).willReturn(new ByteArrayInputStream(popularDomains.getBytes(StandardCharsets.UTF_8)));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -54,6 +59,35 @@ class EmailValidationServiceTest {
         assertThat(response.isValidSyntax()).isTrue();
         assertThat(response.isDisposable()).isFalse();
         assertThat(response.isHasMxRecords()).isTrue();
+        assertThat(response.getSuggestion()).isNull();
+    }
+
+    @Test
+    void validateEmail_DomainTypo_ReturnsSuggestion() {
+        given(dnsService.hasMxRecords("gmial.com")).willReturn(false);
+
+        EmailValidationResponse response = emailValidationService.validateEmail("John.Doe@gmial.com");
+
+        assertThat(response.isValidSyntax()).isTrue();
+        assertThat(response.getSuggestion()).isEqualTo("John.Doe@gmail.com");
+    }
+
+    @Test
+    void validateEmail_UnrelatedDomain_ReturnsNoSuggestion() {
+        given(dnsService.hasMxRecords("example.com")).willReturn(true);
+
+        EmailValidationResponse response = emailValidationService.validateEmail("test@example.com");
+
+        assertThat(response.getSuggestion()).isNull();
+    }
+
+    @Test
+    void validateEmail_ShortDomain_ReturnsNoSuggestion() {
+        given(dnsService.hasMxRecords("ge.com")).willReturn(true);
+        given(dnsService.hasMxRecords("aon.com")).willReturn(true);
+
+        assertThat(emailValidationService.validateEmail("test@ge.com").getSuggestion()).isNull();
+        assertThat(emailValidationService.validateEmail("test@aon.com").getSuggestion()).isNull();
     }
 
     @Test
@@ -1,23 +1,33 @@
 package dev.skillter.synaxic.service;
 
 import com.maxmind.geoip2.DatabaseReader;
-import com.maxmind.geoip2.exception.AddressNotFoundException;
+import com.maxmind.geoip2.model.CityResponse;
 import com.maxmind.geoip2.model.CountryResponse;
+import com.maxmind.geoip2.record.City;
 import com.maxmind.geoip2.record.Country;
+import com.maxmind.geoip2.record.Location;
+import com.maxmind.geoip2.record.Postal;
+import com.maxmind.geoip2.record.Subdivision;
+import dev.skillter.synaxic.config.CacheConfig;
+import dev.skillter.synaxic.model.dto.GeoLocationResponse;
+import dev.skillter.synaxic.util.ClientAddress;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.net.InetAddress;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.lenient;
 
@@ -31,7 +41,7 @@ class GeoIpServiceTest {
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(geoIpService, "databaseReader", databaseReader);
+        geoIpService.activate(databaseReader, "test");
     }
 
     @Test
@@ -41,7 +51,7 @@ class GeoIpServiceTest {
         Country mockCountry = mock(Country.class);
         when(mockCountry.getIsoCode()).thenReturn("US");
         when(mockResponse.getCountry()).thenReturn(mockCountry);
-        when(databaseReader.country(InetAddress.getByName(ip))).thenReturn(mockResponse);
+        when(databaseReader.tryCountry(InetAddress.getByName(ip))).thenReturn(Optional.of(mockResponse));
 
         Optional<String> country = geoIpService.getCountry(ip);
 
@@ -52,18 +62,105 @@ class GeoIpServiceTest {
     void getCountry_shouldReturnEmptyForIpNotFound() throws Exception {
         String ip = "8.8.4.4"; // Use a public IP that we'll simulate as not found
         // Use lenient() to prevent UnnecessaryStubbingException if the implementation checks private IP first
-        lenient().when(databaseReader.country(any(InetAddress.class))).thenThrow(new AddressNotFoundException("Address not found"));
+        lenient().when(databaseReader.tryCountry(any(InetAddress.class))).thenReturn(Optional.empty());
 
         Optional<String> country = geoIpService.getCountry(ip);
 
         assertThat(country).isEmpty();
     }
 
+    @Test
+    void getCountry_shouldReturnEmptyForHostnameWithoutLookup() {
+        Optional<String> country = geoIpService.getCountry("example.com");
+
+        assertThat(country).isEmpty();
+    }
+
     @Test
     void getCountry_shouldReturnEmptyWhenDatabaseNotLoaded() {
-        ReflectionTestUtils.setField(geoIpService, "databaseReader", null);
-        Optional<String> country = geoIpService.getCountry("8.8.8.8");
+        GeoIpService unloaded = new GeoIpService(null, null, null);
+        Optional<String> country = unloaded.getCountry("8.8.8.8");
         assertThat(country).isEmpty();
     }
-}
 
+    @Test
+    void getCountry_shouldCacheStringLookupsUnderTheParsedAddress() throws Exception {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.CACHE_GEO_IP);
+        GeoIpService cached = new GeoIpService(null, null, cacheManager);
+        cached.activate(databaseReader, "test");
+        CountryResponse mockResponse = mock(CountryResponse.class);
+        Country mockCountry = mock(Country.class);
+        when(mockCountry.getIsoCode()).thenReturn("US");
+        when(mockResponse.getCountry()).thenReturn(mockCountry);
+        when(databaseReader.tryCountry(any(InetAddress.class))).thenReturn(Optional.of(mockResponse));
+
+        assertThat(cached.getCountry("8.8.8.8")).contains("US");
+        assertThat(cached.getCountry("8.8.8.8")).contains("US");
+
+        verify(databaseReader, times(1)).tryCountry(any(InetAddress.class));
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_GEO_IP).get(ClientAddress.parse("8.8.8.8"), String.class))
+                .isEqualTo("US");
+    }
+
+    @Test
+    void activate_shouldSwapReaderAndCloseThePreviousOne() throws Exception {
+        DatabaseReader newReader = mock(DatabaseReader.class);
+        CountryResponse mockResponse = mock(CountryResponse.class);
+        Country mockCountry = mock(Country.class);
+        when(mockCountry.getIsoCode()).thenReturn("DE");
+        when(mockResponse.getCountry()).thenReturn(mockCountry);
+        when(newReader.tryCountry(any(InetAddress.class))).thenReturn(Optional.of(mockResponse));
+
+        geoIpService.activate(newReader, "reloaded");
+
+        assertThat(geoIpService.getCountry("8.8.8.8")).contains("DE");
+        assertThat(geoIpService.getDatabaseInfo()).map(GeoIpService.DatabaseInfo::source).contains("reloaded");
+        verify(databaseReader).close();
+    }
+
+    @Test
+    void getLocation_shouldMapCityResponse() throws Exception {
+        CityResponse cityResponse = mock(CityResponse.class);
+        City city = mock(City.class);
+        Country country = mock(Country.class);
+        Subdivision subdivision = mock(Subdivision.class);
+        Location location = mock(Location.class);
+        Postal postal = mock(Postal.class);
+        when(city.getName()).thenReturn("Mountain View");
+        when(country.getIsoCode()).thenReturn("US");
+        when(country.getName()).thenReturn("United States");
+        when(subdivision.getIsoCode()).thenReturn("CA");
+        when(subdivision.getName()).thenReturn("California");
+        when(location.getLatitude()).thenReturn(37.4223);
+        when(location.getLongitude()).thenReturn(-122.085);
+        when(location.getAccuracyRadius()).thenReturn(1000);
+        when(location.getTimeZone()).thenReturn("America/Los_Angeles");
+        when(postal.getCode()).thenReturn("94043");
+        when(cityResponse.getCity()).thenReturn(city);
+        when(cityResponse.getCountry()).thenReturn(country);
+        when(cityResponse.getMostSpecificSubdivision()).thenReturn(subdivision);
+        when(cityResponse.getLocation()).thenReturn(location);
+        when(cityResponse.getPostal()).thenReturn(postal);
+        when(databaseReader.tryCity(InetAddress.getByName("8.8.8.8"))).thenReturn(Optional.of(cityResponse));
+
+        GeoLocationResponse response = geoIpService.getLocation("8.8.8.8");
+
+        assertThat(response.isFound()).isTrue();
+        assertThat(response.getCity()).isEqualTo("Mountain View");
+        assertThat(response.getRegionCode()).isEqualTo("CA");
+        assertThat(response.getCountryCode()).isEqualTo("US");
+        assertThat(response.getTimeZone()).isEqualTo("America/Los_Angeles");
+        assertThat(response.getLatitude()).isEqualTo(37.4223);
+    }
+
+    @Test
+    void getLocations_shouldKeepInputOrderAndReportInvalidAddresses() throws Exception {
+        when(databaseReader.tryCity(any(InetAddress.class))).thenReturn(Optional.empty());
+
+        List<GeoLocationResponse> locations = geoIpService.getLocations(List.of("1.1.1.1", "not-an-ip", "2001:db8::1"));
+
+        assertThat(locations).extracting(GeoLocationResponse::getIp).containsExactly("1.1.1.1", "not-an-ip", "2001:db8::1");
+        assertThat(locations).allMatch(location -> !location.isFound());
+        assertThat(locations.get(1).getError()).isEqualTo("Not a valid IP address");
+    }
+}
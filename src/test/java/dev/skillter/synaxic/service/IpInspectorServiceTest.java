@@ -0,0 +1,123 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.model.dto.EchoResponse;
+import dev.skillter.synaxic.util.ClientContextResolver;
+import dev.skillter.synaxic.util.HashAlgorithm;
+import dev.skillter.synaxic.util.HeaderRedactor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+@ExtendWith(MockitoExtension.class)
+class IpInspectorServiceTest {
+
+    @Mock
+    private HeaderRedactor headerRedactor;
+
+    @Mock
+    private ClientContextResolver clientContextResolver;
+
+    private IpInspectorService ipInspectorService;
+
+    @BeforeEach
+    void setUp() {
+        ipInspectorService = new IpInspectorService(headerRedactor, clientContextResolver);
+        ReflectionTestUtils.setField(ipInspectorService, "maxEchoBytes", 256 * 1024L);
+        ReflectionTestUtils.setField(ipInspectorService, "parallelHashThresholdBytes", 100_000L);
+    }
+
+    @Test
+    void processEcho_WithBody_HashesWhileStreaming() throws Exception {
+        InputStream body = new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8));
+
+        EchoResponse response = ipInspectorService.processEcho(body, -1, "text/plain");
+
+        assertThat(response.getSize()).isEqualTo(5L);
+        assertThat(response.getSha256()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        assertThat(response.getContentType()).isEqualTo("text/plain");
+        assertThat(response.isEmpty()).isFalse();
+    }
+
+    @Test
+    void processEcho_BodyLargerThanOneBuffer_CountsEveryByte() throws Exception {
+        byte[] data = new byte[200_000];
+        Arrays.fill(data, (byte) 'a');
+
+        EchoResponse response = ipInspectorService.processEcho(new ByteArrayInputStream(data), data.length, null);
+
+        assertThat(response.getSize()).isEqualTo(200_000L);
+        assertThat(response.getContentType()).isEqualTo("application/octet-stream");
+    }
+
+    @Test
+    void processEcho_EmptyBody_ReturnsEmptyHash() throws Exception {
+        EchoResponse response = ipInspectorService.processEcho(new ByteArrayInputStream(new byte[0]), 0, null);
+
+        assertThat(response.isEmpty()).isTrue();
+        assertThat(response.getSize()).isZero();
+        assertThat(response.getSha256()).isEqualTo("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855");
+    }
+
+    @Test
+    void processEcho_DeclaredLengthOverLimit_RejectsBeforeReading() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[1]);
+
+        assertThatThrownBy(() -> ipInspectorService.processEcho(body, 300 * 1024L, null))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        assertThat(body.available()).isEqualTo(1);
+    }
+
+    @Test
+    void processEcho_UndeclaredBodyOverLimit_RejectsWhileStreaming() {
+        InputStream body = new ByteArrayInputStream(new byte[300 * 1024]);
+
+        assertThatThrownBy(() -> ipInspectorService.processEcho(body, -1, null))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+    }
+
+    @Test
+    void processEcho_SeveralAlgorithms_ComputesAllInOnePass() throws Exception {
+        InputStream body = new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8));
+
+        EchoResponse response = ipInspectorService.processEcho(body, 5, "text/plain", EnumSet.allOf(HashAlgorithm.class));
+
+        assertThat(response.getHashes()).containsExactly(
+                entry("sha256", "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824"),
+                entry("sha1", "aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d"),
+                entry("sha512", "9b71d224bd62f3785d96d46ad3ea3d73319bfbc2890caadae2dff72519673ca72323c3d99ba5c11d7c7acc6e14b8c5da0c4663475c2e5c3adef46f73bcdec043"),
+                entry("md5", "5d41402abc4b2a76b9719d911017c592"),
+                entry("crc32c", "9a71bb4c"),
+                entry("xxh64", "26c7827d889f6da3"));
+        assertThat(response.getSha256()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+    }
+
+    @Test
+    void processEcho_ParallelAndSequential_ProduceSameDigests() throws Exception {
+        byte[] data = new byte[200_000];
+        new Random(42).nextBytes(data);
+        Set<HashAlgorithm> algorithms = EnumSet.of(HashAlgorithm.SHA512, HashAlgorithm.MD5, HashAlgorithm.XXH64);
+
+        EchoResponse parallel = ipInspectorService.processEcho(new ByteArrayInputStream(data), data.length, null, algorithms);
+        EchoResponse sequential = ipInspectorService.processEcho(new ByteArrayInputStream(data), -1, null, algorithms);
+
+        assertThat(parallel.getSize()).isEqualTo(200_000L);
+        assertThat(parallel.getHashes()).isEqualTo(sequential.getHashes());
+        assertThat(parallel.getSha256()).isNull();
+    }
+}
@@ -25,7 +25,7 @@ class MetricsServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         meterRegistry = new SimpleMeterRegistry();
-        metricsService = new MetricsService(meterRegistry, apiStatsRepository);
+        metricsService = new MetricsService(meterRegistry, apiStatsRepository, new CounterJournal("", 16, 60_000, 5_000));
     }
 
     @Test
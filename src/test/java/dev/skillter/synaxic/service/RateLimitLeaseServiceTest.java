@@ -0,0 +1,90 @@
+package dev.skillter.synaxic.service;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitLeaseServiceTest {
+
+    private static final RateLimitService.RateLimitTier TIER = RateLimitService.RateLimitTier.ANONYMOUS;
+
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Mock
+    private Bucket bucket;
+
+    private RateLimitLeaseService rateLimitLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitLeaseService = new RateLimitLeaseService(rateLimitService, 5, 60);
+        when(rateLimitService.resolveBucket("203.0.113.1", TIER)).thenReturn(bucket);
+    }
+
+    @Test
+    void tryAcquire_WithinLease_TakesOneRemoteBatch() {
+        ConsumptionProbe batch = probe(true, 95, 0);
+        when(bucket.tryConsumeAndReturnRemaining(5)).thenReturn(batch);
+
+        for (int i = 0; i < 5; i++) {
+            RateLimitLeaseService.LeaseResult result = rateLimitLeaseService.tryAcquire("203.0.113.1", TIER);
+            assertThat(result.allowed()).isTrue();
+            assertThat(result.remainingTokens()).isEqualTo(95 + 4 - i);
+        }
+
+        verify(bucket, times(1)).tryConsumeAndReturnRemaining(5);
+        verify(bucket, never()).tryConsumeAndReturnRemaining(1);
+    }
+
+    @Test
+    void tryAcquire_BatchUnavailable_FallsBackToSingleToken() {
+        ConsumptionProbe noBatch = probe(false, 2, 0);
+        ConsumptionProbe single = probe(true, 1, 0);
+        when(bucket.tryConsumeAndReturnRemaining(5)).thenReturn(noBatch);
+        when(bucket.tryConsumeAndReturnRemaining(1)).thenReturn(single);
+
+        RateLimitLeaseService.LeaseResult result = rateLimitLeaseService.tryAcquire("203.0.113.1", TIER);
+
+        assertThat(result.allowed()).isTrue();
+        assertThat(result.remainingTokens()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_BucketEmpty_RejectsWithRetryAfter() {
+        ConsumptionProbe rejected = probe(false, 0, TimeUnit.SECONDS.toNanos(3));
+        when(bucket.tryConsumeAndReturnRemaining(anyLong())).thenReturn(rejected);
+
+        RateLimitLeaseService.LeaseResult result = rateLimitLeaseService.tryAcquire("203.0.113.1", TIER);
+
+        assertThat(result.allowed()).isFalse();
+        assertThat(result.retryAfterSeconds()).isEqualTo(4);
+    }
+
+    private static ConsumptionProbe probe(boolean consumed, long remaining, long nanosToWait) {
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(consumed);
+        if (consumed) {
+            lenient().when(probe.getRemainingTokens()).thenReturn(remaining);
+        } else {
+            lenient().when(probe.getNanosToWaitForRefill()).thenReturn(nanosToWait);
+        }
+        return probe;
+    }
+}
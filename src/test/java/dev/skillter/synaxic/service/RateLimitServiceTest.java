@@ -0,0 +1,106 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.exception.RateLimitExceededException;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private ProxyManager<String> proxyManager;
+
+    @Mock
+    private RemoteBucketBuilder<String> bucketBuilder;
+
+    @Mock
+    private BucketProxy bucket;
+
+    private RateLimitService rateLimitService;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitService = new RateLimitService(proxyManager);
+        ReflectionTestUtils.setField(rateLimitService, "anonymousCapacity", 1000L);
+        ReflectionTestUtils.setField(rateLimitService, "anonymousRefillMinutes", 60L);
+        request = new MockHttpServletRequest();
+        request.setAttribute(RateLimitService.BUCKET_KEY_ATTRIBUTE, "ip:203.0.113.7");
+        request.setAttribute(RateLimitService.TIER_ATTRIBUTE, RateLimitService.RateLimitTier.ANONYMOUS);
+    }
+
+    @Test
+    void consumeAdditional_WithinQuota_ReturnsRemainingTokens() {
+        stubBucket();
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(true);
+        when(probe.getRemainingTokens()).thenReturn(890L);
+        when(bucket.tryConsumeAndReturnRemaining(99L)).thenReturn(probe);
+
+        assertThat(rateLimitService.consumeAdditional(request, 99L)).isEqualTo(890L);
+    }
+
+    @Test
+    void consumeAdditional_WhenQuotaExhausted_ThrowsWithRetryAfter() {
+        stubBucket();
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(false);
+        when(probe.getNanosToWaitForRefill()).thenReturn(TimeUnit.SECONDS.toNanos(30));
+        when(bucket.tryConsumeAndReturnRemaining(500L)).thenReturn(probe);
+
+        assertThatThrownBy(() -> rateLimitService.consumeAdditional(request, 500L))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(31L));
+    }
+
+    @Test
+    void consumeAdditional_WhenRequestCanNeverFit_CapsRetryAfterAtRefillPeriod() {
+        stubBucket();
+        ConsumptionProbe probe = mock(ConsumptionProbe.class);
+        when(probe.isConsumed()).thenReturn(false);
+        when(probe.getNanosToWaitForRefill()).thenReturn(Long.MAX_VALUE);
+        when(bucket.tryConsumeAndReturnRemaining(4999L)).thenReturn(probe);
+
+        assertThatThrownBy(() -> rateLimitService.consumeAdditional(request, 4999L))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(TimeUnit.MINUTES.toSeconds(60)));
+    }
+
+    @Test
+    void consumeAdditional_WithoutBucket_IsNotCharged() {
+        assertThat(rateLimitService.consumeAdditional(new MockHttpServletRequest(), 10L)).isEqualTo(-1L);
+        verifyNoInteractions(proxyManager);
+    }
+
+    @Test
+    void getCapacity_ReturnsCapacityOfRequestTier() {
+        assertThat(rateLimitService.getCapacity(request)).isEqualTo(1000L);
+        assertThat(rateLimitService.getCapacity(new MockHttpServletRequest())).isEqualTo(-1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubBucket() {
+        when(proxyManager.builder()).thenReturn(bucketBuilder);
+        when(bucketBuilder.build(anyString(), any(Supplier.class))).thenReturn(bucket);
+    }
+}
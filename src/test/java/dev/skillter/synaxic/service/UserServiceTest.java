@@ -8,6 +8,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 
 import java.time.Instant;
@@ -25,6 +27,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -91,10 +96,13 @@ class UserServiceTest {
 
     @Test
     void deleteUser_ShouldCallRepository() {
+        Cache snapshotCache = mock(Cache.class);
+        when(cacheManager.getCache("userSnapshot")).thenReturn(snapshotCache);
         doNothing().when(userRepository).deleteById(1L);
 
         userService.deleteUser(1L);
 
         verify(userRepository).deleteById(1L);
+        verify(snapshotCache).evict(1L);
     }
 }
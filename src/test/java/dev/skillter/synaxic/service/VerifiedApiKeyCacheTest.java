@@ -0,0 +1,62 @@
+package dev.skillter.synaxic.service;
+
+import dev.skillter.synaxic.model.dto.ApiKeyPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class VerifiedApiKeyCacheTest {
+
+    private static final String FULL_KEY = "syn_live_abcdefghijklmnop";
+
+    private VerifiedApiKeyCache cache;
+    private ApiKeyPrincipal apiKey;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedApiKeyCache(mock(RedissonClient.class), 100, 5);
+        apiKey = new ApiKeyPrincipal(1L, "syn_live_abc", new byte[32], 10L, 1000);
+    }
+
+    @Test
+    void get_ShouldReturnKeyOnlyForTheExactPresentedKey() {
+        cache.put(FULL_KEY, apiKey, cache.generation());
+
+        assertThat(cache.get(FULL_KEY)).contains(apiKey);
+        assertThat(cache.get(FULL_KEY + "x")).isEmpty();
+    }
+
+    @Test
+    void evictPrefix_ShouldDropMatchingKeysOnly() {
+        ApiKeyPrincipal other = new ApiKeyPrincipal(2L, "syn_live_xyz", new byte[32], 10L, 1000);
+        cache.put(FULL_KEY, apiKey, cache.generation());
+        cache.put("syn_live_xyzdefghijklmnop", other, cache.generation());
+
+        cache.evictPrefix("syn_live_abc");
+
+        assertThat(cache.get(FULL_KEY)).isEmpty();
+        assertThat(cache.get("syn_live_xyzdefghijklmnop")).contains(other);
+    }
+
+    @Test
+    void evictPrefix_WithNull_ShouldDropEverything() {
+        cache.put(FULL_KEY, apiKey, cache.generation());
+
+        cache.evictPrefix(null);
+
+        assertThat(cache.get(FULL_KEY)).isEmpty();
+    }
+
+    @Test
+    void put_AfterConcurrentEviction_ShouldNotCache() {
+        long generation = cache.generation();
+        cache.evictPrefix("syn_live_abc");
+
+        cache.put(FULL_KEY, apiKey, generation);
+
+        assertThat(cache.get(FULL_KEY)).isEmpty();
+    }
+}
@@ -0,0 +1,107 @@
+package dev.skillter.synaxic.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.InetAddress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientAddressTest {
+
+    @Test
+    void parse_Ipv4_PacksAsMappedAddress() {
+        ClientAddress address = ClientAddress.parse("203.0.113.7");
+
+        assertThat(address).isNotNull();
+        assertThat(address.isIpv4()).isTrue();
+        assertThat(address.high()).isZero();
+        assertThat(address.low()).isEqualTo(0xFFFF_CB00_7107L);
+        assertThat(address.toString()).isEqualTo("203.0.113.7");
+        assertThat(address.version()).isEqualTo("IPv4");
+    }
+
+    @Test
+    void parse_Ipv6_FormatsCanonically() {
+        assertThat(ClientAddress.parse("2001:0DB8:0000:0000:0000:0000:0002:0001")).hasToString("2001:db8::2:1");
+        assertThat(ClientAddress.parse("2001:db8:0:1:1:1:1:1")).hasToString("2001:db8:0:1:1:1:1:1");
+        assertThat(ClientAddress.parse("2001:0:0:1:0:0:0:1")).hasToString("2001:0:0:1::1");
+        assertThat(ClientAddress.parse("::")).hasToString("::");
+        assertThat(ClientAddress.parse("::1")).hasToString("::1");
+        assertThat(ClientAddress.parse("fe80::")).hasToString("fe80::");
+        assertThat(ClientAddress.parse("2606:4700:4700::1111").version()).isEqualTo("IPv6");
+    }
+
+    @Test
+    void parse_EquivalentForms_AreEqual() {
+        assertThat(ClientAddress.parse("2001:db8::1")).isEqualTo(ClientAddress.parse("2001:DB8:0:0:0:0:0:1"));
+        assertThat(ClientAddress.parse("::ffff:8.8.8.8")).isEqualTo(ClientAddress.parse("8.8.8.8"));
+        assertThat(ClientAddress.parse("::ffff:8.8.8.8").isIpv4()).isTrue();
+        assertThat(ClientAddress.parse("::ffff:8.8.8.8")).hasToString("8.8.8.8");
+    }
+
+    @Test
+    void parse_DecoratedForms_AreAccepted() {
+        assertThat(ClientAddress.parse("  8.8.8.8 ")).hasToString("8.8.8.8");
+        assertThat(ClientAddress.parse("8.8.8.8:443")).hasToString("8.8.8.8");
+        assertThat(ClientAddress.parse("[2001:db8::1]")).hasToString("2001:db8::1");
+        assertThat(ClientAddress.parse("[2001:db8::1]:8080")).hasToString("2001:db8::1");
+        assertThat(ClientAddress.parse("fe80::1%eth0")).hasToString("fe80::1");
+    }
+
+    @Test
+    void parse_Range_ParsesOnlyTheRange() {
+        String header = "198.51.100.1, 10.0.0.1";
+
+        assertThat(ClientAddress.parse(header, 0, header.indexOf(','))).hasToString("198.51.100.1");
+        assertThat(ClientAddress.parse(header, header.indexOf(',') + 1, header.length())).hasToString("10.0.0.1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "unknown", "example.com", "1.2.3", "1.2.3.4.5", "256.1.1.1", "1..2.3", "1.2.3.4.",
+            "1234.1.1.1", "1:2:3:4:5:6:7", "1:2:3:4:5:6:7:8:9", "1::2::3", ":1::", "1:::2", "12345::", "::g",
+            "1:2:3:4:5:6:7::8", "[::1", "::ffff:1.2.3"})
+    void parse_InvalidInput_ReturnsNull(String value) {
+        assertThat(ClientAddress.parse(value)).isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0.0.0.0", "10.1.2.3", "100.64.0.1", "100.127.255.255", "127.0.0.1", "169.254.1.1",
+            "172.16.0.1", "172.31.255.255", "192.168.0.1", "192.0.2.1", "198.18.0.1", "224.0.0.1", "255.255.255.255",
+            "::", "::1", "fc00::1", "fd12:3456::1", "fe80::1", "febf::1", "ff02::1", "2001:db8::1", "::ffff:10.0.0.1"})
+    void isPrivateOrReserved_NonRoutableAddresses_ReturnsTrue(String value) {
+        assertThat(ClientAddress.parse(value).isPrivateOrReserved()).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"8.8.8.8", "1.1.1.1", "100.63.255.255", "100.128.0.0", "172.15.255.255", "172.32.0.0",
+            "192.169.0.1", "2606:4700:4700::1111", "2a00:1450:4001::200e", "fec0::1"})
+    void isPrivateOrReserved_PublicAddresses_ReturnsFalse(String value) {
+        assertThat(ClientAddress.parse(value).isPrivateOrReserved()).isFalse();
+    }
+
+    @Test
+    void toInetAddress_ReturnsMatchingAddress() throws Exception {
+        assertThat(ClientAddress.parse("8.8.4.4").toInetAddress()).isEqualTo(InetAddress.getByName("8.8.4.4"));
+        assertThat(ClientAddress.parse("2001:db8::ff").toInetAddress()).isEqualTo(InetAddress.getByName("2001:db8::ff"));
+    }
+
+    @Test
+    void cidrBlock_Contains_UsesPrefixMask() {
+        CidrBlock block = CidrBlock.parse("203.0.113.0/25");
+
+        assertThat(block.contains(ClientAddress.parse("203.0.113.127"))).isTrue();
+        assertThat(block.contains(ClientAddress.parse("203.0.113.128"))).isFalse();
+        assertThat(CidrBlock.parse("2001:db8::/48").contains(ClientAddress.parse("2001:db8:0:ffff::1"))).isTrue();
+        assertThat(CidrBlock.parse("2001:db8::/48").contains(ClientAddress.parse("2001:db8:1::1"))).isFalse();
+        assertThat(CidrBlock.parse("8.8.8.8").contains(ClientAddress.parse("8.8.8.8"))).isTrue();
+    }
+
+    @Test
+    void cidrBlock_InvalidInput_Throws() {
+        assertThatThrownBy(() -> CidrBlock.parse("10.0.0.0/33")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CidrBlock.parse("not-a-network/8")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package dev.skillter.synaxic.util;
+
+import dev.skillter.synaxic.service.GeoIpService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientContextResolverTest {
+
+    @Mock
+    private IpExtractor ipExtractor;
+
+    @Mock
+    private GeoIpService geoIpService;
+
+    @InjectMocks
+    private ClientContextResolver clientContextResolver;
+
+    @Test
+    void resolve_CalledRepeatedly_ExtractsAndLooksUpOnce() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ClientAddress address = ClientAddress.parse("8.8.8.8");
+        when(ipExtractor.extractClientAddress(request)).thenReturn(address);
+        when(geoIpService.getCountry(address)).thenReturn(Optional.of("US"));
+
+        ClientContext first = clientContextResolver.resolve(request);
+        ClientContext second = clientContextResolver.resolve(request);
+
+        assertThat(second).isSameAs(first);
+        assertThat(ClientContext.get(request)).isSameAs(first);
+        assertThat(first.ip()).isEqualTo("8.8.8.8");
+        assertThat(first.country()).contains("US");
+        assertThat(second.country()).contains("US");
+        verify(ipExtractor, times(1)).extractClientAddress(request);
+        verify(geoIpService, times(1)).getCountry(address);
+    }
+
+    @Test
+    void resolve_CountryNotRequested_SkipsGeoLookup() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        when(ipExtractor.extractClientAddress(request)).thenReturn(ClientAddress.parse("8.8.8.8"));
+
+        clientContextResolver.resolve(request).address();
+
+        verify(geoIpService, never()).getCountry(any(ClientAddress.class));
+    }
+}
@@ -0,0 +1,73 @@
+package dev.skillter.synaxic.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IpExtractorTest {
+
+    private final IpExtractor ipExtractor = new IpExtractor(List.of("10.0.0.0/8", "::1/128", "162.158.0.0/15"));
+
+    @Test
+    void extractClientAddress_UntrustedPeer_IgnoresHeaders() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-For", "1.1.1.1");
+        request.addHeader("X-Real-IP", "1.0.0.1");
+        request.setRemoteAddr("203.0.113.9");
+
+        assertThat(ipExtractor.extractClientAddress(request)).hasToString("203.0.113.9");
+    }
+
+    @Test
+    void extractClientAddress_TrustedPeer_WalksForwardedForFromTheRight() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        // The client spoofed the first entry; the real client is the first untrusted hop from the right
+        request.addHeader("X-Forwarded-For", "8.8.8.8, 198.51.100.20 , 162.158.1.1");
+        request.setRemoteAddr("10.0.0.5");
+
+        assertThat(ipExtractor.extractClientAddress(request)).hasToString("198.51.100.20");
+    }
+
+    @Test
+    void extractClientAddress_RepeatedHeaders_AreTreatedAsOneList() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-For", "2606:4700:4700::1111");
+        request.addHeader("X-Forwarded-For", "10.0.0.7");
+        request.setRemoteAddr("::1");
+
+        ClientAddress address = ipExtractor.extractClientAddress(request);
+
+        assertThat(address).hasToString("2606:4700:4700::1111");
+        assertThat(address.isIpv4()).isFalse();
+    }
+
+    @Test
+    void extractClientAddress_MalformedHop_StopsAtLastTrustedAddress() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-For", "8.8.8.8, garbage, 10.0.0.9");
+        request.setRemoteAddr("10.0.0.5");
+
+        assertThat(ipExtractor.extractClientAddress(request)).hasToString("10.0.0.9");
+    }
+
+    @Test
+    void extractClientAddress_TrustedPeerWithoutForwardedFor_UsesRealIp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Real-IP", "198.51.100.7");
+        request.setRemoteAddr("10.0.0.5");
+
+        assertThat(ipExtractor.extractClientAddress(request)).hasToString("198.51.100.7");
+    }
+
+    @Test
+    void extractClientIp_InvalidRemoteAddress_ReturnsUnspecified() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("localhost");
+
+        assertThat(ipExtractor.extractClientIp(request)).isEqualTo("0.0.0.0");
+        assertThat(ipExtractor.extractClientIp(null)).isEqualTo("0.0.0.0");
+    }
+}
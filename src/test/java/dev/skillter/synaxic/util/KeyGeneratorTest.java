@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.HexFormat;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -46,16 +47,39 @@ class KeyGeneratorTest {
     void generate_ShouldHaveCorrectLength() {
         GeneratedApiKey result = keyGenerator.generate(testUser);
 
-        // syn_live_ (9 chars) + base64-encoded 32 bytes (43 chars without padding) = 52 total
-        assertThat(result.fullKey().length()).isGreaterThanOrEqualTo(50);
+        // syn_live_v2. (12) + key ID (16) + '.' + base64-encoded 32 bytes (43 chars without padding) = 72 total
+        assertThat(result.fullKey()).hasSize(72);
     }
 
     @Test
     void generate_ShouldHaveCorrectPrefixLength() {
         GeneratedApiKey result = keyGenerator.generate(testUser);
 
-        // Prefix should be first 12 characters
-        assertThat(result.apiKey().getPrefix()).hasSize(12);
+        // Prefix is syn_live_v2. plus the 16-character key ID
+        assertThat(result.apiKey().getPrefix()).hasSize(28);
+        assertThat(result.fullKey()).startsWith(result.apiKey().getPrefix() + ".");
+    }
+
+    @Test
+    void lookupId_ShouldReturnKeyIdPrefixForV2Keys() {
+        GeneratedApiKey result = keyGenerator.generate(testUser);
+
+        assertThat(KeyGenerator.lookupId(result.fullKey())).isEqualTo(result.apiKey().getPrefix());
+    }
+
+    @Test
+    void lookupId_ShouldReturnFirst12CharactersForLegacyKeys() {
+        assertThat(KeyGenerator.lookupId("syn_live_abcdefghijklmnop")).isEqualTo("syn_live_abc");
+    }
+
+    @Test
+    void lookupId_ShouldRejectMalformedKeys() {
+        assertThat(KeyGenerator.lookupId(null)).isNull();
+        assertThat(KeyGenerator.lookupId("invalid_key")).isNull();
+        assertThat(KeyGenerator.lookupId("syn_live_ab")).isNull();
+        assertThat(KeyGenerator.lookupId("syn_live_v2.tooshort")).isNull();
+        assertThat(KeyGenerator.lookupId("syn_live_v2.ABCDEFGHIJKLMNOP")).isNull();
+        assertThat(KeyGenerator.lookupId("syn_live_v2.ABCDEFGHIJKLMNOPxsecret")).isNull();
     }
 
     @Test
@@ -80,19 +104,19 @@ class KeyGeneratorTest {
 
         assertThat(result.apiKey().getKeyHash()).isNotNull();
         assertThat(result.apiKey().getKeyHash()).isNotEqualTo(result.fullKey());
-        // SHA-256 hash should be 64 characters (hex)
-        assertThat(result.apiKey().getKeyHash()).hasSize(64);
+        // Raw SHA-256 digest
+        assertThat(result.apiKey().getKeyHash()).hasSize(32);
     }
 
     @Test
     void calculateSha256_ShouldReturnConsistentHash() {
         String input = "test_input_string";
 
-        String hash1 = keyGenerator.calculateSha256(input);
-        String hash2 = keyGenerator.calculateSha256(input);
+        byte[] hash1 = keyGenerator.calculateSha256(input);
+        byte[] hash2 = keyGenerator.calculateSha256(input);
 
         assertThat(hash1).isEqualTo(hash2);
-        assertThat(hash1).hasSize(64);
+        assertThat(hash1).hasSize(32);
     }
 
     @Test
@@ -100,18 +124,17 @@ class KeyGeneratorTest {
         String input1 = "test_input_1";
         String input2 = "test_input_2";
 
-        String hash1 = keyGenerator.calculateSha256(input1);
-        String hash2 = keyGenerator.calculateSha256(input2);
+        byte[] hash1 = keyGenerator.calculateSha256(input1);
+        byte[] hash2 = keyGenerator.calculateSha256(input2);
 
         assertThat(hash1).isNotEqualTo(hash2);
     }
 
     @Test
-    void calculateSha256_ShouldOnlyContainHexCharacters() {
-        String input = "test_input";
-
-        String hash = keyGenerator.calculateSha256(input);
+    void calculateSha256_ShouldMatchKnownDigest() {
+        byte[] hash = keyGenerator.calculateSha256("abc");
 
-        assertThat(hash).matches("^[a-f0-9]+$");
+        assertThat(HexFormat.of().formatHex(hash))
+                .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
     }
 }
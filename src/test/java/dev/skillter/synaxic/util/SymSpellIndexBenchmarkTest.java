@@ -0,0 +1,74 @@
+package dev.skillter.synaxic.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Shows that typo lookups cost the same regardless of the dictionary size.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class SymSpellIndexBenchmarkTest {
+
+    private static final int[] DICTIONARY_SIZES = {100, 1_000, 10_000, 50_000};
+    private static final String[] QUERIES = {"gmial.com", "hotmial.com", "acme-corp.io", "yaho.com"};
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 500_000;
+
+    @Test
+    void lookupCostIsFlatAcrossDictionarySizes() {
+        Map<Integer, Double> nanosPerLookup = new LinkedHashMap<>();
+
+        for (int size : DICTIONARY_SIZES) {
+            SymSpellIndex index = SymSpellIndex.build(dictionary(size), 2);
+            run(index, WARMUP_ITERATIONS);
+
+            long start = System.nanoTime();
+            int hits = run(index, MEASURED_ITERATIONS);
+            double nanos = (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+            nanosPerLookup.put(size, nanos);
+            System.out.printf("SymSpellIndex size=%-6d %8.1f ns/lookup (hits=%d)%n", size, nanos, hits);
+        }
+
+        double smallest = nanosPerLookup.get(DICTIONARY_SIZES[0]);
+        double largest = nanosPerLookup.get(DICTIONARY_SIZES[DICTIONARY_SIZES.length - 1]);
+        // 500x more terms must not cost anywhere near 500x more; allow generous noise for cache effects
+        assertThat(largest).isLessThan(smallest * 5);
+    }
+
+    private static int run(SymSpellIndex index, int iterations) {
+        int hits = 0;
+        for (int i = 0; i < iterations; i++) {
+            String query = QUERIES[i % QUERIES.length];
+            int maxDistance = query.length() >= 10 ? 2 : 1;
+            if (index.closest(query, maxDistance).isPresent()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private static List<String> dictionary(int size) {
+        List<String> domains = new ArrayList<>(List.of("gmail.com", "yahoo.com", "hotmail.com", "outlook.com"));
+        String[] tlds = {".com", ".net", ".org", ".io", ".de", ".co.uk"};
+        Random random = new Random(42);
+        while (domains.size() < size) {
+            StringBuilder label = new StringBuilder();
+            int length = 6 + random.nextInt(10);
+            for (int i = 0; i < length; i++) {
+                label.append((char) ('a' + random.nextInt(26)));
+            }
+            domains.add(label + tlds[random.nextInt(tlds.length)]);
+        }
+        return domains;
+    }
+}
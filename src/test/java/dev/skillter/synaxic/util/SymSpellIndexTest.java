@@ -0,0 +1,74 @@
+package dev.skillter.synaxic.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SymSpellIndexTest {
+
+    private SymSpellIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = SymSpellIndex.build(List.of("gmail.com", "yahoo.com", "hotmail.com", "outlook.com", "qq.com", "gmx.com"), 2);
+    }
+
+    @Test
+    void closest_Transposition_ReturnsTerm() {
+        assertThat(index.closest("gmial.com", 1)).contains("gmail.com");
+        assertThat(index.closest("hotmial.com", 1)).contains("hotmail.com");
+    }
+
+    @Test
+    void closest_DeletionInsertionAndSubstitution_ReturnTerm() {
+        assertThat(index.closest("gmai.com", 1)).contains("gmail.com");
+        assertThat(index.closest("yahooo.com", 1)).contains("yahoo.com");
+        assertThat(index.closest("gmail.con", 1)).contains("gmail.com");
+    }
+
+    @Test
+    void closest_TwoEdits_RequiresDistanceTwo() {
+        assertThat(index.closest("outlok.con", 1)).isEmpty();
+        assertThat(index.closest("outlok.con", 2)).contains("outlook.com");
+    }
+
+    @Test
+    void closest_ExactOrUnrelatedTerm_ReturnsEmpty() {
+        assertThat(index.closest("gmail.com", 2)).isEmpty();
+        assertThat(index.closest("example.org", 2)).isEmpty();
+        assertThat(index.closest("", 2)).isEmpty();
+        assertThat(index.closest(null, 2)).isEmpty();
+    }
+
+    @Test
+    void closest_EqualDistance_PrefersEarlierTerm() {
+        SymSpellIndex ranked = SymSpellIndex.build(List.of("abc.com", "abd.com"), 1);
+
+        assertThat(ranked.closest("abe.com", 1)).contains("abc.com");
+    }
+
+    @Test
+    void build_IgnoresDuplicatesAndBlankTerms() {
+        SymSpellIndex built = SymSpellIndex.build(List.of("gmail.com", "", "gmail.com", "qq.com"), 1);
+
+        assertThat(built.size()).isEqualTo(2);
+        assertThat(built.contains("qq.com")).isTrue();
+    }
+
+    @Test
+    void build_InvalidDistance_Throws() {
+        assertThatThrownBy(() -> SymSpellIndex.build(List.of("gmail.com"), 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void optimalStringAlignmentDistance_CountsTranspositionAsOneEdit() {
+        assertThat(SymSpellIndex.optimalStringAlignmentDistance("gmial", "gmail", 5)).isEqualTo(1);
+        assertThat(SymSpellIndex.optimalStringAlignmentDistance("kitten", "sitting", 5)).isEqualTo(3);
+        assertThat(SymSpellIndex.optimalStringAlignmentDistance("kitten", "sitting", 2)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,35 @@
+package dev.skillter.synaxic.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XxHash64Test {
+
+    @Test
+    void getValue_MatchesReferenceVectors() {
+        assertThat(hash("", 1)).isEqualTo(0xEF46DB3751D8E999L);
+        assertThat(hash("abc", 1)).isEqualTo(0x44BC2CF5AD770999L);
+        assertThat(hash("Nobody inspects the spammish repetition", 64)).isEqualTo(0xFBCEA83C8A378BF1L);
+    }
+
+    @Test
+    void update_ChunkBoundaries_DoNotChangeTheHash() {
+        String input = "Nobody inspects the spammish repetition";
+
+        assertThat(hash(input, 3)).isEqualTo(hash(input, 64));
+        assertThat(hash(input, 7)).isEqualTo(hash(input, 64));
+        assertThat(hash(input, 32)).isEqualTo(hash(input, 64));
+    }
+
+    private static long hash(String input, int chunkSize) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        XxHash64 hash = new XxHash64();
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            hash.update(bytes, i, Math.min(chunkSize, bytes.length - i));
+        }
+        return hash.getValue();
+    }
+}